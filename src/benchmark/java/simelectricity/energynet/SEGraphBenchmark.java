@@ -0,0 +1,209 @@
+package simelectricity.energynet;
+
+import simelectricity.energynet.components.Cable;
+import simelectricity.energynet.components.SEComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the graph store and the topology reducer with synthetic networks of cables which are not bound to any TileEntity:
+ * <p/>
+ * A square lattice, almost every node is a terminal.
+ * <p/>
+ * A ring of junctions joined by long cable runs, each junction also has a dead-end run, almost every node is eliminated.
+ * The cable runs are cut and branched in the middle, which is what the incremental reduction is for.
+ * <p/>
+ * Lives in the benchmark source set and is not shipped, run it with "gradle runBenchmark [-Pnodes=100000] [-PchainLength=1000]".
+ * It does not touch any EnergyNet
+ */
+public class SEGraphBenchmark {
+    //Number of cuts and branches made in the middle of the cable runs
+    private static final int EDITS = 100;
+
+    public static void main(String[] args) {
+        int numOfNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int chainLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        if (numOfNodes < 1)
+            throw new IllegalArgumentException("The number of nodes must be positive");
+        if (chainLength < 2)
+            throw new IllegalArgumentException("The cable runs must be at least 2 cables long");
+
+        for (String s : SEGraphBenchmark.run(numOfNodes))
+            System.out.println(s);
+        for (String s : SEGraphBenchmark.runChains(numOfNodes, chainLength))
+            System.out.println(s);
+    }
+
+    public static String[] run(int numOfNodes) {
+        int side = (int) Math.ceil(Math.sqrt(numOfNodes));
+        SEGraph graph = new SEGraph();
+        Cable[] cables = new Cable[side * side];
+
+        long startAt = System.nanoTime();
+        for (int i = 0; i < cables.length; i++) {
+            cables[i] = new Cable(null, null, false);
+            graph.addVertex(cables[i]);
+        }
+        long vertices = System.nanoTime() - startAt;
+
+        startAt = System.nanoTime();
+        for (int x = 0; x < side; x++) {
+            for (int z = 0; z < side; z++) {
+                SEComponent cable = cables[x * side + z];
+                if (x + 1 < side)
+                    graph.addEdge(cable, cables[(x + 1) * side + z]);
+                if (z + 1 < side)
+                    graph.addEdge(cable, cables[x * side + z + 1]);
+            }
+        }
+        long edges = System.nanoTime() - startAt;
+
+        startAt = System.nanoTime();
+        SEGraph.Snapshot snapshot = graph.snapshot(0, false);
+        long snapshotTime = System.nanoTime() - startAt;
+
+        TopologyReducer reducer = new TopologyReducer("SEGraphBenchmark");
+        startAt = System.nanoTime();
+        ReducedTopology topology = reducer.reduce(snapshot);
+        long reduction = System.nanoTime() - startAt;
+
+        //Place a single cable next to a corner
+        startAt = System.nanoTime();
+        Cable extra = new Cable(null, null, false);
+        graph.addVertex(extra);
+        graph.addEdge(extra, cables[0]);
+        snapshot = graph.snapshot(1, false);
+        long placeGraph = System.nanoTime() - startAt;
+        startAt = System.nanoTime();
+        reducer.reduce(snapshot);
+        long placeReduction = System.nanoTime() - startAt;
+
+        //Remove every 10th node, as unloading chunks would do
+        startAt = System.nanoTime();
+        for (int i = 0; i < cables.length; i += 10)
+            graph.removeVertex(cables[i]);
+        long removal = System.nanoTime() - startAt;
+
+        return new String[]{
+                "Lattice benchmark: " + cables.length + " nodes, " + topology.getTerminalCount() + " terminals",
+                "Add vertices: " + vertices / 1000000 + "ms",
+                "Add edges: " + edges / 1000000 + "ms",
+                "Snapshot: " + snapshotTime / 1000000 + "ms",
+                "Reduction: " + reduction / 1000000 + "ms, " + topology.getTerminalCount() + " terminals, " + topology.getEliminatedCount() + " eliminated",
+                "Place one cable: SEGraph and snapshot " + placeGraph / 1000 + "us, reduction " + placeReduction / 1000 + "us, " +
+                        reducer.getRewalkedWires() + " wires walked, " + reducer.getPatchedRows() + " terminals patched",
+                "Remove 10% vertices: " + removal / 1000000 + "ms"
+        };
+    }
+
+    public static String[] runChains(int numOfNodes, int chainLength) {
+        //Each junction comes with one run to the next junction and one dead-end run
+        int junctions = Math.max(2, numOfNodes / (2 * chainLength + 1));
+        SEGraph graph = new SEGraph();
+        Cable[] junction = new Cable[junctions];
+        Cable[][] runs = new Cable[junctions][chainLength];
+        int nodes = 0;
+
+        long startAt = System.nanoTime();
+        for (int j = 0; j < junctions; j++) {
+            junction[j] = new Cable(null, null, false);
+            graph.addVertex(junction[j]);
+            nodes++;
+        }
+        for (int j = 0; j < junctions; j++) {
+            SEComponent last = junction[j];
+            for (int i = 0; i < chainLength; i++) {
+                runs[j][i] = new Cable(null, null, false);
+                graph.addVertex(runs[j][i]);
+                graph.addEdge(last, runs[j][i]);
+                last = runs[j][i];
+            }
+            graph.addEdge(last, junction[(j + 1) % junctions]);
+
+            last = junction[j];
+            for (int i = 0; i < chainLength; i++) {
+                Cable cable = new Cable(null, null, false);
+                graph.addVertex(cable);
+                graph.addEdge(last, cable);
+                last = cable;
+            }
+            nodes += 2 * chainLength;
+        }
+        long build = System.nanoTime() - startAt;
+
+        TopologyReducer reducer = new TopologyReducer("SEGraphBenchmark");
+        int version = 0;
+        startAt = System.nanoTime();
+        SEGraph.Snapshot snapshot = graph.snapshot(version++, false);
+        long snapshotTime = System.nanoTime() - startAt;
+        startAt = System.nanoTime();
+        ReducedTopology topology = reducer.reduce(snapshot);
+        long reduction = System.nanoTime() - startAt;
+
+        //Cut a run in the middle and join it again, the ends become dead-end runs of the two junctions
+        int edits = Math.min(EDITS, junctions);
+        long cutGraph = 0, cutReduction = 0, cutWalked = 0, cutPatched = 0;
+        for (int e = 0; e < edits; e++) {
+            Cable[] run = runs[e * junctions / edits];
+            Cable a = run[chainLength / 2 - 1];
+            Cable b = run[chainLength / 2];
+
+            for (int step = 0; step < 2; step++) {
+                startAt = System.nanoTime();
+                if (step == 0)
+                    graph.removeEdge(a, b);
+                else
+                    graph.addEdge(a, b);
+                snapshot = graph.snapshot(version++, false);
+                cutGraph += System.nanoTime() - startAt;
+
+                startAt = System.nanoTime();
+                reducer.reduce(snapshot);
+                cutReduction += System.nanoTime() - startAt;
+                cutWalked += reducer.getRewalkedWires();
+                cutPatched += reducer.getPatchedRows();
+            }
+        }
+
+        //Branch a run in the middle and remove the branch again, the middle cable becomes a terminal and back
+        long branchGraph = 0, branchReduction = 0, branchWalked = 0, branchPatched = 0;
+        List<Cable> branches = new ArrayList<Cable>(edits);
+        for (int e = 0; e < edits; e++) {
+            Cable middle = runs[e * junctions / edits][chainLength / 2];
+
+            for (int step = 0; step < 2; step++) {
+                startAt = System.nanoTime();
+                if (step == 0) {
+                    Cable branch = new Cable(null, null, false);
+                    graph.addVertex(branch);
+                    graph.addEdge(middle, branch);
+                    branches.add(branch);
+                } else {
+                    graph.removeVertex(branches.get(e));
+                }
+                snapshot = graph.snapshot(version++, false);
+                branchGraph += System.nanoTime() - startAt;
+
+                startAt = System.nanoTime();
+                reducer.reduce(snapshot);
+                branchReduction += System.nanoTime() - startAt;
+                branchWalked += reducer.getRewalkedWires();
+                branchPatched += reducer.getPatchedRows();
+            }
+        }
+
+        return new String[]{
+                "Cable run benchmark: " + nodes + " nodes, " + junctions + " junctions, runs of " + chainLength + " cables",
+                "Build SEGraph: " + build / 1000000 + "ms",
+                "Snapshot: " + snapshotTime / 1000000 + "ms",
+                "Reduction: " + reduction / 1000000 + "ms, " + topology.getTerminalCount() + " terminals, " + topology.getEliminatedCount() + " eliminated",
+                "Cut and rejoin a run (" + edits * 2 + " edits): SEGraph and snapshot " + cutGraph / 1000 / (edits * 2) + "us, reduction " +
+                        cutReduction / 1000 / (edits * 2) + "us per edit, " + cutWalked / (edits * 2) + " wires walked, " +
+                        cutPatched / (edits * 2) + " terminals patched per edit",
+                "Branch a run and remove the branch (" + edits * 2 + " edits): SEGraph and snapshot " + branchGraph / 1000 / (edits * 2) + "us, reduction " +
+                        branchReduction / 1000 / (edits * 2) + "us per edit, " + branchWalked / (edits * 2) + " wires walked, " +
+                        branchPatched / (edits * 2) + " terminals patched per edit"
+        };
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2014 SimElectricity
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+
+package simelectricity.api;
+
+import net.minecraft.tileentity.TileEntity;
+
+public interface ISEEnergyNetResultListener {
+    /**
+     * Called from the server thread after the EnergyNet has published results which changed the voltage of
+     * any node of the subscribed TileEntity, and after the TileEntity itself has been notified
+     * (if it implements ISEEnergyNetUpdateHandler), so fields it updates there are already up to date.<br>
+     * Results which did not change anything of the TileEntity do not trigger this call.
+     *
+     * @param resultEpoch the latest result epoch of the TileEntity, see ISEEnergyNetAgent.getResultEpoch()
+     */
+    void onEnergyNetResultChanged(TileEntity te, int resultEpoch);
+}
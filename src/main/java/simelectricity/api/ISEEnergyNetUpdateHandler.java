@@ -22,20 +22,14 @@ package simelectricity.api;
 
 public interface ISEEnergyNetUpdateHandler {
     /**
-     * This function will be called as soon as the EnergyNet finishes simulation
+     * This function will be called after the EnergyNet publishes the results of a simulation
      * Suitable for TileEntities which implement any of the following:<br>
      * ISECableTile, ISEGridTile and ISEMachineTile<br>
-     * Warning: this function is always called from the EnergyNet thread, so do not directly interact with
-     * Blocks, TileEntities or anything in the world.<br>
-     * Inappropriate multi-threading can lead to random weirdness in the game and
-     * it be can extremely hard to locate the problem.<br>
+     * This function is called from the server thread at the beginning of a world tick,
+     * the simulation itself runs on the EnergyNet thread, but it never touches TileEntities.<br>
      * <br>
-     * The recommended solution is to schedule a task to the server's queue so that
-     * the server thread will execute them.<br>
-     * <br>
-     * Since this method is server-only, the world object in TileEntities must be WorldServer,
-     * (Remember EnergyNet threads are server threads, clients can not have them!),
-     * so simply cast the world object into WorldServer and call WorldServer.addScheduledTask()
+     * If a tick budget is configured, notifying all tiles may be spread over a few ticks.
+     * Heavy world interactions (e.g. block updates) can still be deferred with WorldServer.addScheduledTask()
      */
     void onEnergyNetUpdate();
 }
@@ -0,0 +1,22 @@
+package simelectricity.api;
+
+/**
+ * Implemented by TileEntities whose component parameters depend on the time of day or the surroundings, e.g. solar panels.
+ * <p/>
+ * The EnergyNet tracks them once they are attached, so they do not have to poll the world every tick (no ITickable needed):<br>
+ * 1. When day turns into night or vice versa, all of them are updated in the same tick<br>
+ * 2. The sky exposure (of the block above the tile) is cached, and checked again when a block in the same column changes,
+ * or at a low rate in case the world is modified without block updates<br>
+ * <br>
+ * Parameter changes reported in the same tick are applied together, so they only cause one simulation.
+ */
+public interface ISEEnvironmentSensitive {
+    /**
+     * Called from the server thread, do NOT call SEAPI.energyNetAgent.updateTileParameter() here
+     *
+     * @param isDaytime true if it is day time in the world
+     * @param canSeeSky true if the world has a sky and the block above this tile can see it
+     * @return true if the component parameters have changed and should be updated to the EnergyNet
+     */
+    boolean onEnvironmentUpdate(boolean isDaytime, boolean canSeeSky);
+}
@@ -4,6 +4,7 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import simelectricity.api.ISEEnergyNetResultListener;
 import simelectricity.api.components.ISEComponentParameter;
 import simelectricity.api.node.ISEGridNode;
 import simelectricity.api.node.ISESimulatable;
@@ -35,6 +36,36 @@ public interface ISEEnergyNetAgent {
 
     boolean isNodeValid(World world, ISESimulatable node);
 
+    /**
+     * Nodes connected by cables, grid connections, Cable-GridNode interconnections or two-port components
+     * (e.g. transformers, switches, even if the switch is open) share an island, an island is simulated as a whole
+     *
+     * @return id of the island the node belongs to, -1 if the node is not attached to the EnergyNet.
+     * The id stays the same until the island is merged with another one or split, ids are never reused
+     */
+    int getIslandId(World world, ISESimulatable node);
+
+    /**
+     * Every time the EnergyNet publishes results, the nodes of the islands whose voltages changed are stamped
+     * with a new epoch, the epoch increases monotonically and never goes back
+     *
+     * @return the epoch of the latest results which changed any node of the TileEntity, 0 if never
+     */
+    int getResultEpoch(TileEntity te);
+
+    /**
+     * @return the epoch of the latest results which changed the node, 0 if never
+     */
+    int getResultEpoch(ISESimulatable node);
+
+    /**
+     * Get notified whenever the results of a TileEntity change, instead of polling it every tick,
+     * the listener stays registered until unsubscribeResults() is called, or the TileEntity becomes invalid
+     */
+    void subscribeResults(TileEntity te, ISEEnergyNetResultListener listener);
+
+    void unsubscribeResults(TileEntity te, ISEEnergyNetResultListener listener);
+
 
 
 
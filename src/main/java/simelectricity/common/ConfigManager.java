@@ -40,6 +40,8 @@ public class ConfigManager implements ISEConfigManager{
     public static int precision;
     public static int maxIteration;
     public static int shuntPN;
+    public static int tickBudget;
+    public static boolean freezeUnloadedChunks;
        
 
     public static void syncConfig(boolean isClient) {
@@ -50,6 +52,8 @@ public class ConfigManager implements ISEConfigManager{
         ConfigManager.precision = config.get(CATEGORY_ENERGYNET, "Precision", 3, "3 means that the result is accurate up to 3 decimal places").getInt();
         ConfigManager.maxIteration = config.get(CATEGORY_ENERGYNET, "Max iteration", 50, "To aviod infinite loop, the simualtor aborts the simulation when this threshold is reached").getInt();
         ConfigManager.shuntPN = config.get(CATEGORY_ENERGYNET, "RPN", 1000000000, "The resistance put in parallel with every PN junction, alleviate convergence issue").getInt();//
+        ConfigManager.tickBudget = config.get(CATEGORY_ENERGYNET, "Tick Budget", 0, "Maximum time (in milliseconds) the EnergyNet can spend per server tick on processing events, reading circuit parameters and notifying tiles, unfinished work continues in the following ticks. The simulation itself runs on its own thread and is not limited. 0 means unlimited").getInt();
+        ConfigManager.freezeUnloadedChunks = config.getBoolean("Freeze Unloaded Chunks", CATEGORY_ENERGYNET, false, "Keep the circuits of unloaded chunks in the EnergyNet with their last parameters, loading and unloading chunks will not change the topology");
         
         EnergyNetSimulator.config();
         
@@ -0,0 +1,116 @@
+package simelectricity.energynet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tile events which apply to all SE tiles of a chunk at once, keyed by EnergyNetDataProvider.chunkKey()
+ */
+public abstract class ChunkTileEvent extends EnergyEventBase {
+    protected final long chunk;
+
+    private ChunkTileEvent(long chunk) {
+        this.chunk = chunk;
+    }
+
+    /**
+     * Collects the attach events of tiles in the same chunk, so that they are processed together in every pass
+     */
+    public static class Attach extends ChunkTileEvent {
+        private final List<TileEvent.Attach> events = new ArrayList<TileEvent.Attach>();
+
+        public Attach(long chunk) {
+            super(chunk);
+        }
+
+        public void add(TileEvent.Attach event) {
+            this.events.add(event);
+        }
+
+        @Override
+        public void process(EnergyNetDataProvider dataProvider, int pass) {
+            for (TileEvent.Attach event: this.events)
+                event.process(dataProvider, pass);
+        }
+
+        @Override
+        public boolean changedStructure() {
+            for (TileEvent.Attach event: this.events) {
+                if (event.changedStructure())
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean needUpdate() {
+            for (TileEvent.Attach event: this.events) {
+                if (event.needUpdate())
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Detaches every SE tile and grid tile registered in the chunk, the detach events of the individual tiles are not needed.
+     * If freeze is set, the SE tiles stay in the graph as a frozen equivalent instead.
+     */
+    public static class Unload extends ChunkTileEvent {
+        private final boolean freeze;
+        private boolean removed;
+
+        public Unload(long chunk, boolean freeze) {
+            super(chunk);
+            this.freeze = freeze;
+        }
+
+        @Override
+        public void process(EnergyNetDataProvider dataProvider, int pass) {
+            if (pass != TADD)
+                return;
+
+            if (this.freeze)
+                dataProvider.freezeChunk(this.chunk);
+            else
+                this.removed = dataProvider.removeChunk(this.chunk);
+        }
+
+        @Override
+        public boolean changedStructure() {
+            return this.removed;
+        }
+
+        @Override
+        public boolean needUpdate() {
+            return this.removed;
+        }
+    }
+
+    /**
+     * A frozen chunk has been loaded again, removes frozen tiles which were not taken over by the reloaded tiles
+     */
+    public static class Load extends ChunkTileEvent {
+        private boolean removed;
+
+        public Load(long chunk) {
+            super(chunk);
+        }
+
+        @Override
+        public void process(EnergyNetDataProvider dataProvider, int pass) {
+            if (pass == TDEL)
+                this.removed = dataProvider.thawChunk(this.chunk);
+        }
+
+        @Override
+        public boolean changedStructure() {
+            return this.removed;
+        }
+
+        @Override
+        public boolean needUpdate() {
+            return this.removed;
+        }
+    }
+}
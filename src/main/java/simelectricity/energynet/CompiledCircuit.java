@@ -0,0 +1,629 @@
+package simelectricity.energynet;
+
+import simelectricity.common.ConfigManager;
+import simelectricity.energynet.components.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, versioned snapshot of the reduced circuit
+ * <p/>
+ * Compiled from the latest ReducedTopology and the live component parameters (see Compiler), it contains everything the simulator needs:
+ * nodes, stamps and parameter values. The simulator thread only works on the snapshot,
+ * so the server thread can keep modifying the live graph while a simulation is running.
+ * <p/>
+ * Nodes are grouped by island (taken from the connectivity index of the SEGraph, see SEGraph.getIslandId()),
+ * nodes of island k occupy index [islandStart[k], islandStart[k+1]).
+ */
+public final class CompiledCircuit {
+    public final int version;
+
+    //Unknown voltage nodes, the array index is also the row/column index within the matrix
+    final SEComponent[] nodes;
+    final int[] islandStart;
+
+    //Linear part of the nodal admittance matrix, compressed by row, sorted by column within each row
+    final int[] rowStart;
+    final int[] columns;
+    final double[] values;
+    //Position of the diagonal element of each row in values
+    final int[] diagonal;
+    //Current injected into each node by voltage sources (Norton equivalent)
+    final double[] injection;
+
+    //Constant power loads, grouped by island, loads of island k occupy [islandLoadStart[k], islandLoadStart[k+1])
+    final int[] islandLoadStart;
+    final int[] loadNode;
+    final double[] loadPower, loadRmin, loadRmax;
+
+    //Diodes, grouped by island
+    final int[] islandDiodeStart;
+    final int[] diodeIn, diodeOut;
+    //Position of the off-diagonal elements (in, out) and (out, in) in values
+    final int[] diodeInOut, diodeOutIn;
+    final DiodeInput.Model[] diodeModel;
+
+    //Wires removed by the topology reduction, their voltage is interpolated from the terminal nodes at both ends of the chain
+    final SEComponent[] eliminated;
+    final int[] eliminatedA, eliminatedB;    //-1 if not exist
+    final double[] eliminatedRA, eliminatedRB;
+
+    //Simulation results, written by the simulator thread
+    final double[] voltages;
+    volatile int iterations;
+
+    private CompiledCircuit(int version, SEComponent[] nodes, int[] islandStart,
+                            int[] rowStart, int[] columns, double[] values, int[] diagonal, double[] injection,
+                            int[] islandLoadStart, int[] loadNode, double[] loadPower, double[] loadRmin, double[] loadRmax,
+                            int[] islandDiodeStart, int[] diodeIn, int[] diodeOut, int[] diodeInOut, int[] diodeOutIn, DiodeInput.Model[] diodeModel,
+                            SEComponent[] eliminated, int[] eliminatedA, int[] eliminatedB, double[] eliminatedRA, double[] eliminatedRB) {
+        this.version = version;
+        this.nodes = nodes;
+        this.islandStart = islandStart;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.values = values;
+        this.diagonal = diagonal;
+        this.injection = injection;
+        this.islandLoadStart = islandLoadStart;
+        this.loadNode = loadNode;
+        this.loadPower = loadPower;
+        this.loadRmin = loadRmin;
+        this.loadRmax = loadRmax;
+        this.islandDiodeStart = islandDiodeStart;
+        this.diodeIn = diodeIn;
+        this.diodeOut = diodeOut;
+        this.diodeInOut = diodeInOut;
+        this.diodeOutIn = diodeOutIn;
+        this.diodeModel = diodeModel;
+        this.eliminated = eliminated;
+        this.eliminatedA = eliminatedA;
+        this.eliminatedB = eliminatedB;
+        this.eliminatedRA = eliminatedRA;
+        this.eliminatedRB = eliminatedRB;
+
+        this.voltages = new double[nodes.length];
+    }
+
+    /**
+     * @return number of unknown voltage nodes
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    public int getIslandCount() {
+        return this.islandStart.length - 1;
+    }
+
+    public int getTotalNonZeros() {
+        return this.values.length;
+    }
+
+    /**
+     * Copy the simulation results to the components, must be called from the server thread
+     *
+     * @param epoch stamped onto the nodes of every island whose voltages changed (and the wires in between),
+     *              islands which converged to the same voltages as last time keep their old epoch
+     */
+    public void publish(int epoch) {
+        for (int k = 0; k < this.getIslandCount(); k++) {
+            int start = this.islandStart[k];
+            int end = this.islandStart[k + 1];
+
+            boolean changed = false;
+            for (int i = start; i < end && !changed; i++)
+                changed = this.nodes[i].eliminated || this.nodes[i].voltageCache != this.voltages[i];
+
+            for (int i = start; i < end; i++) {
+                this.nodes[i].voltageCache = this.voltages[i];
+                this.nodes[i].eliminated = false;
+                if (changed)
+                    this.nodes[i].resultEpoch = epoch;
+            }
+        }
+
+        for (int i = 0; i < this.eliminated.length; i++) {
+            SEComponent wire = this.eliminated[i];
+            int a = this.eliminatedA[i];
+            int b = this.eliminatedB[i];
+
+            double voltage, current;
+            if (a >= 0 && b >= 0) {
+                double vA = this.voltages[a];
+                double vB = this.voltages[b];
+                double rA = this.eliminatedRA[i];
+                double rB = this.eliminatedRB[i];
+                voltage = vA - (vA - vB) * rA / (rA + rB);
+                current = Math.abs((vA - vB) / (rA + rB));
+            } else if (a >= 0) {
+                voltage = this.voltages[a];
+                current = 0;
+            } else {
+                voltage = 0;
+                current = 0;
+            }
+
+            if (!wire.eliminated || wire.voltageCache != voltage || wire.currentCache != current)
+                wire.resultEpoch = epoch;
+            wire.eliminated = true;
+            wire.voltageCache = voltage;
+            wire.currentCache = current;
+        }
+    }
+
+    ////////////////////////////////////////////////
+    /// Compiler
+    ////////////////////////////////////////////////
+    /**
+     * Compiles a circuit in two stages:
+     * <p/>
+     * resume() reads the component parameters, it must be called from the thread which modifies the graph
+     * and can be spread over several ticks. assemble() builds the matrix from the collected values without touching
+     * any component, so it can run on the simulator thread.
+     */
+    public static final class Compiler {
+        public final int version;
+        public final ReducedTopology topology;
+        //Used by assemble(), null if there is nothing to seed
+        private final WarmStartCache warmStart;
+        private final Stamper stamper;
+        //Collected by resume(), indexed by terminal
+        private final int[] islandIds;
+        private final double[] lastVoltages;
+        private final long[] keys;
+        //Number of terminals which have been indexed and stamped so far
+        private int indexed, stamped;
+        //The structure has changed since the snapshot of the topology was taken, see markOutdated()
+        private boolean outdated;
+
+        public Compiler(ReducedTopology topology, int version, WarmStartCache warmStart) {
+            this.version = version;
+            this.topology = topology;
+            this.warmStart = warmStart;
+            this.stamper = new Stamper(topology.terminals);
+            this.islandIds = new int[topology.terminals.length];
+            this.lastVoltages = new double[topology.terminals.length];
+            this.keys = warmStart == null ? null : new long[topology.terminals.length];
+        }
+
+        /**
+         * Read the parameters of the terminals until all of them are stamped or the deadline has passed
+         *
+         * @param deadline in System.currentTimeMillis(), Long.MAX_VALUE for no limit
+         * @return true if all terminals are stamped, the compiler is ready for assemble()
+         */
+        public boolean resume(long deadline) {
+            SEComponent[] terminals = this.topology.terminals;
+
+            //The indices are needed by the couplings to terminals which have not been stamped yet
+            while (this.indexed < terminals.length) {
+                if ((this.indexed & 1023) == 0 && System.currentTimeMillis() > deadline)
+                    return false;
+                terminals[this.indexed].index = this.indexed;
+                this.indexed++;
+            }
+
+            while (this.stamped < terminals.length) {
+                if ((this.stamped & 63) == 0 && System.currentTimeMillis() > deadline)
+                    return false;
+
+                int i = this.stamped++;
+                //Every row has a diagonal element
+                this.stamper.add(i, i, 0);
+
+                //Node - Node
+                int[] edgeTo = this.topology.edgeTo[i];
+                double[] edgeR = this.topology.edgeR[i];
+                for (int p = 0; p < edgeTo.length; p++) {
+                    this.stamper.add(i, i, 1.0D / edgeR[p]);
+                    this.stamper.add(i, edgeTo[p], -1.0D / edgeR[p]);
+                }
+
+                this.stamper.stamp(terminals[i]);
+                SEGraph graph = terminals[i].graph;
+                this.islandIds[i] = graph == null ? -1 : graph.getIslandId(terminals[i]);
+                this.lastVoltages[i] = terminals[i].voltageCache;
+                if (this.keys != null)
+                    this.keys[i] = WarmStartCache.keyOf(terminals[i]);
+            }
+
+            return true;
+        }
+
+        /**
+         * The topology does not match the connectivity index anymore, islands joined by a coupling of the topology
+         * are solved together instead of failing the consistency check in assemble()
+         */
+        public void markOutdated() {
+            this.outdated = true;
+        }
+
+        /**
+         * Build the circuit from the stamped values, only reads the compiler and the topology
+         */
+        public CompiledCircuit assemble() {
+            ReducedTopology topology = this.topology;
+            Stamper stamper = this.stamper;
+            SEComponent[] unordered = topology.terminals;
+
+            //Number the islands of the connectivity index in the order of the terminals and sort the nodes by island
+            int size = unordered.length;
+            int[] islandOf = new int[size];
+            Map<Integer, Integer> islandIndex = new HashMap<Integer, Integer>();
+            int islandCount = 0;
+            for (int i = 0; i < size; i++) {
+                //Not in the graph anymore, the circuit is outdated anyway
+                if (this.islandIds[i] < 0) {
+                    islandOf[i] = islandCount++;
+                    continue;
+                }
+
+                Integer island = islandIndex.get(this.islandIds[i]);
+                if (island == null) {
+                    island = islandCount++;
+                    islandIndex.put(this.islandIds[i], island);
+                }
+                islandOf[i] = island;
+            }
+
+            //Every coupling stamped above is an edge, interconnection or two-port component within one island of the index
+            int[] parent = null;
+            for (int e = 0; e < stamper.entries; e++) {
+                int a = islandOf[stamper.rows[e]];
+                int b = islandOf[stamper.columns[e]];
+                if (a == b)
+                    continue;
+
+                if (!this.outdated)
+                    throw new RuntimeException("Connectivity index does not match the circuit: " +
+                            unordered[stamper.rows[e]] + " and " + unordered[stamper.columns[e]] + " are in different islands");
+
+                //The index has split an island of the topology since its snapshot
+                if (parent == null) {
+                    parent = new int[islandCount];
+                    for (int k = 0; k < islandCount; k++)
+                        parent[k] = k;
+                }
+                a = findIsland(parent, a);
+                b = findIsland(parent, b);
+                if (a < b)
+                    parent[b] = a;
+                else if (b < a)
+                    parent[a] = b;
+            }
+
+            if (parent != null) {
+                //Roots are the smallest island of their set, so they are numbered before the rest of the set
+                int[] merged = new int[islandCount];
+                int mergedCount = 0;
+                for (int k = 0; k < islandCount; k++)
+                    merged[k] = parent[k] == k ? mergedCount++ : merged[findIsland(parent, k)];
+                for (int i = 0; i < size; i++)
+                    islandOf[i] = merged[islandOf[i]];
+                islandCount = mergedCount;
+            }
+
+            int[] islandStart = new int[islandCount + 1];
+            for (int i = 0; i < size; i++)
+                islandStart[islandOf[i] + 1]++;
+            for (int k = 0; k < islandCount; k++)
+                islandStart[k + 1] += islandStart[k];
+
+            int[] fill = Arrays.copyOf(islandStart, islandCount);
+            int[] newIndex = new int[size];
+            SEComponent[] nodes = new SEComponent[size];
+            for (int i = 0; i < size; i++) {
+                newIndex[i] = fill[islandOf[i]]++;
+                nodes[newIndex[i]] = unordered[i];
+            }
+
+            //Build the compressed rows
+            int[] rowStart = new int[size + 1];
+            for (int e = 0; e < stamper.entries; e++)
+                rowStart[newIndex[stamper.rows[e]] + 1]++;
+            for (int i = 0; i < size; i++)
+                rowStart[i + 1] += rowStart[i];
+
+            int[] rowFill = Arrays.copyOf(rowStart, size);
+            int[] rawColumns = new int[stamper.entries];
+            double[] rawValues = new double[stamper.entries];
+            for (int e = 0; e < stamper.entries; e++) {
+                int pos = rowFill[newIndex[stamper.rows[e]]]++;
+                rawColumns[pos] = newIndex[stamper.columns[e]];
+                rawValues[pos] = stamper.values[e];
+            }
+
+            //Sort each row by column and merge duplicated entries
+            int[] mergedStart = new int[size + 1];
+            int nonZeros = 0;
+            for (int i = 0; i < size; i++) {
+                mergedStart[i] = nonZeros;
+                int from = rowStart[i], to = rowStart[i + 1];
+
+                for (int p = from + 1; p < to; p++) {
+                    int column = rawColumns[p];
+                    double value = rawValues[p];
+                    int q = p - 1;
+                    while (q >= from && rawColumns[q] > column) {
+                        rawColumns[q + 1] = rawColumns[q];
+                        rawValues[q + 1] = rawValues[q];
+                        q--;
+                    }
+                    rawColumns[q + 1] = column;
+                    rawValues[q + 1] = value;
+                }
+
+                for (int p = from; p < to; p++) {
+                    if (nonZeros > mergedStart[i] && rawColumns[nonZeros - 1] == rawColumns[p]) {
+                        rawValues[nonZeros - 1] += rawValues[p];
+                    } else {
+                        rawColumns[nonZeros] = rawColumns[p];
+                        rawValues[nonZeros] = rawValues[p];
+                        nonZeros++;
+                    }
+                }
+            }
+            mergedStart[size] = nonZeros;
+            int[] columns = Arrays.copyOf(rawColumns, nonZeros);
+            double[] values = Arrays.copyOf(rawValues, nonZeros);
+
+            int[] diagonal = new int[size];
+            double[] injection = new double[size];
+            for (int i = 0; i < size; i++) {
+                diagonal[i] = findEntry(mergedStart, columns, i, i);
+                injection[newIndex[i]] = stamper.injection[i];
+            }
+
+            //Group nonlinear components by island
+            int[] loadOrder = sortByIsland(stamper.loadNode, stamper.loads, islandOf, islandCount);
+            int[] islandLoadStart = countByIsland(stamper.loadNode, stamper.loads, islandOf, islandCount);
+            int[] loadNode = new int[stamper.loads];
+            double[] loadPower = new double[stamper.loads];
+            double[] loadRmin = new double[stamper.loads];
+            double[] loadRmax = new double[stamper.loads];
+            for (int l = 0; l < stamper.loads; l++) {
+                int src = loadOrder[l];
+                loadNode[l] = newIndex[stamper.loadNode[src]];
+                loadPower[l] = stamper.loadPower[src];
+                loadRmin[l] = stamper.loadRmin[src];
+                loadRmax[l] = stamper.loadRmax[src];
+            }
+
+            int[] diodeOrder = sortByIsland(stamper.diodeIn, stamper.diodes, islandOf, islandCount);
+            int[] islandDiodeStart = countByIsland(stamper.diodeIn, stamper.diodes, islandOf, islandCount);
+            int[] diodeIn = new int[stamper.diodes];
+            int[] diodeOut = new int[stamper.diodes];
+            int[] diodeInOut = new int[stamper.diodes];
+            int[] diodeOutIn = new int[stamper.diodes];
+            DiodeInput.Model[] diodeModel = new DiodeInput.Model[stamper.diodes];
+            for (int d = 0; d < stamper.diodes; d++) {
+                int src = diodeOrder[d];
+                diodeIn[d] = newIndex[stamper.diodeIn[src]];
+                diodeOut[d] = newIndex[stamper.diodeOut[src]];
+                diodeInOut[d] = findEntry(mergedStart, columns, diodeIn[d], diodeOut[d]);
+                diodeOutIn[d] = findEntry(mergedStart, columns, diodeOut[d], diodeIn[d]);
+                diodeModel[d] = stamper.diodeModel[src];
+            }
+
+            //Eliminated wires
+            int eliminatedCount = topology.eliminated.length;
+            int[] eliminatedA = new int[eliminatedCount];
+            int[] eliminatedB = new int[eliminatedCount];
+            for (int i = 0; i < eliminatedCount; i++) {
+                eliminatedA[i] = topology.eliminatedA[i] < 0 ? -1 : newIndex[topology.eliminatedA[i]];
+                eliminatedB[i] = topology.eliminatedB[i] < 0 ? -1 : newIndex[topology.eliminatedB[i]];
+            }
+
+            CompiledCircuit circuit = new CompiledCircuit(version, nodes, islandStart,
+                    mergedStart, columns, values, diagonal, injection,
+                    islandLoadStart, loadNode, loadPower, loadRmin, loadRmax,
+                    islandDiodeStart, diodeIn, diodeOut, diodeInOut, diodeOutIn, diodeModel,
+                    topology.eliminated, eliminatedA, eliminatedB, topology.eliminatedRA, topology.eliminatedRB);
+
+            //Start from the last results, new nodes start from zero
+            for (int i = 0; i < size; i++) {
+                double voltage = this.lastVoltages[i];
+                if (!Double.isNaN(voltage) && !Double.isInfinite(voltage))
+                    circuit.voltages[newIndex[i]] = voltage;
+            }
+
+            if (this.warmStart != null) {
+                long[] keys = new long[size];
+                for (int i = 0; i < size; i++)
+                    keys[newIndex[i]] = this.keys[i];
+                this.warmStart.apply(circuit, keys);
+            }
+
+            return circuit;
+        }
+    }
+
+    private static int findEntry(int[] rowStart, int[] columns, int row, int column) {
+        for (int p = rowStart[row]; p < rowStart[row + 1]; p++) {
+            if (columns[p] == column)
+                return p;
+        }
+        throw new RuntimeException("Missing matrix entry (" + row + ", " + column + ")");
+    }
+
+    private static int indexOf(SEComponent[] nodes, SEComponent node) {
+        int index = node.index;
+        return (index >= 0 && index < nodes.length && nodes[index] == node) ? index : -1;
+    }
+
+    private static int findIsland(int[] parent, int island) {
+        while (parent[island] != island) {
+            parent[island] = parent[parent[island]];
+            island = parent[island];
+        }
+        return island;
+    }
+
+    /**
+     * @return the order of the items, sorted by the island of their node
+     */
+    private static int[] sortByIsland(int[] node, int count, int[] islandOf, int islandCount) {
+        int[] fill = countByIsland(node, count, islandOf, islandCount);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++)
+            order[fill[islandOf[node[i]]]++] = i;
+        return order;
+    }
+
+    /**
+     * @return the start position of each island when the items are sorted by island
+     */
+    private static int[] countByIsland(int[] node, int count, int[] islandOf, int islandCount) {
+        int[] start = new int[islandCount + 1];
+        for (int i = 0; i < count; i++)
+            start[islandOf[node[i]] + 1]++;
+        for (int k = 0; k < islandCount; k++)
+            start[k + 1] += start[k];
+        return start;
+    }
+
+    /**
+     * Collects matrix entries and parameter values, using the index of the node within the terminal node list
+     */
+    private static final class Stamper {
+        private final SEComponent[] nodes;
+        private final double Gpn;
+
+        private int entries;
+        private int[] rows = new int[16];
+        private int[] columns = new int[16];
+        private double[] values = new double[16];
+        private final double[] injection;
+
+        private int loads;
+        private int[] loadNode = new int[4];
+        private double[] loadPower = new double[4], loadRmin = new double[4], loadRmax = new double[4];
+
+        private int diodes;
+        private int[] diodeIn = new int[4], diodeOut = new int[4];
+        private DiodeInput.Model[] diodeModel = new DiodeInput.Model[4];
+
+        private Stamper(SEComponent[] nodes) {
+            this.nodes = nodes;
+            this.Gpn = 1.0D / ConfigManager.shuntPN;
+            this.injection = new double[nodes.length];
+        }
+
+        private void add(int row, int column, double value) {
+            if (this.entries == this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, this.entries * 2);
+                this.columns = Arrays.copyOf(this.columns, this.entries * 2);
+                this.values = Arrays.copyOf(this.values, this.entries * 2);
+            }
+
+            this.rows[this.entries] = row;
+            this.columns[this.entries] = column;
+            this.values[this.entries] = value;
+            this.entries++;
+        }
+
+        /**
+         * Stamp a conductance between node a and node b
+         */
+        private void conductance(int a, int b, double G) {
+            this.add(a, a, G);
+            this.add(b, b, G);
+            this.add(a, b, -G);
+            this.add(b, a, -G);
+        }
+
+        private void transformer(int pri, int sec, double ratio, double res) {
+            this.add(pri, pri, ratio * ratio / res);
+            this.add(sec, sec, 1.0D / res);
+            this.add(pri, sec, -ratio / res);
+            this.add(sec, pri, -ratio / res);
+        }
+
+        private int indexOf(SEComponent node) {
+            return node == null ? -1 : CompiledCircuit.indexOf(this.nodes, node);
+        }
+
+        /**
+         * Two port networks and interconnections are stamped only once, by the primary side
+         */
+        private void stamp(SEComponent node) {
+            int i = node.index;
+
+            if (node instanceof Cable) {
+                Cable cable = (Cable) node;
+
+                if (cable.hasShuntResistance())
+                    this.add(i, i, 1.0D / cable.getShuntResistance());
+
+                //Cable - GridNode interconnection
+                int iGridNode = this.indexOf(cable.connectedGridNode);
+                if (iGridNode >= 0 && cable.isGridLinkEnabled())
+                    this.conductance(i, iGridNode, 1.0D / cable.getResistance());
+            } else if (node instanceof GridNode) {
+                GridNode gridNode = (GridNode) node;
+
+                int iSec = this.indexOf(gridNode.complement);
+                if (gridNode.type == GridNode.ISEGridNode_TransformerPrimary && iSec >= 0)
+                    this.transformer(i, iSec, gridNode.ratio, gridNode.resistance);
+            } else if (node instanceof VoltageSource) {
+                VoltageSource vs = (VoltageSource) node;
+                this.add(i, i, 1.0D / vs.getResistance());
+                this.injection[i] += vs.getOutputVoltage() / vs.getResistance();
+            } else if (node instanceof ConstantPowerLoad) {
+                ConstantPowerLoad load = (ConstantPowerLoad) node;
+                if (load.isEnabled())
+                    this.addLoad(i, load.getRatedPower(), load.getMinimumResistance(), load.getMaximumResistance());
+            } else if (node instanceof SwitchA) {
+                SwitchA A = (SwitchA) node;
+                int iB = this.indexOf(A.getComplement());
+                if (A.isOn() && iB >= 0)
+                    this.conductance(i, iB, 1.0D / A.getResistance());
+            } else if (node instanceof TransformerPrimary) {
+                TransformerPrimary pri = (TransformerPrimary) node;
+                int iSec = this.indexOf(pri.getComplement());
+                if (iSec >= 0)
+                    this.transformer(i, iSec, pri.getRatio(), pri.getInternalResistance());
+            } else if (node instanceof DiodeInput) {
+                DiodeInput input = (DiodeInput) node;
+                int iOut = this.indexOf(input.getComplement());
+                DiodeInput.Model model = input.getModel();
+                if (iOut >= 0 && model != null) {
+                    //The conductance placed in parallel with the PN junction is linear
+                    this.conductance(i, iOut, this.Gpn);
+                    this.addDiode(i, iOut, model);
+                }
+            }
+        }
+
+        private void addLoad(int node, double power, double rMin, double rMax) {
+            if (this.loads == this.loadNode.length) {
+                this.loadNode = Arrays.copyOf(this.loadNode, this.loads * 2);
+                this.loadPower = Arrays.copyOf(this.loadPower, this.loads * 2);
+                this.loadRmin = Arrays.copyOf(this.loadRmin, this.loads * 2);
+                this.loadRmax = Arrays.copyOf(this.loadRmax, this.loads * 2);
+            }
+
+            this.loadNode[this.loads] = node;
+            this.loadPower[this.loads] = power;
+            this.loadRmin[this.loads] = rMin;
+            this.loadRmax[this.loads] = rMax;
+            this.loads++;
+        }
+
+        private void addDiode(int in, int out, DiodeInput.Model model) {
+            if (this.diodes == this.diodeIn.length) {
+                this.diodeIn = Arrays.copyOf(this.diodeIn, this.diodes * 2);
+                this.diodeOut = Arrays.copyOf(this.diodeOut, this.diodes * 2);
+                this.diodeModel = Arrays.copyOf(this.diodeModel, this.diodes * 2);
+            }
+
+            this.diodeIn[this.diodes] = in;
+            this.diodeOut[this.diodes] = out;
+            this.diodeModel[this.diodes] = model;
+            this.diodes++;
+        }
+    }
+}
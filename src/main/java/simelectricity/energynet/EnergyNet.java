@@ -19,7 +19,12 @@
 
 package simelectricity.energynet;
 
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.WorldServer;
+import simelectricity.SimElectricity;
+import simelectricity.api.ISEEnergyNetResultListener;
+import simelectricity.api.ISEEnergyNetUpdateHandler;
 import simelectricity.api.node.ISESimulatable;
 import simelectricity.common.ConfigManager;
 import simelectricity.common.SELogger;
@@ -28,10 +33,25 @@ import simelectricity.energynet.components.SwitchA;
 import simelectricity.energynet.components.SwitchB;
 import simelectricity.energynet.components.VoltageSource;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 
 public final class EnergyNet {
+    private static final String WARM_START_FILE_NAME = SimElectricity.MODID + "_WarmStart.bin";
+    //Ticks after creation during which the warm start cache is kept for islands to show up
+    private static final int WARM_START_TICKS = 6000;
+    //Number of events processed together, the tick budget is checked between slices
+    private static final int EVENT_SLICE = 256;
+    //Ticks a compile waits for the reducer to catch up before the latest (outdated) topology is compiled anyway
+    private static final int STALE_TOPOLOGY_TICKS = 20;
+
     private final WorldServer world;
     //Contains information about the grid
     protected final EnergyNetDataProvider dataProvider;
@@ -39,11 +59,51 @@ public final class EnergyNet {
     /// Threading
     //////////////////////////
     private EnergyNetSimulator simulator;
+    private TopologyReducer reducer;
     ///////////////////////////////////////////////////////
     ///Event Queue
     ///////////////////////////////////////////////////////
     private final LinkedList<EnergyEventBase> cachedEvents = new LinkedList<EnergyEventBase>();
     private boolean scheduledRefresh;
+    //Attach events of the current batch grouped by chunk, and chunks being unloaded in the current batch
+    private final HashMap<Long, ChunkTileEvent.Attach> attachingChunks = new HashMap<Long, ChunkTileEvent.Attach>();
+    private final HashSet<Long> unloadingChunks = new HashSet<Long>();
+    //Tiles with a ParamChanged event in the current batch, the parameters are read when the batch is processed,
+    //so repeated changes (e.g. a player clicking a GUI button several times in a tick) need only one event
+    private final HashSet<TileEntity> paramChangedTiles = new HashSet<TileEntity>();
+    //Version of the latest compiled circuit
+    private int circuitVersion;
+    //Version of the latest topology snapshot submitted to the reducer
+    private int topologyVersion;
+    //Latest finished reduction, circuits are compiled from it once it is up to date or after STALE_TOPOLOGY_TICKS
+    private ReducedTopology topology;
+    //Some changes have not been compiled into a circuit yet
+    private boolean pendingCompile;
+    //Ticks since the pending changes have been waiting for a circuit to be submitted
+    private int compileWaitTicks;
+    //Version of the full reduction requested after a failed simulation, a failure of that topology does not request another one
+    private int recoveryVersion = -1;
+    //Reading the parameters of the next circuit, null if no compile is in progress
+    private CompiledCircuit.Compiler compiler;
+    //Tiles waiting for onEnergyNetUpdate() and/or their result listeners, tiles that have been waiting longer are notified first
+    private final LinkedHashSet<TileEntity> pendingUpdateHandlers = new LinkedHashSet<TileEntity>();
+    //Updates time/world-driven tiles on behalf of them
+    private final EnvironmentScheduler environmentScheduler;
+    //Voltages from before the restart, null once used up or expired
+    private WarmStartCache warmStart;
+    private int warmStartTicks;
+    private int warmStartSeeded;
+    //Latest published results
+    private CompiledCircuit published;
+    //Increased every time results are published, see CompiledCircuit.publish()
+    private int resultEpoch;
+    //TileEntities somebody (e.g. an open GUI) wants to hear about, with the epoch they have been notified of
+    private final HashMap<TileEntity, ResultSubscription> resultSubscriptions = new HashMap<TileEntity, ResultSubscription>();
+
+    private static final class ResultSubscription {
+        private final List<ISEEnergyNetResultListener> listeners = new LinkedList<ISEEnergyNetResultListener>();
+        private int notifiedEpoch;
+    }
 
 
     //////////////////////////
@@ -52,9 +112,12 @@ public final class EnergyNet {
     public EnergyNet(WorldServer world) {
         this.world = world;
         this.dataProvider = EnergyNetDataProvider.get(world);
+        this.environmentScheduler = new EnvironmentScheduler(world);
+        this.warmStart = WarmStartCache.read(this.getWarmStartFile());
 
         //Initialize thread
-        this.simulator = new EnergyNetSimulator(dataProvider, "SEEnergyNet_DIM" + String.valueOf(world.provider.getDimension()));
+        this.simulator = new EnergyNetSimulator("SEEnergyNet_DIM" + String.valueOf(world.provider.getDimension()));
+        this.reducer = new TopologyReducer("SEEnergyNet_DIM" + String.valueOf(world.provider.getDimension()) + "_Reducer");
 
         SELogger.logInfo(SELogger.general, "EnergyNet has been created for DIM" + world.provider.getDimension());
     }
@@ -63,32 +126,185 @@ public final class EnergyNet {
         return ((SEComponent) node).isValid;
     }
 
+    public synchronized int getIslandId(ISESimulatable node) {
+        return this.dataProvider.getTEGraph().getIslandId((SEComponent) node);
+    }
+
+    public synchronized int getResultEpoch(TileEntity te) {
+        return this.dataProvider.getResultEpoch(te);
+    }
+
+    public synchronized void subscribeResults(TileEntity te, ISEEnergyNetResultListener listener) {
+        ResultSubscription subscription = this.resultSubscriptions.get(te);
+        if (subscription == null) {
+            subscription = new ResultSubscription();
+            subscription.notifiedEpoch = this.dataProvider.getResultEpoch(te);
+            this.resultSubscriptions.put(te, subscription);
+        }
+
+        if (!subscription.listeners.contains(listener))
+            subscription.listeners.add(listener);
+    }
+
+    public synchronized void unsubscribeResults(TileEntity te, ISEEnergyNetResultListener listener) {
+        ResultSubscription subscription = this.resultSubscriptions.get(te);
+        if (subscription == null)
+            return;
+
+        subscription.listeners.remove(listener);
+        if (subscription.listeners.isEmpty())
+            this.resultSubscriptions.remove(te);
+    }
+
     public synchronized void addEvent(EnergyEventBase event) {
-        cachedEvents.add(event);
+        if (event instanceof TileEvent.Attach) {
+            TileEntity te = ((TileEvent) event).te;
+            this.environmentScheduler.track(te);
+
+            //Tiles of a loading chunk are attached together
+            long chunk = EnergyNetDataProvider.chunkKey(te.getPos());
+            this.unloadingChunks.remove(chunk);
+            ChunkTileEvent.Attach batch = this.attachingChunks.get(chunk);
+            if (batch == null) {
+                batch = new ChunkTileEvent.Attach(chunk);
+                this.attachingChunks.put(chunk, batch);
+                this.cachedEvents.add(batch);
+            }
+            batch.add((TileEvent.Attach) event);
+            return;
+        } else if (event instanceof TileEvent.Detach) {
+            TileEntity te = ((TileEvent) event).te;
+            this.environmentScheduler.untrack(te);
+
+            //Already covered by the ChunkTileEvent.Unload, or frozen
+            long chunk = EnergyNetDataProvider.chunkKey(te.getPos());
+            if (this.unloadingChunks.contains(chunk) || this.dataProvider.isChunkFrozen(chunk))
+                return;
+        } else if (event instanceof TileEvent.ParamChanged) {
+            if (!this.paramChangedTiles.add(((TileEvent) event).te))
+                return;
+        }
+
+        this.cachedEvents.add(event);
+    }
+
+    /**
+     * Called when a chunk is about to be unloaded, all of its SE tiles are detached (or frozen) in one pass
+     */
+    public synchronized void onChunkUnload(int chunkX, int chunkZ) {
+        long chunk = EnergyNetDataProvider.chunkKey(chunkX, chunkZ);
+        //Tiles attached after this point belong to a new batch
+        this.attachingChunks.remove(chunk);
+        this.unloadingChunks.add(chunk);
+        this.cachedEvents.add(new ChunkTileEvent.Unload(chunk, ConfigManager.freezeUnloadedChunks));
+    }
+
+    /**
+     * Called when a chunk is loaded, frozen tiles the reloaded tiles did not take over are removed afterwards
+     */
+    public synchronized void onChunkLoad(int chunkX, int chunkZ) {
+        long chunk = EnergyNetDataProvider.chunkKey(chunkX, chunkZ);
+        if (this.unloadingChunks.contains(chunk) || this.dataProvider.isChunkFrozen(chunk))
+            this.cachedEvents.add(new ChunkTileEvent.Load(chunk));
+    }
+
+    /**
+     * Called when a block is placed, removed or changed
+     */
+    public synchronized void onBlockChanged(BlockPos pos) {
+        this.environmentScheduler.onBlockChanged(pos);
     }
 
     /**
      * Called at pre-tick stage
      */
     public synchronized void onPreTick() {
-        if (this.simulator.isAlive() && this.simulator.isWorking()) {
-            SELogger.logWarn(SELogger.simulator, "Simulation takes longer than usual!");
-            
-            while (this.simulator.isWorking()) {
-            	try {
-					Thread.sleep(1);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-            }
+        //Work that does not fit into the tick budget continues in the next tick
+        long deadline = ConfigManager.tickBudget > 0 ? System.currentTimeMillis() + ConfigManager.tickBudget : Long.MAX_VALUE;
+
+        //A failed grid save is retried in the next world save
+        this.dataProvider.checkGridFileWriter();
+
+        //Publish the results of the latest finished simulation
+        CompiledCircuit result = this.simulator.takeResult();
+        if (result != null) {
+            this.resultEpoch++;
+            result.publish(this.resultEpoch);
+            this.published = result;
+            this.queueEnergyNetUpdateEvent();
         }
+        this.fireEnergyNetUpdateEvent(deadline);
 
+        //A failed simulation may be caused by an inconsistent incremental reduction, reduce the whole graph again
+        int failedVersion = this.simulator.takeFailure();
+        if (failedVersion > this.recoveryVersion) {
+            SELogger.logWarn(SELogger.energyNet, "Simulation of topology version " + failedVersion + " failed, reducing the whole graph again");
+            this.recoveryVersion = this.topologyVersion + 1;
+            this.scheduledRefresh = true;
+        }
+
+        //Day/night transitions and sky exposure changes, all of them end up in the same batch of events
+        for (TileEntity te: this.environmentScheduler.onPreTick())
+            this.addEvent(new TileEvent.ParamChanged(te));
+
+        //Pick up the latest reduced topology, even if the structure has changed again since its snapshot was taken
+        ReducedTopology reduced = this.reducer.takeResult();
+        if (reduced != null && (this.topology == null || reduced.version > this.topology.version)) {
+            this.topology = reduced;
+            this.pendingCompile = true;
+        }
+
+        if (!this.cachedEvents.isEmpty() || this.scheduledRefresh)
+            this.processEvents(deadline);
+
+        //If the reducer cannot keep up with the changes, the latest topology is compiled anyway after a while,
+        //so that the EnergyNet keeps solving, the up to date topology is compiled once it shows up
+        boolean waitedLongEnough = false;
+        if (this.pendingCompile || this.compiler != null)
+            waitedLongEnough = ++this.compileWaitTicks > STALE_TOPOLOGY_TICKS;
+
+        //Start over if a newer topology is available, unless the changes have been waiting for too long
+        if (this.compiler != null && this.compiler.topology.version < this.topology.version && !waitedLongEnough) {
+            this.compiler = null;
+            this.pendingCompile = true;
+        }
+
+        //Parameter-only changes are compiled onto the current topology right away,
+        //structural changes wait (one stage) for the reducer while the previous results are still being served
+        if (this.compiler == null && this.pendingCompile && this.topology != null &&
+                (this.topology.version == this.topologyVersion || waitedLongEnough)) {
+            this.pendingCompile = false;
+            this.circuitVersion++;
+            this.compiler = new CompiledCircuit.Compiler(this.topology, this.circuitVersion, this.warmStart);
+        }
+
+        //Parameters changed while a compile is in progress are picked up by the next compile
+        if (this.compiler != null && this.compiler.resume(deadline)) {
+            //The island ids read by the compiler are from a later structure than the topology
+            if (this.compiler.topology.version != this.topologyVersion)
+                this.compiler.markOutdated();
+            this.simulator.submit(this.compiler);
+            this.compiler = null;
+            this.compileWaitTicks = 0;
+        }
+
+        //Islands which did not show up after a while (unloaded, or changed) are not going to match
+        if (this.warmStart != null && (this.warmStart.isEmpty() || ++this.warmStartTicks > WARM_START_TICKS)) {
+            SELogger.logInfo(SELogger.energyNet, "Warm start: " + this.warmStart.getSeededIslands() + " islands seeded, " +
+                    this.warmStart.getRemainingIslands() + " did not match");
+            this.warmStartSeeded = this.warmStart.getSeededIslands();
+            this.warmStart = null;
+        }
+    }
+
+    /**
+     * Process queued events in slices until the queue is empty or the deadline has passed, at least one slice is processed
+     */
+    private void processEvents(long deadline) {
         boolean needOptimize = false;    //Due to connection changes
         boolean calc = false;            //Perform simulation
+        boolean full = this.scheduledRefresh;    //Reduce the whole graph again
 
-        if (this.cachedEvents.isEmpty() && !this.scheduledRefresh)
-        	return;
-        
         if (this.scheduledRefresh) {
             calc = true;
             needOptimize = true;
@@ -108,29 +324,100 @@ public final class EnergyNet {
 		 * TileEvent.ParamChanged		|5
 		 * TileEvent.Detach				|6
 		 */
-        for (int pass = 0; pass < EnergyEventBase.numOfPass; pass++) {
-            Iterator<EnergyEventBase> iterator = this.cachedEvents.iterator();
+        List<EnergyEventBase> slice = new ArrayList<EnergyEventBase>(EVENT_SLICE);
+        do {
+            //Events of a later slice are handled as if they were queued in a later tick
+            while (slice.size() < EVENT_SLICE && !this.cachedEvents.isEmpty())
+                slice.add(this.cachedEvents.removeFirst());
+
+            for (int pass = 0; pass < EnergyEventBase.numOfPass; pass++) {
+                //Process EventQueue
+                for (EnergyEventBase event: slice)
+                    event.process(this.dataProvider, pass);
+            }
 
-            //Process EventQueue
-            while (iterator.hasNext()) {
-                EnergyEventBase event = iterator.next();
-                event.process(this.dataProvider, pass);
+            for (EnergyEventBase event: slice) {
+                calc |= event.needUpdate();
+                needOptimize |= event.changedStructure();
+
+                //Later changes need a new event
+                if (event instanceof TileEvent.ParamChanged)
+                    this.paramChangedTiles.remove(((TileEvent) event).te);
+                else if (event instanceof ChunkTileEvent.Attach && this.attachingChunks.get(((ChunkTileEvent) event).chunk) == event)
+                    this.attachingChunks.remove(((ChunkTileEvent) event).chunk);
             }
+            slice.clear();
+        } while (!this.cachedEvents.isEmpty() && System.currentTimeMillis() <= deadline);
+
+        //Detach events of unloading chunks are ignored until all queued Unload events are processed
+        if (this.cachedEvents.isEmpty())
+            this.unloadingChunks.clear();
+        this.dataProvider.fireGridTileUpdateEvent();
+
+        if (needOptimize) {
+            //The reducer only works on the snapshot, which contains only the changed nodes unless a full refresh is requested
+            this.topologyVersion++;
+            this.reducer.submit(this.dataProvider.getTEGraph().snapshot(this.topologyVersion, full));
         }
 
-        Iterator<EnergyEventBase> iterator = this.cachedEvents.iterator();
+        this.pendingCompile |= calc;
+    }
+
+    /**
+     * New results are available, all loaded tiles need to be notified,
+     * result listeners are notified along with their TileEntity
+     */
+    private void queueEnergyNetUpdateEvent() {
+        Iterator<TileEntity> iterator = this.dataProvider.getLoadedTileIterator();
         while (iterator.hasNext()) {
-            EnergyEventBase event = iterator.next();
+            TileEntity te = iterator.next();
+            if (te instanceof ISEEnergyNetUpdateHandler)
+                this.pendingUpdateHandlers.add(te);
+        }
+        iterator = this.dataProvider.getLoadedGridTileIterator();
+        while (iterator.hasNext()) {
+            TileEntity te = iterator.next();
+            if (te instanceof ISEEnergyNetUpdateHandler)
+                this.pendingUpdateHandlers.add(te);
+        }
 
-            calc |= event.needUpdate();
-            needOptimize |= event.changedStructure();
+        Iterator<TileEntity> subscribed = this.resultSubscriptions.keySet().iterator();
+        while (subscribed.hasNext()) {
+            TileEntity te = subscribed.next();
+            if (te.isInvalid())
+                subscribed.remove();
+            else
+                this.pendingUpdateHandlers.add(te);
         }
-        
-        this.cachedEvents.clear();
-        this.dataProvider.fireGridTileUpdateEvent();
+    }
 
-        if (calc) {
-            this.simulator.start(needOptimize);
+    /**
+     * Notify tiles that new results are available until the deadline has passed, called from the server thread
+     */
+    private void fireEnergyNetUpdateEvent(long deadline) {
+        Iterator<TileEntity> iterator = this.pendingUpdateHandlers.iterator();
+        while (iterator.hasNext()) {
+            if (System.currentTimeMillis() > deadline)
+                return;
+
+            TileEntity te = iterator.next();
+            iterator.remove();
+            if (te.isInvalid())
+                continue;
+
+            if (te instanceof ISEEnergyNetUpdateHandler)
+                ((ISEEnergyNetUpdateHandler) te).onEnergyNetUpdate();
+
+            ResultSubscription subscription = this.resultSubscriptions.get(te);
+            if (subscription != null) {
+                int epoch = this.dataProvider.getResultEpoch(te);
+                if (epoch > subscription.notifiedEpoch) {
+                    subscription.notifiedEpoch = epoch;
+                    //A listener may unsubscribe itself
+                    for (ISEEnergyNetResultListener listener : subscription.listeners.toArray(new ISEEnergyNetResultListener[subscription.listeners.size()]))
+                        listener.onEnergyNetResultChanged(te, epoch);
+                }
+            }
         }
     }
 
@@ -140,6 +427,7 @@ public final class EnergyNet {
     public String[] info() {
         SEGraph tileEntityGraph = this.dataProvider.getTEGraph();
         int iterations = this.simulator.getIterations();
+        int cancelledRuns = this.simulator.getCancelledRuns();
         
         if (tileEntityGraph.size() == 0 && this.dataProvider.getGridObjectCount() == 0) {
             return new String[]{
@@ -151,73 +439,82 @@ public final class EnergyNet {
         if (iterations == 0) {
             return new String[]{
                     "EnergyNet is idle",
-                    "Tiles: " + String.valueOf(tileEntityGraph.size()),
+                    "Tiles: " + String.valueOf(tileEntityGraph.size()) + " in " + this.dataProvider.getLoadedChunkCount() + " chunks (" +
+                            this.dataProvider.getFrozenTileCount() + " frozen in " + this.dataProvider.getFrozenChunkCount() + " chunks)",
                     "Grid Objects: " + String.valueOf(this.dataProvider.getGridObjectCount()),
                     "Matrix solving algorithsm: " + ConfigManager.matrixSolver,
+                    this.budgetInfo(),
+                    this.backlogInfo()
             };
         } else {
             return new String[]{
                     "Time consumption: " + this.simulator.getTimeConsumption() + "ms",
-                    "Tiles: " + String.valueOf(tileEntityGraph.size()),
+                    "Tiles: " + String.valueOf(tileEntityGraph.size()) + " in " + this.dataProvider.getLoadedChunkCount() + " chunks (" +
+                            this.dataProvider.getFrozenTileCount() + " frozen in " + this.dataProvider.getFrozenChunkCount() + " chunks)",
                     "Grid Objects: " + String.valueOf(this.dataProvider.getGridObjectCount()),
                     "Matrix size: " + this.simulator.getMatrixSize(),
                     //"Non-zero elements: " + String.valueOf(this.matrix.getTotalNonZeros()),
                     "Density: " + this.simulator.getDensity() + "%",
                     "Matrix solving algorithsm: " + ConfigManager.matrixSolver,
-                    "Iterations:" + String.valueOf(iterations)
+                    "Islands: " + String.valueOf(this.simulator.getIslandCount()),
+                    "Graph islands: " + String.valueOf(tileEntityGraph.getIslandCount()) +
+                            " (" + tileEntityGraph.getIslandMerges() + " merges, " + tileEntityGraph.getIslandSplits() + " splits)",
+                    "Iterations:" + String.valueOf(iterations),
+                    "Cancelled runs: " + String.valueOf(cancelledRuns),
+                    "Warm start: " + (this.warmStart != null ? this.warmStart.getSeededIslands() + " islands seeded, " +
+                            this.warmStart.getRemainingIslands() + " waiting" : this.warmStartSeeded + " islands seeded"),
+                    "Circuit version: " + String.valueOf(this.circuitVersion),
+                    "Topology version: " + String.valueOf(this.topologyVersion) + ", reduced in " + this.reducer.getTimeConsumption() + "ms, " +
+                            this.reducer.getRewalkedWires() + " wires walked, " + this.reducer.getPatchedRows() + " terminals patched",
+                    this.budgetInfo(),
+                    this.backlogInfo()
             };
         }
     }
 
+    private String budgetInfo() {
+        return "Time budget: " + (ConfigManager.tickBudget > 0 ? ConfigManager.tickBudget + "ms per tick" : "unlimited");
+    }
+
+    private String backlogInfo() {
+        return "Backlog: reducer " + (this.reducer.isWorking() ? "running" : "idle") +
+                ", compiler " + (this.compiler != null ? "running" : "idle") +
+                ", " + this.simulator.getPendingIslands() + " islands" +
+                ", " + this.pendingUpdateHandlers.size() + " tiles to notify" +
+                ", " + this.cachedEvents.size() + " events";
+    }
+
     public void reFresh() {
         this.scheduledRefresh = true;
     }
 
     public void notifyServerShuttingdown() {
         this.simulator.suicide();
+        this.reducer.suicide();
+        this.dataProvider.flushGridFile();
+
+        if (this.published != null) {
+            try {
+                WarmStartCache.write(this.getWarmStartFile(), this.published);
+            } catch (IOException e) {
+                SELogger.logWarn(SELogger.energyNet, "Failed to save the warm start cache: " + e);
+            }
+        }
+    }
+
+    private File getWarmStartFile() {
+        return new File(this.dataProvider.getDataDirectory(), WARM_START_FILE_NAME);
     }
     
     public static final double getVoltage(ISESimulatable Tile) {
-        SEComponent node = (SEComponent) Tile;
-        if (node.eliminated) {
-            if (node.optimizedNeighbors.size() == 2) {
-                SEComponent A = node.optimizedNeighbors.getFirst();
-                SEComponent B = node.optimizedNeighbors.getLast();
-                double vA = A.voltageCache;
-                double vB = B.voltageCache;
-                double rA = node.optimizedResistance.getFirst();
-                double rB = node.optimizedResistance.getLast();
-                return vA - (vA - vB) * rA / (rA + rB);
-            } else if (node.optimizedNeighbors.size() == 1) {
-                return node.optimizedNeighbors.getFirst().voltageCache;
-            } else if (node.optimizedNeighbors.size() == 0) {
-                return 0;
-            } else {
-                throw new RuntimeException("WTF mate whats going on?!");
-            }
-        } else {
-            return node.voltageCache;
-        }
+        //The voltage of eliminated wires are interpolated when the results are published
+        return ((SEComponent) Tile).voltageCache;
     }
 
     public static final double getCurrentMagnitude(ISESimulatable Tile) {
         SEComponent node = (SEComponent) Tile;
         if (node.eliminated) {
-            if (node.optimizedNeighbors.size() == 2) {
-                SEComponent A = node.optimizedNeighbors.getFirst();
-                SEComponent B = node.optimizedNeighbors.getLast();
-                double vA = A.voltageCache;
-                double vB = B.voltageCache;
-                double rA = node.optimizedResistance.getFirst();
-                double rB = node.optimizedResistance.getLast();
-                return Math.abs((vA - vB) / (rA + rB));
-            } else if (node.optimizedNeighbors.size() == 1) {
-                return 0;
-            } else if (node.optimizedNeighbors.size() == 0) {
-                return 0;
-            } else {
-                throw new RuntimeException("WTF mate whats going on?!");
-            }
+            return node.currentCache;
         } else if (node instanceof SwitchA) {
             SwitchA switchA = (SwitchA) node;
             double vA = switchA.voltageCache;
@@ -24,6 +24,7 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import simelectricity.api.ISEEnergyNetResultListener;
 import simelectricity.api.components.*;
 import simelectricity.api.internal.ISEEnergyNetAgent;
 import simelectricity.api.node.ISEGridNode;
@@ -165,6 +166,31 @@ public class EnergyNetAgent implements ISEEnergyNetAgent {
         return EnergyNetAgent.getEnergyNetForWorld(world).isNodeValid(node);
     }
 
+    @Override
+    public int getIslandId(World world, ISESimulatable node) {
+        return EnergyNetAgent.getEnergyNetForWorld(world).getIslandId(node);
+    }
+
+    @Override
+    public int getResultEpoch(TileEntity te) {
+        return EnergyNetAgent.getEnergyNetForWorld(te.getWorld()).getResultEpoch(te);
+    }
+
+    @Override
+    public int getResultEpoch(ISESimulatable node) {
+        return ((SEComponent) node).resultEpoch;
+    }
+
+    @Override
+    public void subscribeResults(TileEntity te, ISEEnergyNetResultListener listener) {
+        EnergyNetAgent.getEnergyNetForWorld(te.getWorld()).subscribeResults(te, listener);
+    }
+
+    @Override
+    public void unsubscribeResults(TileEntity te, ISEEnergyNetResultListener listener) {
+        EnergyNetAgent.getEnergyNetForWorld(te.getWorld()).unsubscribeResults(te, listener);
+    }
+
     private boolean isInvalidTile(TileEntity te) {       
         if (!(te instanceof ISETile || te instanceof ISECableTile || te instanceof ISEGridTile)){
         	SELogger.logWarn(SELogger.energyNet, "Unknown tileentity " + te + ", aborted");
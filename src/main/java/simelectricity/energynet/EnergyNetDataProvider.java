@@ -23,10 +23,15 @@ import simelectricity.energynet.components.GridNode;
 import simelectricity.energynet.components.SEComponent;
 import simelectricity.energynet.components.SEComponent.Tile;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 public class EnergyNetDataProvider extends WorldSavedData {
     private static final String DATA_NAME = SimElectricity.MODID + "_GridData";
+    //Single grid file of format version 1 and 2
+    private static final String GRID_FILE_NAME = SimElectricity.MODID + "_Grid.bin";
+    private static final String GRID_DIR_NAME = SimElectricity.MODID + "_Grid";
     //-----------------------------------------------------------------------------------------------------------
     ///////////////////////////////////////
     /// GridTile update notification
@@ -34,11 +39,48 @@ public class EnergyNetDataProvider extends WorldSavedData {
     private final Set<ISEGridTile> updatedGridTile = new HashSet();
     //Map between coord and GridNode
     private final HashMap<BlockPos, GridNode> gridNodeMap = new HashMap<BlockPos, GridNode>();
-    private final List<TileEntity> loadedTiles = new LinkedList<TileEntity>();
+    //Registered SE tiles, indexed by their position
+    private final Map<BlockPos, TileEntity> loadedTiles = new LinkedHashMap<BlockPos, TileEntity>();
     //Records TE that associated with grid nodes
-    private final List<TileEntity> loadedGridTiles = new LinkedList<TileEntity>();
+    private final Map<BlockPos, TileEntity> loadedGridTiles = new LinkedHashMap<BlockPos, TileEntity>();
+    //Both kinds of registered tiles, grouped by chunk, see chunkKey()
+    private final Map<Long, List<TileEntity>> chunkTiles = new HashMap<Long, List<TileEntity>>();
+    //Unloaded chunks whose SE tiles are kept in the graph with their last parameters, see freezeChunk()
+    private final Map<Long, List<TileEntity>> frozenChunks = new HashMap<Long, List<TileEntity>>();
+    //The frozen SE tiles, they are no longer registered but their components are still in the graph
+    private final Map<BlockPos, TileEntity> frozenTiles = new HashMap<BlockPos, TileEntity>();
     //Records the connection between components
     private final SEGraph tileEntityGraph = new SEGraph();
+    //The data directory of the world (dimension)
+    private File dataDir;
+    //The packed grid files of the world, see GridDataFile
+    private File gridFile;
+    private File gridDir;
+    //The grid is loaded once the files are known: the NBT refers to the packed grid files of this format version,
+    //or contains the nodes itself (pendingGridNodes)
+    private int pendingGridFormat;
+    private NBTTagList pendingGridNodes;
+    //Grid nodes grouped by GridDataFile.regionKey()
+    private final Map<Long, Set<GridNode>> regionNodes = new HashMap<Long, Set<GridNode>>();
+    //Regions changed since the last save
+    private final Set<Long> dirtyRegions = new HashSet<Long>();
+    //Nodes which have (or had) edges to other regions
+    private final Set<GridNode> borderNodes = new HashSet<GridNode>();
+    private boolean edgeIndexDirty;
+    //Loaded from the single file of the old format, it is deleted once the NBT refers to the regions
+    private File legacyGridFile;
+    private int legacyGridFormat;
+    private long legacySequence;
+    private int[] regionScratch;
+    //Number of the latest save, stored in both the NBT and the grid file
+    private long gridSequence = -1;
+    //Number of the latest save known to be on the disk, -1 if none, the NBT refers to it
+    private long confirmedSequence = -1;
+    //GridFormat in the latest NBT written, 0 if the nodes were stored in the NBT
+    private int nbtGridFormat;
+    //Writes the grid file in background, created on demand
+    private GridFileWriter gridFileWriter;
+    private String gridFileWriterName;
 
     // Required constructors
     public EnergyNetDataProvider() {
@@ -61,6 +103,17 @@ public class EnergyNetDataProvider extends WorldSavedData {
             instance = new EnergyNetDataProvider();
             storage.setData(EnergyNetDataProvider.DATA_NAME, instance);
         }
+
+        if (instance.gridFile == null) {
+            String saveFolder = world.provider.getSaveFolder();
+            File worldDir = world.getSaveHandler().getWorldDirectory();
+            File dataDir = new File(saveFolder == null ? worldDir : new File(worldDir, saveFolder), "data");
+            instance.dataDir = dataDir;
+            instance.gridFile = new File(dataDir, GRID_FILE_NAME);
+            instance.gridDir = new File(dataDir, GRID_DIR_NAME);
+            instance.gridFileWriterName = "SEEnergyNet_DIM" + world.provider.getDimension() + "_GridWriter";
+            instance.readGridFile();
+        }
         return instance;
     }
 
@@ -72,12 +125,117 @@ public class EnergyNetDataProvider extends WorldSavedData {
         return te.getWorld().getTileEntity(te.getPos().offset(direction));
     }
     
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static long chunkKey(BlockPos pos) {
+        return chunkKey(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    public File getDataDirectory() {
+        return this.dataDir;
+    }
+
     public Iterator<TileEntity> getLoadedTileIterator() {
-        return this.loadedTiles.iterator();
+        return this.loadedTiles.values().iterator();
     }
 
     public Iterator<TileEntity> getLoadedGridTileIterator() {
-        return this.loadedGridTiles.iterator();
+        return this.loadedGridTiles.values().iterator();
+    }
+
+    public int getLoadedTileCount() {
+        return this.loadedTiles.size();
+    }
+
+    public int getLoadedChunkCount() {
+        return this.chunkTiles.size();
+    }
+
+    public int getFrozenChunkCount() {
+        return this.frozenChunks.size();
+    }
+
+    public int getFrozenTileCount() {
+        return this.frozenTiles.size();
+    }
+
+    public boolean isChunkFrozen(long chunk) {
+        return this.frozenChunks.containsKey(chunk);
+    }
+
+    /**
+     * @return the registered SE tile at the given position, without touching the world
+     */
+    public TileEntity getLoadedTile(BlockPos pos) {
+        return this.loadedTiles.get(pos);
+    }
+
+    /**
+     * @return the highest result epoch of the nodes owned by the tile, see CompiledCircuit.publish()
+     */
+    public int getResultEpoch(TileEntity te) {
+        int epoch = 0;
+
+        if (te instanceof ISECableTile) {
+            epoch = ((SEComponent) ((ISECableTile) te).getNode()).resultEpoch;
+        } else if (te instanceof ISETile) {
+            ISETile tile = (ISETile) te;
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                SEComponent subComponent = (SEComponent) tile.getComponent(direction);
+                if (subComponent != null && subComponent.resultEpoch > epoch)
+                    epoch = subComponent.resultEpoch;
+            }
+        }
+
+        if (te instanceof ISEGridTile) {
+            GridNode gridNode = this.gridNodeMap.get(te.getPos());
+            if (gridNode != null && gridNode.resultEpoch > epoch)
+                epoch = gridNode.resultEpoch;
+        }
+
+        return epoch;
+    }
+
+    private boolean isLoaded(TileEntity te) {
+        return this.loadedTiles.get(te.getPos()) == te;
+    }
+
+    /**
+     * @return the registered or frozen SE tile at the given position, both have their components in the graph
+     */
+    private TileEntity getConnectableTile(BlockPos pos) {
+        TileEntity te = this.loadedTiles.get(pos);
+        return te == null ? this.frozenTiles.get(pos) : te;
+    }
+
+    private void addToChunk(TileEntity te) {
+        long key = chunkKey(te.getPos());
+        List<TileEntity> tiles = this.chunkTiles.get(key);
+        if (tiles == null) {
+            tiles = new ArrayList<TileEntity>();
+            this.chunkTiles.put(key, tiles);
+        }
+        tiles.add(te);
+    }
+
+    private void removeFromChunk(TileEntity te) {
+        long key = chunkKey(te.getPos());
+        List<TileEntity> tiles = this.chunkTiles.get(key);
+        if (tiles == null)
+            return;
+
+        //Check for the same instance, a TileEntity of the other registry may share the position
+        for (int i = 0; i < tiles.size(); i++) {
+            if (tiles.get(i) == te) {
+                tiles.remove(i);
+                break;
+            }
+        }
+
+        if (tiles.isEmpty())
+            this.chunkTiles.remove(key);
     }
 
     public int getGridObjectCount() {
@@ -89,9 +247,21 @@ public class EnergyNetDataProvider extends WorldSavedData {
     }
 
     public void addTile(TileEntity te) {
-        if (this.loadedTiles.contains(te)) {
+        TileEntity existing = this.loadedTiles.get(te.getPos());
+        if (existing != null && existing != te) {
+            //The old TileEntity has not been detached yet, it can not be there anymore
+            this.removeTile(existing);
+            existing = null;
+        }
+
+        if (existing != null) {
             SELogger.logWarn(SELogger.energyNet, "Duplicated TileEntity:" + te + ", this could be a bug!");
         } else {
+            //Could not take over the frozen tile at this position
+            TileEntity frozen = this.frozenTiles.get(te.getPos());
+            if (frozen != null)
+                this.removeFrozenTile(frozen);
+
             if (te instanceof ISECableTile) {
                 ISECableTile cableTile = (ISECableTile) te;
                 Cable cable = (Cable) cableTile.getNode();
@@ -106,28 +276,29 @@ public class EnergyNetDataProvider extends WorldSavedData {
                     }
                 }
             }
-            this.loadedTiles.add(te);
+            this.loadedTiles.put(te.getPos(), te);
+            this.addToChunk(te);
         }
     }
 
-    public void updateTileConnection(TileEntity te) {
-    	if (!this.loadedTiles.contains(te))
-            return;
+    /**
+     * Neighbors are resolved from the registry, a tile which is not attached yet can not be connected anyway,
+     * it will build the connection itself once it gets attached
+     * @return false if the graph already had exactly these connections, e.g. for a tile which took over a frozen one
+     */
+    public boolean updateTileConnection(TileEntity te) {
+    	if (!this.isLoaded(te))
+            return false;
 
         if (te instanceof ISECableTile) {
             ISECableTile cableTile = (ISECableTile) te;
             Cable cable = (Cable) cableTile.getNode();
-            
-            this.tileEntityGraph.isolateVertex(cable);
-
-            if (cable.isGridInterConnectionPoint) {
-                GridNode gridNode = getGridObjectAtCoord(te.getPos());
-                this.tileEntityGraph.interconnection(cable, gridNode);
-            }
+            GridNode gridNode = cable.isGridInterConnectionPoint ? getGridObjectAtCoord(te.getPos()) : null;
+            List<SEComponent> neighbors = new ArrayList<SEComponent>(6);
 
-            //Build connection with neighbors
+            //Find neighbors to connect
             for (EnumFacing direction : EnumFacing.VALUES) {
-                TileEntity neighborTileEntity = getTileEntityOnDirection(te, direction);
+                TileEntity neighborTileEntity = this.getConnectableTile(te.getPos().offset(direction));
 
                 if (!cable.canConnectOnSide(direction))
                 	continue;
@@ -155,47 +326,97 @@ public class EnergyNetDataProvider extends WorldSavedData {
                             cable.canConnectOnSide(direction) &&
                             neighborCable.canConnectOnSide(direction.getOpposite())) {
 
-                        this.tileEntityGraph.addEdge(neighborCable, cable);
+                        neighbors.add(neighborCable);
                     }
                 } else if (neighborTileEntity instanceof ISETile) {
                     ISETile tile = (ISETile) neighborTileEntity;
                     ISESubComponent component = tile.getComponent(direction.getOpposite());
 
                     if (component != null) {
-                        this.tileEntityGraph.addEdge((SEComponent) component, cable);
+                        neighbors.add((SEComponent) component);
                     }
                 }
             }
+
+            if (cable.connectedGridNode == gridNode && this.hasNeighbors(cable, neighbors))
+                return false;
+
+            this.tileEntityGraph.isolateVertex(cable);
+
+            if (cable.isGridInterConnectionPoint)
+                this.tileEntityGraph.interconnection(cable, gridNode);
+
+            //Build connection with neighbors
+            for (SEComponent neighbor : neighbors)
+                this.tileEntityGraph.addEdge(neighbor, cable);
         } else if (te instanceof ISETile) {
             ISETile tile = (ISETile) te;
-            
-            for (EnumFacing direction : EnumFacing.VALUES) {
-                ISESubComponent subComponent = tile.getComponent(direction);
-                if (subComponent != null) {
-                    this.tileEntityGraph.isolateVertex((SEComponent) subComponent);
-                }
-            }
-            
+            //The cable connected to the sub component on each side, null if none
+            Cable[] neighbors = new Cable[EnumFacing.VALUES.length];
+            boolean changed = false;
+
             for (EnumFacing direction : EnumFacing.VALUES) {
                 ISESubComponent subComponent = tile.getComponent(direction);
                 if (subComponent != null) {
-                    TileEntity neighborTileEntity = getTileEntityOnDirection(te, direction);
+                    TileEntity neighborTileEntity = this.getConnectableTile(te.getPos().offset(direction));
 
                     if (neighborTileEntity instanceof ISECableTile) {
                     	Cable cable = (Cable) ((ISECableTile) neighborTileEntity).getNode();
                         // Connected properly
                         if (cable.canConnectOnSide(direction.getOpposite()))
-                            this.tileEntityGraph.addEdge(cable, (SEComponent) subComponent);
+                            neighbors[direction.ordinal()] = cable;
                     }
+
+                    SEComponent[] connected = this.tileEntityGraph.getNeighbors((SEComponent) subComponent);
+                    Cable cable = neighbors[direction.ordinal()];
+                    if (cable == null ? connected.length != 0 : connected.length != 1 || connected[0] != cable)
+                        changed = true;
                 }
             }
+
+            if (!changed)
+                return false;
+
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                ISESubComponent subComponent = tile.getComponent(direction);
+                if (subComponent != null) {
+                    this.tileEntityGraph.isolateVertex((SEComponent) subComponent);
+                }
+            }
+            
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                Cable cable = neighbors[direction.ordinal()];
+                if (cable != null)
+                    this.tileEntityGraph.addEdge(cable, (SEComponent) tile.getComponent(direction));
+            }
         } else {
             throw new RuntimeException("Unexpected TileEntity:" + te);
         }
+
+        return true;
+    }
+
+    /**
+     * @return true if the node is connected to exactly the given neighbors
+     */
+    private boolean hasNeighbors(SEComponent node, List<SEComponent> neighbors) {
+        SEComponent[] connected = this.tileEntityGraph.getNeighbors(node);
+        if (connected.length != neighbors.size())
+            return false;
+
+        for (SEComponent neighbor : connected) {
+            boolean found = false;
+            for (SEComponent expected : neighbors)
+                found |= expected == neighbor;
+            if (!found)
+                return false;
+        }
+
+        return true;
     }
     
     public void updateTileParam(TileEntity te) {
-    	if (!this.loadedTiles.contains(te))
+    	if (!this.isLoaded(te))
             return;
     	
         if (te instanceof ISECableTile) {
@@ -215,9 +436,15 @@ public class EnergyNetDataProvider extends WorldSavedData {
     }
     
     public void removeTile(TileEntity te) {
-    	if (!this.loadedTiles.contains(te))
+    	if (!this.isLoaded(te))
             return;
 
+        this.removeComponents(te);
+        this.loadedTiles.remove(te.getPos());
+        this.removeFromChunk(te);
+    }
+
+    private void removeComponents(TileEntity te) {
         if (te instanceof ISECableTile) {
             Cable cable = (Cable) ((ISECableTile) te).getNode();
 
@@ -233,14 +460,137 @@ public class EnergyNetDataProvider extends WorldSavedData {
         } else {
             throw new RuntimeException("Unexpected TileEntity:" + te);
         }
-        
-        this.loadedTiles.remove(te);
+    }
+
+    private void removeFrozenTile(TileEntity te) {
+        this.removeComponents(te);
+        this.frozenTiles.remove(te.getPos());
+
+        long chunk = chunkKey(te.getPos());
+        List<TileEntity> tiles = this.frozenChunks.get(chunk);
+        tiles.remove(te);
+        if (tiles.isEmpty())
+            this.frozenChunks.remove(chunk);
+    }
+
+    /**
+     * Detach every SE tile and grid tile of a chunk in one pass, used when the chunk unloads
+     * @return true if anything was registered in the chunk
+     */
+    public boolean removeChunk(long chunk) {
+        boolean removed = this.thawChunk(chunk);
+        List<TileEntity> tiles = this.chunkTiles.get(chunk);
+        if (tiles == null)
+            return removed;
+
+        for (TileEntity te: tiles.toArray(new TileEntity[tiles.size()])) {
+            if (te instanceof ISETile || te instanceof ISECableTile)
+                this.removeTile(te);
+            if (te instanceof ISEGridTile)
+                this.onGridTileInvalidate(te);
+        }
+
+        return true;
+    }
+
+    /**
+     * Keep the SE tiles of an unloading chunk in the graph, their components act as a frozen equivalent
+     * using the parameters they had when the chunk unloaded. Grid tiles are released as usual.
+     * The frozen tiles are moved out of the registry, so they are neither iterated nor counted as loaded tiles.
+     * @return true if anything was registered in the chunk
+     */
+    public boolean freezeChunk(long chunk) {
+        List<TileEntity> tiles = this.chunkTiles.get(chunk);
+        if (tiles == null)
+            return false;
+
+        for (TileEntity te: tiles.toArray(new TileEntity[tiles.size()])) {
+            if (te instanceof ISEGridTile)
+                this.onGridTileInvalidate(te);
+        }
+
+        //Only SE tiles are left
+        tiles = this.chunkTiles.remove(chunk);
+        if (tiles != null) {
+            for (TileEntity te: tiles) {
+                this.loadedTiles.remove(te.getPos());
+                this.frozenTiles.put(te.getPos(), te);
+            }
+            this.frozenChunks.put(chunk, tiles);
+        }
+
+        return true;
+    }
+
+    /**
+     * Let a reloaded tile take over the components of the frozen tile at its position
+     * @return false if there is no compatible frozen tile, the tile has to be added normally
+     */
+    public boolean thawTile(TileEntity te) {
+        BlockPos pos = te.getPos();
+        TileEntity frozen = this.frozenTiles.get(pos);
+        if (frozen == null || frozen.getClass() != te.getClass() || this.loadedTiles.containsKey(pos))
+            return false;
+
+        if (te instanceof ISECableTile) {
+            if (!this.tileEntityGraph.replaceVertex((Cable) ((ISECableTile) frozen).getNode(), (Cable) ((ISECableTile) te).getNode()))
+                return false;
+        } else if (te instanceof ISETile) {
+            ISETile frozenTile = (ISETile) frozen;
+            ISETile tile = (ISETile) te;
+
+            //Check all sides first, a partial replacement can not be undone
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                SEComponent frozenComponent = (SEComponent) frozenTile.getComponent(direction);
+                SEComponent component = (SEComponent) tile.getComponent(direction);
+                if (frozenComponent == null && component == null)
+                    continue;
+                if (frozenComponent == null || component == null || frozenComponent.getClass() != component.getClass() ||
+                        !this.tileEntityGraph.containsNode(frozenComponent))
+                    return false;
+            }
+
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                ISESubComponent frozenComponent = frozenTile.getComponent(direction);
+                if (frozenComponent != null)
+                    this.tileEntityGraph.replaceVertex((SEComponent) frozenComponent, (SEComponent) tile.getComponent(direction));
+            }
+        } else {
+            return false;
+        }
+
+        this.frozenTiles.remove(pos);
+        long chunk = chunkKey(pos);
+        List<TileEntity> tiles = this.frozenChunks.get(chunk);
+        tiles.remove(frozen);
+        if (tiles.isEmpty())
+            this.frozenChunks.remove(chunk);
+
+        this.loadedTiles.put(pos, te);
+        this.addToChunk(te);
+        return true;
+    }
+
+    /**
+     * Called after the tiles of a loaded chunk are attached, frozen tiles which have not been taken over are removed
+     * @return true if any frozen tile has been removed
+     */
+    public boolean thawChunk(long chunk) {
+        List<TileEntity> tiles = this.frozenChunks.get(chunk);
+        if (tiles == null)
+            return false;
+
+        for (TileEntity te: tiles.toArray(new TileEntity[tiles.size()]))
+            this.removeFrozenTile(te);
+
+        return true;
     }
 
     //Grid Event handling ----------------------------------------------------------------------------
     public void addGridNode(GridNode gridNode) {
         this.tileEntityGraph.addVertex(gridNode);
         this.gridNodeMap.put(gridNode.getPos(), gridNode);
+        this.addToRegion(gridNode);
 
         markDirty();
     }
@@ -249,13 +599,19 @@ public class EnergyNetDataProvider extends WorldSavedData {
         if (gridNode == null)
             return;            //TODO should we log this?
 
+        if (gridNode.complement != null)
+            this.markRegionDirty(gridNode.complement);
+
         for (GridNode affectedNeighbors : this.tileEntityGraph.removeGridVertex(gridNode)) {
             TileEntity te = affectedNeighbors.te;
             if (te instanceof ISEGridTile)
                 this.updatedGridTile.add((ISEGridTile) te);
+            if (!GridDataFile.isSameRegion(gridNode, affectedNeighbors))
+                this.edgeIndexDirty = true;
         }
 
         this.gridNodeMap.remove(gridNode.getPos());
+        this.removeFromRegion(gridNode);
         markDirty();
     }
 
@@ -264,6 +620,7 @@ public class EnergyNetDataProvider extends WorldSavedData {
             return;
 
         this.tileEntityGraph.addGridEdge(node1, node2, resistance);
+        this.onGridEdgeChanged(node1, node2);
 
         TileEntity te1 = node1.te;
         TileEntity te2 = node2.te;
@@ -281,6 +638,7 @@ public class EnergyNetDataProvider extends WorldSavedData {
             return;
 
         this.tileEntityGraph.removeGridEdge(node1, node2);
+        this.onGridEdgeChanged(node1, node2);
 
         TileEntity te1 = node1.te;
         TileEntity te2 = node2.te;
@@ -294,6 +652,64 @@ public class EnergyNetDataProvider extends WorldSavedData {
     }
 
 
+    //Grid region tracking, see GridDataFile ----------------------------------------------------------------
+    private void addToRegion(GridNode gridNode) {
+        long key = GridDataFile.regionKey(gridNode.getPos());
+        Set<GridNode> nodes = this.regionNodes.get(key);
+        if (nodes == null) {
+            nodes = new LinkedHashSet<GridNode>();
+            this.regionNodes.put(key, nodes);
+        }
+        nodes.add(gridNode);
+        this.dirtyRegions.add(key);
+    }
+
+    private void removeFromRegion(GridNode gridNode) {
+        long key = GridDataFile.regionKey(gridNode.getPos());
+        Set<GridNode> nodes = this.regionNodes.get(key);
+        if (nodes != null) {
+            nodes.remove(gridNode);
+            if (nodes.isEmpty())
+                this.regionNodes.remove(key);
+        }
+        this.dirtyRegions.add(key);
+        this.borderNodes.remove(gridNode);
+    }
+
+    private void markRegionDirty(GridNode gridNode) {
+        this.dirtyRegions.add(GridDataFile.regionKey(gridNode.getPos()));
+    }
+
+    private void onGridEdgeChanged(GridNode node1, GridNode node2) {
+        if (GridDataFile.isSameRegion(node1, node2)) {
+            this.markRegionDirty(node1);
+        } else {
+            this.edgeIndexDirty = true;
+            this.borderNodes.add(node1);
+            this.borderNodes.add(node2);
+        }
+    }
+
+    /**
+     * Group the loaded grid nodes by region
+     *
+     * @param dirty all regions have to be written in the next save, e.g. the grid was stored in an old format
+     */
+    private void buildRegions(boolean dirty) {
+        for (GridNode gridNode : this.gridNodeMap.values()) {
+            this.addToRegion(gridNode);
+
+            for (GridNode neighbor : gridNode.getNeighborList()) {
+                if (!GridDataFile.isSameRegion(gridNode, neighbor))
+                    this.borderNodes.add(gridNode);
+            }
+        }
+
+        if (!dirty)
+            this.dirtyRegions.clear();
+        this.edgeIndexDirty = dirty;
+    }
+
     //-----------------------------------------------------------------------------------------------------------
     ///////////////////////////////////////
     ///PerWorldStorage
@@ -303,7 +719,15 @@ public class EnergyNetDataProvider extends WorldSavedData {
         if (primary == null || secondary == null)
             return;
 
+        //A node belongs to one transformer at most, otherwise the old partner would still be coupled to it
+        if (primary.complement != null && primary.complement != secondary)
+            this.breakTransformer(primary);
+        if (secondary.complement != null && secondary.complement != primary)
+            this.breakTransformer(secondary);
+
         this.tileEntityGraph.makeTransformer(primary, secondary, ratio, resistance);
+        this.markRegionDirty(primary);
+        this.markRegionDirty(secondary);
 
         TileEntity te1 = primary.te;
         TileEntity te2 = secondary.te;
@@ -320,6 +744,9 @@ public class EnergyNetDataProvider extends WorldSavedData {
         if (node == null)
             return;
 
+        this.markRegionDirty(node);
+        if (node.complement != null)
+            this.markRegionDirty(node.complement);
         this.tileEntityGraph.breakTransformer(node);
 
         TileEntity te = node.te;
@@ -335,17 +762,23 @@ public class EnergyNetDataProvider extends WorldSavedData {
         GridNode gridObject = this.gridNodeMap.get(te.getPos());
         if (gridObject == null)
             return;
-        this.loadedGridTiles.add(te);
+        TileEntity replaced = this.loadedGridTiles.put(te.getPos(), te);
+        if (replaced != te) {
+            if (replaced != null)
+                this.removeFromChunk(replaced);
+            this.addToChunk(te);
+        }
         gridObject.te = te;
         gridTile.setGridNode(gridObject);
         this.updatedGridTile.add(gridTile);
     }
 
     public void onGridTileInvalidate(TileEntity te) {
-    	if (!this.loadedTiles.contains(te))
+    	if (this.loadedGridTiles.get(te.getPos()) != te)
             return;
     	
-        this.loadedGridTiles.remove(te);
+        this.loadedGridTiles.remove(te.getPos());
+        this.removeFromChunk(te);
 
         ISEGridTile gridTile = (ISEGridTile) te;
         GridNode gridObject = this.gridNodeMap.get(te.getPos());
@@ -360,13 +793,28 @@ public class EnergyNetDataProvider extends WorldSavedData {
     }
 
     /**
-     * Read grid data from world NBT, 1.Read grid nodes, 2. Read connections
+     * Only records where the grid is, it is loaded by get() once the location of the grid files is known
      */
     @Override
     public void readFromNBT(NBTTagCompound nbt) {
         this.gridNodeMap.clear();
 
-        NBTTagList NBTObjects = nbt.getTagList("Objects", NBT.TAG_COMPOUND);
+        //Packed format
+        if (nbt.hasKey("GridFormat")) {
+            this.pendingGridFormat = nbt.getInteger("GridFormat");
+            this.gridSequence = nbt.hasKey("GridSequence") ? nbt.getLong("GridSequence") : -1;
+            this.nbtGridFormat = this.pendingGridFormat;
+            return;
+        }
+
+        if (nbt.hasKey("Objects"))
+            this.pendingGridNodes = nbt.getTagList("Objects", NBT.TAG_COMPOUND);
+    }
+
+    /**
+     * Read grid data from world NBT, 1.Read grid nodes, 2. Read connections
+     */
+    private void readGridNodes(NBTTagList NBTObjects) {
         for (int i = 0; i < NBTObjects.tagCount(); i++) {
             NBTTagCompound compound = NBTObjects.getCompoundTagAt(i);
             GridNode obj = new GridNode(compound);
@@ -383,15 +831,126 @@ public class EnergyNetDataProvider extends WorldSavedData {
 
 
         //Build node connections
-        for (GridNode gridNode : this.gridNodeMap.values()) {
-            gridNode.buildNeighborConnection(this.gridNodeMap, this.tileEntityGraph);
+        for (int i = 0; i < NBTObjects.tagCount(); i++) {
+            NBTTagCompound compound = NBTObjects.getCompoundTagAt(i);
+            GridNode gridNode = this.gridNodeMap.get(new BlockPos(compound.getInteger("x"), compound.getInteger("y"), compound.getInteger("z")));
+            gridNode.buildNeighborConnection(compound, this.gridNodeMap, this.tileEntityGraph);
         }
+    }
 
-        SELogger.logInfo(SELogger.energyNet, "Loaded GridNodes from world NBT storage");
+    /**
+     * The region files are preferred whenever they have a manifest: the NBT only switches to them after they are written,
+     * so if the NBT still has an older layout, the region files are the newer ones
+     */
+    private void readGridFile() {
+        int format = this.pendingGridFormat;
+        NBTTagList nbtNodes = this.pendingGridNodes;
+        this.pendingGridFormat = 0;
+        this.pendingGridNodes = null;
+
+        boolean regions = GridDataFile.hasManifest(this.gridDir);
+        File source = regions || format >= GridDataFile.VERSION ? this.gridDir : this.gridFile;
+
+        try {
+            if (regions || format >= GridDataFile.VERSION) {
+                long sequence = GridDataFile.readRegions(this.gridDir, this.gridNodeMap, this.tileEntityGraph);
+                //Later saves may have been written after the NBT, but never fewer
+                if (format >= GridDataFile.VERSION && sequence < this.gridSequence)
+                    throw new IOException(this.gridDir + " is from save #" + sequence + ", but the world expects #" + this.gridSequence);
+                this.gridSequence = sequence;
+                this.confirmedSequence = sequence;
+
+                //Left by a save interrupted between writing the regions and the NBT
+                if (format > 0 && format < GridDataFile.VERSION)
+                    this.legacyGridFile = this.gridFile;
+            } else if (format > 0) {
+                for (GridNode gridNode : GridDataFile.readLegacy(this.gridFile, this.gridSequence, this.tileEntityGraph))
+                    this.gridNodeMap.put(gridNode.getPos(), gridNode);
+                this.legacyGridFile = this.gridFile;
+                this.legacyGridFormat = this.nbtGridFormat;
+                this.legacySequence = this.gridSequence;
+            } else if (nbtNodes != null) {
+                this.readGridNodes(nbtNodes);
+                source = null;
+            } else {
+                //Nothing saved yet
+                return;
+            }
+        } catch (IOException e) {
+            //Do not continue with an empty grid, the next save would overwrite the files
+            throw new RuntimeException("Failed to load the grid from " + source, e);
+        }
+
+        this.buildRegions(!regions);
+        SELogger.logInfo(SELogger.energyNet, "Loaded " + this.gridNodeMap.size() + " GridNodes in " + this.regionNodes.size() + " regions from " +
+                (source == null ? "world NBT storage" : source));
     }
 
+    /**
+     * Only the regions changed since the last save are copied here, during the world save on the server thread.
+     * They are serialized and written by the GridFileWriter, the NBT records the format and the sequence number.
+     * <p/>
+     * The NBT is written right after this call, while the GridFileWriter may still be working, so it only refers to a save
+     * the GridFileWriter has confirmed. The first save is waited for, only if it fails, the NBT keeps the previous layout:
+     * the single file of version 1 and 2 (not deleted yet) or the nodes in the NBT itself.
+     */
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
+        if (this.gridDir != null) {
+            if (this.gridFileWriter == null)
+                this.gridFileWriter = new GridFileWriter(this.gridFileWriterName, this.gridDir);
+
+            //Regions which could not be written last time
+            GridDataFile.Save failed = this.gridFileWriter.takeFailed();
+            if (failed != null) {
+                this.dirtyRegions.addAll(failed.getRegions());
+                this.edgeIndexDirty |= failed.hasEdgeIndex();
+                if (failed.legacyFile != null)
+                    this.legacyGridFile = failed.legacyFile;
+            }
+
+            this.gridSequence++;
+            GridDataFile.Save save = new GridDataFile.Save(this.gridSequence);
+            this.regionScratch = GridDataFile.regionScratch(this.regionScratch, this.tileEntityGraph);
+            for (Long key : this.dirtyRegions) {
+                Set<GridNode> nodes = this.regionNodes.get(key);
+                save.regions.put(key, GridDataFile.captureRegion(key, nodes == null ? Collections.<GridNode>emptySet() : nodes,
+                        this.tileEntityGraph, this.regionScratch));
+            }
+            if (this.edgeIndexDirty)
+                save.edgeIndex = GridDataFile.captureEdgeIndex(this.borderNodes, this.tileEntityGraph);
+            //The NBT written last time refers to the regions, nothing needs the single file anymore
+            if (this.nbtGridFormat == GridDataFile.VERSION) {
+                save.legacyFile = this.legacyGridFile;
+                this.legacyGridFile = null;
+            }
+
+            this.dirtyRegions.clear();
+            this.edgeIndexDirty = false;
+            this.gridFileWriter.submit(save);
+
+            //Until a save has been confirmed, it is waited for, so that the NBT refers to the region files right away
+            if (this.confirmedSequence < 0)
+                this.gridFileWriter.waitFor(save.sequence);
+
+            this.confirmedSequence = Math.max(this.confirmedSequence, this.gridFileWriter.getWrittenSequence());
+            if (this.confirmedSequence >= 0) {
+                this.nbtGridFormat = GridDataFile.VERSION;
+                nbt.setInteger("GridFormat", GridDataFile.VERSION);
+                nbt.setLong("GridSequence", this.confirmedSequence);
+                return nbt;
+            }
+
+            if (this.legacyGridFile != null) {
+                this.nbtGridFormat = this.legacyGridFormat;
+                nbt.setInteger("GridFormat", this.legacyGridFormat);
+                nbt.setLong("GridSequence", this.legacySequence);
+                return nbt;
+            }
+        }
+
+        this.nbtGridFormat = 0;
+
         NBTTagList NBTNodes = new NBTTagList();
         for (GridNode gridNode : this.gridNodeMap.values()) {
             NBTTagCompound tag = new NBTTagCompound();
@@ -403,6 +962,25 @@ public class EnergyNetDataProvider extends WorldSavedData {
         return nbt;
     }
 
+    /**
+     * Mark the data dirty if the GridFileWriter has failed, so that the next world save tries again, called from the server thread
+     */
+    public void checkGridFileWriter() {
+        if (this.gridFileWriter != null && this.gridFileWriter.hasFailed())
+            this.markDirty();
+    }
+
+    /**
+     * Wait for the grid files to be written, called when the world unloads after its last save
+     */
+    public void flushGridFile() {
+        if (this.gridFileWriter == null)
+            return;
+
+        this.gridFileWriter.finish();
+        this.gridFileWriter = null;
+    }
+
     public void fireGridTileUpdateEvent() {
         for (ISEGridTile gridTile : this.updatedGridTile) {
             gridTile.onGridNeighborUpdated();
@@ -20,6 +20,8 @@
 package simelectricity.energynet;
 
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent.Unload;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -38,6 +40,37 @@ public class EnergyNetEventHandler {
         EnergyNetAgent.onWorldUnload(event.getWorld());
     }
 
+    @SubscribeEvent
+    public void onBlockChanged(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isRemote)
+            return;
+
+        //Do not create EnergyNet for worlds that do not have one
+        EnergyNet energyNet = EnergyNetAgent.mapping.get(event.getWorld());
+        if (energyNet != null)
+            energyNet.onBlockChanged(event.getPos());
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld().isRemote)
+            return;
+
+        EnergyNet energyNet = EnergyNetAgent.mapping.get(event.getWorld());
+        if (energyNet != null)
+            energyNet.onChunkUnload(event.getChunk().xPosition, event.getChunk().zPosition);
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getWorld().isRemote)
+            return;
+
+        EnergyNet energyNet = EnergyNetAgent.mapping.get(event.getWorld());
+        if (energyNet != null)
+            energyNet.onChunkLoad(event.getChunk().xPosition, event.getChunk().zPosition);
+    }
+
     //Pre -> Entities -> TileEntitis -> Post
     @SubscribeEvent
     public void tick(TickEvent.WorldTickEvent event) {
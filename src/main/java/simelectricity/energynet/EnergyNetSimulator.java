@@ -1,17 +1,10 @@
 package simelectricity.energynet;
 
-import simelectricity.api.ISEEnergyNetUpdateHandler;
 import simelectricity.common.ConfigManager;
 import simelectricity.common.SELogger;
-import simelectricity.energynet.components.*;
 import simelectricity.energynet.matrix.IMatrixSolver;
 import simelectricity.energynet.matrix.IMatrixSolver.MatrixHelper;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-
-import net.minecraft.tileentity.TileEntity;
-
 
 public class EnergyNetSimulator extends Thread {
 	/////////////////////////////////////////////////
@@ -21,37 +14,43 @@ public class EnergyNetSimulator extends Thread {
      * The absolute tolerance
      */
     private static double epsilon;
-    /**
-     * The conductance placed between each PN junction(to alleviate convergence problem)
-     */
-    private static double Gpn;
     /**
      * Matrix solving algorithm used to solve the problem
      */
     private static IMatrixSolver matrix;
     
+    /**
+     * Number of runs in a row which can be cancelled, the next run is finished no matter what is submitted meanwhile
+     */
+    private static final int MAX_CONSECUTIVE_CANCELLATIONS = 3;
+    
     public static final void config() {
         epsilon = Math.pow(10, -ConfigManager.precision);
-        Gpn = 1.0D / ConfigManager.shuntPN;
         matrix = MatrixHelper.newSolver(ConfigManager.matrixSolver);
     }
     
 	/////////////////////////////////////////////////
 	/// Runtime
 	/////////////////////////////////////////////////
-    private final EnergyNetDataProvider dataProvider;
     /**
      * Records the number of iterations during last iterating process
      */
     protected volatile int iterations;
     
-    private volatile boolean needOptimize;    	//Set to true to launch the optimizer
     private volatile boolean processing;    	//An indicator of the EnergyNet state
     private volatile long duration;            	//Time taken for the latest simulation, in milliseconds
     private volatile boolean suicide;
+    private volatile boolean cancelRequested;	//Set when a newer circuit is submitted during a run
+    private volatile int cancelledRuns;			//Number of runs abandoned due to cancellation
+    private int consecutiveCancellations;		//Runs cancelled since the last finished one, guarded by this
+    private volatile int matrixSize, nonZeros, islands;
+    private volatile int pendingIslands;		//Number of islands not solved yet in the current run
+    private CompiledCircuit.Compiler next;		//Submitted but not picked up yet, guarded by this
+    private CompiledCircuit.Compiler running;	//Being simulated, guarded by this
+    private CompiledCircuit result;				//Latest finished simulation, guarded by this
+    private int failedTopologyVersion = -1;		//Topology of the latest failed run, -1 if none, guarded by this
     
-    protected EnergyNetSimulator(EnergyNetDataProvider dataProvider, String name) {
-    	this.dataProvider = dataProvider;
+    protected EnergyNetSimulator(String name) {
     	this.setName(name);
     	this.processing = false;
     	this.suicide = false;
@@ -68,19 +67,31 @@ public class EnergyNetSimulator extends Thread {
     	return this.duration;
     }
 
+    public int getCancelledRuns() {
+    	return this.cancelledRuns;
+    }
+
+    public int getIslandCount() {
+    	return this.islands;
+    }
+
+    public int getPendingIslands() {
+    	return this.pendingIslands;
+    }
+
     public float getMatrixSize() {
-    	return this.matrix.getMatrixSize();
+    	return this.matrixSize;
     }
     
     public float getTotalNonZeros() {
-    	return this.matrix.getTotalNonZeros();
+    	return this.nonZeros;
     }
     
     public float getDensity() {
-        if (this.matrix.getMatrixSize() == 0) {
+        if (this.matrixSize == 0) {
             return Float.NaN;
         } else {
-        	return (float)this.matrix.getTotalNonZeros() * 100F / (float)this.matrix.getMatrixSize() / (float)this.matrix.getMatrixSize();
+        	return (float)this.nonZeros * 100F / (float)this.matrixSize / (float)this.matrixSize;
         }
     }
     
@@ -96,52 +107,109 @@ public class EnergyNetSimulator extends Thread {
     	return this.processing;
     }
     
-    public void start(boolean needOptimize) {
-    	this.needOptimize = needOptimize;
+    /**
+     * Assemble and simulate a circuit snapshot, the compiler must have read all parameters,
+     * the snapshot is not shared with the server thread.
+     * </p>
+     * If a simulation of an older topology is still running, it will be abandoned at its next checkpoint and the simulator
+     * restarts with the new snapshot, which already contains all changes made since the previous one.
+     * A run whose topology is still current is finished, parameter changes are picked up by the next run,
+     * so that the simulator keeps publishing results if parameters change every tick.
+     * Structural changes cancel at most MAX_CONSECUTIVE_CANCELLATIONS runs in a row.
+     */
+    public void submit(CompiledCircuit.Compiler compiler) {
+    	synchronized (this) {
+    		this.next = compiler;
+    		if (this.running != null && this.running.topology.version != compiler.topology.version &&
+    				this.consecutiveCancellations < MAX_CONSECUTIVE_CANCELLATIONS)
+    			this.cancelRequested = true;
+    		this.processing = true;
+    		this.notify();
+    	}
     	
     	if (!this.isAlive())
     		this.start();
-    	
-    	synchronized (this) {  
-    		this.notify();
-        }
+    }
+    
+    /**
+     * @return the latest finished simulation, or null if nothing new since last call
+     */
+    public synchronized CompiledCircuit takeResult() {
+    	CompiledCircuit ret = this.result;
+    	this.result = null;
+    	return ret;
+    }
+    
+    /**
+     * @return the topology version of the latest run which failed with an exception, or -1 if none since last call
+     */
+    public synchronized int takeFailure() {
+    	int ret = this.failedTopologyVersion;
+    	this.failedTopologyVersion = -1;
+    	return ret;
+    }
+    
+    /**
+     * Cooperative cancellation point, called between islands and Newton iterations
+     */
+    private void checkpoint() throws SimulationCancelledException {
+    	if (this.cancelRequested)
+    		throw new SimulationCancelledException();
     }
     
     @Override
     public void run() {
         long startAt;
+        CompiledCircuit.Compiler compiler;
+        CompiledCircuit circuit;
         
         while(true){  
             try {
+                synchronized (this) {
+                    while (this.next == null)
+                        this.wait();
+                    compiler = this.next;
+                    this.next = null;
+                    this.running = compiler;
+                    this.cancelRequested = false;
+                }
+
                 SELogger.logInfo(SELogger.simulator, this.getName() + " wake up");
 
-                processing = true;
-                SELogger.logInfo(SELogger.simulator, this.getName() + " Started");
+                SELogger.logInfo(SELogger.simulator, this.getName() + " Started, circuit version " + compiler.version);
                 startAt = System.currentTimeMillis();
-                this.runSimulator(this.needOptimize);
+                try {
+                    circuit = compiler.assemble();
+                    this.runSimulator(circuit);
+                } catch (SimulationCancelledException e) {
+                    synchronized (this) {
+                        this.running = null;
+                        this.consecutiveCancellations++;
+                    }
+                    this.cancelledRuns++;
+                    SELogger.logInfo(SELogger.simulator, this.getName() + " Cancelled, circuit version " + compiler.version + " is obsolete");
+                    continue;
+                } catch (RuntimeException e) {
+                    //Keep the thread alive, the next submission is simulated as usual
+                    SELogger.logError(SELogger.simulator, this.getName() + " Failed to simulate circuit version " + compiler.version + ": " + e.getMessage());
+                    e.printStackTrace();
+                    synchronized (this) {
+                        this.running = null;
+                        this.failedTopologyVersion = compiler.topology.version;
+                        this.processing = this.next != null;
+                    }
+                    continue;
+                }
                 SELogger.logInfo(SELogger.simulator, this.getName() + " Done");
                 this.duration = System.currentTimeMillis() - startAt;
 
-                //Execute Handlers
-                Iterator<TileEntity> iterator = this.dataProvider.getLoadedTileIterator();
-                while (iterator.hasNext()) {
-                    TileEntity te = iterator.next();
-                    if (te instanceof ISEEnergyNetUpdateHandler)
-                        ((ISEEnergyNetUpdateHandler) te).onEnergyNetUpdate();
+                synchronized (this) {
+                    this.result = circuit;
+                    this.running = null;
+                    this.consecutiveCancellations = 0;
+                    this.processing = this.next != null;
                 }
-                iterator = this.dataProvider.getLoadedGridTileIterator();
-                while (iterator.hasNext()) {
-                    TileEntity te = iterator.next();
-                    if (te instanceof ISEEnergyNetUpdateHandler)
-                        ((ISEEnergyNetUpdateHandler) te).onEnergyNetUpdate();
-                }
-
-                processing = false;
                 SELogger.logInfo(SELogger.simulator, this.getName() + " sleep");
-            	
-                synchronized (this) {  
-                    wait();  
-                }
             } catch (InterruptedException e) {
             	if (this.suicide) {
                 	SELogger.logInfo(SELogger.general, this.getName() + " is shutting down");
@@ -156,332 +224,137 @@ public class EnergyNetSimulator extends Thread {
     }
     
     /**
-     * @param voltages input, node voltage array from last iteration
-     * @param currents output, return the new current mismatch
-     * @param iterator An iterator instance of the unknown voltage node linked list.
+     * @param circuit the snapshot
+     * @param start index of the first node of the island
+     * @param end index of the last node of the island plus one
+     * @param currents output, return the new current mismatch, indexed from the first node of the island
      */
-    private final void calcCurrents(double[] voltages, double[] currents, Iterator<SEComponent> iterator) {
-        //Calculate the current flow into each node using their voltage
-        while (iterator.hasNext()) {
-            SEComponent columnNode = iterator.next();
-
-            //Node - Node
-            Iterator<SEComponent> iteratorON = columnNode.optimizedNeighbors.iterator();
-            Iterator<Double> iteratorR = columnNode.optimizedResistance.iterator();
-            while (iteratorON.hasNext()) {
-                SEComponent neighbor = iteratorON.next();
-                double R = iteratorR.next();
-                currents[columnNode.index] -= (voltages[columnNode.index] - voltages[neighbor.index]) / R;
-            }
-
-
-            if (columnNode instanceof Cable) {
-                Cable cable = (Cable) columnNode;
-
-                if (cable.hasShuntResistance())
-                    currents[columnNode.index] -= voltages[cable.index] / cable.getShuntResistance();
-
-                //Cable - GridNode interconnection
-                if (cable.connectedGridNode != null && cable.isGridLinkEnabled())
-                    currents[columnNode.index] -= (voltages[cable.index] - voltages[cable.connectedGridNode.index]) / cable.getResistance();
-            } else if (columnNode instanceof GridNode) {
-                GridNode gridNode = (GridNode) columnNode;
-
-                //Cable - GridNode interconnection
-                if (gridNode.interConnection != null && gridNode.interConnection.isGridLinkEnabled())
-                    currents[columnNode.index] -= (voltages[gridNode.index] - voltages[gridNode.interConnection.index]) / gridNode.interConnection.getResistance();
-
-                if (gridNode.type == GridNode.ISEGridNode_TransformerPrimary) {
-                    GridNode pri = gridNode;
-                    GridNode sec = pri.complement;
-                    double ratio = pri.ratio;
-                    double res = pri.resistance;
-                    currents[columnNode.index] -= voltages[pri.index] * ratio * ratio / res - voltages[sec.index] * ratio / res;
-                }
-
-                if (gridNode.type == GridNode.ISEGridNode_TransformerSecondary) {
-                    GridNode sec = gridNode;
-                    GridNode pri = sec.complement;
-                    double ratio = pri.ratio;
-                    double res = pri.resistance;
-                    currents[columnNode.index] -= -(voltages[pri.index] * ratio / res) + voltages[sec.index] / res;
-                }
-            }
-
-
-            //Node - shunt and two port networks
-            else if (columnNode instanceof VoltageSource) {
-                VoltageSource vs = (VoltageSource) columnNode;
-                currents[columnNode.index] -= (voltages[vs.index] - vs.getOutputVoltage()) / vs.getResistance();
-            } else if (columnNode instanceof ConstantPowerLoad) {
-                ConstantPowerLoad load = (ConstantPowerLoad) columnNode;
-
-                double V = voltages[load.index];
-                double Rcal = V * V / load.getRatedPower();
-
-                if (Rcal > load.getMaximumResistance())
-                    Rcal = load.getMaximumResistance();
-                if (Rcal < load.getMinimumResistance())
-                    Rcal = load.getMinimumResistance();
-
-                if (load.isEnabled())
-                    currents[columnNode.index] -= V / Rcal;
-            }
-
-            //Switch
-            else if (columnNode instanceof SwitchA) {
-                SwitchA A = (SwitchA) columnNode;
-                SwitchB B = A.getComplement();
-
-                if (A.isOn())
-                    currents[columnNode.index] -= (voltages[A.index] - voltages[B.index]) / A.getResistance();
-            } else if (columnNode instanceof SwitchB) {
-                SwitchB B = (SwitchB) columnNode;
-                SwitchA A = B.getComplement();
-
-                if (A.isOn())
-                    currents[columnNode.index] -= (voltages[B.index] - voltages[A.index]) / A.getResistance();
-            }
-
-            //Transformer
-            else if (columnNode instanceof TransformerPrimary) {
-                TransformerPrimary pri = (TransformerPrimary) columnNode;
-                TransformerSecondary sec = pri.getComplement();
-                double ratio = pri.getRatio();
-                double res = pri.getInternalResistance();
-                currents[columnNode.index] -= voltages[pri.index] * ratio * ratio / res - voltages[sec.index] * ratio / res;
-            } else if (columnNode instanceof TransformerSecondary) {
-                TransformerSecondary sec = (TransformerSecondary) columnNode;
-                TransformerPrimary pri = sec.getComplement();
-                double ratio = pri.getRatio();
-                double res = pri.getInternalResistance();
-                currents[columnNode.index] -= -(voltages[pri.index] * ratio / res) + voltages[sec.index] / res;
-            }
-
-
-            //Diode
-            else if (columnNode instanceof DiodeInput) {
-                DiodeInput input = (DiodeInput) columnNode;
-                DiodeOutput output = input.getComplement();
-
-                double Vd = voltages[input.index] - voltages[output.index];
-
-                currents[columnNode.index] -= input.calcId(Vd) + Vd * this.Gpn;
-            } else if (columnNode instanceof DiodeOutput) {
-                DiodeOutput output = (DiodeOutput) columnNode;
-                DiodeInput input = output.getComplement();
+    private final void calcCurrents(CompiledCircuit circuit, int island, int start, int end, double[] currents) {
+        double[] voltages = circuit.voltages;
+
+        //Linear components and voltage sources
+        for (int row = start; row < end; row++) {
+            double current = circuit.injection[row];
+            for (int p = circuit.rowStart[row]; p < circuit.rowStart[row + 1]; p++)
+                current -= circuit.values[p] * voltages[circuit.columns[p]];
+            currents[row - start] = current;
+        }
 
-                double Vd = voltages[input.index] - voltages[output.index];
+        //Constant power load
+        for (int l = circuit.islandLoadStart[island]; l < circuit.islandLoadStart[island + 1]; l++) {
+            double V = voltages[circuit.loadNode[l]];
+            currents[circuit.loadNode[l] - start] -= V / this.calcLoadResistance(circuit, l, V);
+        }
 
+        //Diode
+        for (int d = circuit.islandDiodeStart[island]; d < circuit.islandDiodeStart[island + 1]; d++) {
+            int iIn = circuit.diodeIn[d];
+            int iOut = circuit.diodeOut[d];
+            double Id = circuit.diodeModel[d].calcId(voltages[iIn] - voltages[iOut]);
 
-                currents[columnNode.index] += input.calcId(Vd) + Vd * this.Gpn;
-            }
+            currents[iIn - start] -= Id;
+            currents[iOut - start] += Id;
         }
     }
 
-    private final void formJacobian(double[] voltages, Iterator<SEComponent> iterator) {
-        this.matrix.newMatrix(voltages.length);
-
-        while (iterator.hasNext()) {
-            SEComponent columnNode = iterator.next();
-            double diagonalElement = 0;
-
-            //Add conductance between nodes
-            Iterator<SEComponent> iteratorON = columnNode.optimizedNeighbors.iterator();
-            Iterator<Double> iteratorR = columnNode.optimizedResistance.iterator();
-            while (iteratorON.hasNext()) {
-                SEComponent neighbor = iteratorON.next();
-                int rowIndex = neighbor.index;
-                double R = iteratorR.next();
-
-                diagonalElement += 1.0D / R;
-
-                this.matrix.setElementValue(columnNode.index, rowIndex, -1.0D / R);
-            }
-
-
-            //Cable - GridNode
-            if (columnNode instanceof Cable) {
-                Cable cable = (Cable) columnNode;
-
-                if (cable.hasShuntResistance())
-                    diagonalElement += 1.0D / cable.getShuntResistance();
-
-                if (cable.connectedGridNode != null && cable.isGridLinkEnabled()) {
-                    int iCable = cable.index;
-                    int iGridNode = cable.connectedGridNode.index;
-
-                    //Diagonal element
-                    diagonalElement += 1.0D / cable.getResistance();
-
-                    //Off-diagonal elements
-                    this.matrix.setElementValue(iCable, iGridNode, -1.0D / cable.getResistance());
-                    this.matrix.setElementValue(iGridNode, iCable, -1.0D / cable.getResistance());
-                }
-            } else if (columnNode instanceof GridNode) {
-                GridNode gridNode = (GridNode) columnNode;
-
-                if (gridNode.interConnection != null && gridNode.interConnection.isGridLinkEnabled()) {
-                    diagonalElement += 1.0D / gridNode.interConnection.getResistance();
-                }
-
-                if (gridNode.type == GridNode.ISEGridNode_TransformerPrimary) {
-                    GridNode pri = gridNode;
-                    GridNode sec = pri.complement;
-                    double ratio = pri.ratio;
-                    double res = pri.resistance;
-
-                    int iPri = pri.index;
-                    int iSec = sec.index;
-
-                    //Primary diagonal element
-                    diagonalElement += ratio * ratio / res;
-
-                    //Off-diagonal elements
-                    this.matrix.setElementValue(iPri, iSec, -ratio / res);
-                    this.matrix.setElementValue(iSec, iPri, -ratio / res);
-                }
-
-                if (gridNode.type == GridNode.ISEGridNode_TransformerSecondary) {
-                    GridNode sec = gridNode;
-                    GridNode pri = sec.complement;
-                    double ratio = pri.ratio;
-                    double res = pri.resistance;
-
-                    diagonalElement += 1.0D / res;
-                }
-            }
-
-
-            //Process voltage sources and resistive loads
-            else if (columnNode instanceof VoltageSource) {
-                diagonalElement += 1.0D / ((VoltageSource) columnNode).getResistance();
-            }
-
-            //Constant power load
-            else if (columnNode instanceof ConstantPowerLoad) {
-                ConstantPowerLoad load = (ConstantPowerLoad) columnNode;
-                double V = voltages[columnNode.index];
-
-                double Rcal = V * V / load.getRatedPower();
-
-                if (Rcal > load.getMaximumResistance())
-                    Rcal = load.getMaximumResistance();
-                if (Rcal < load.getMinimumResistance())
-                    Rcal = load.getMinimumResistance();
-
-                if (load.isEnabled())
-                    diagonalElement += 1.0D / Rcal;
-            }
+    /**
+     * @param jacobian a buffer with the same size as circuit.values
+     */
+    private final void formJacobian(CompiledCircuit circuit, int island, int start, int end, double[] jacobian) {
+        double[] voltages = circuit.voltages;
+        int from = circuit.rowStart[start];
+        int to = circuit.rowStart[end];
+        System.arraycopy(circuit.values, from, jacobian, from, to - from);
+
+        //Constant power load
+        for (int l = circuit.islandLoadStart[island]; l < circuit.islandLoadStart[island + 1]; l++) {
+            double V = voltages[circuit.loadNode[l]];
+            jacobian[circuit.diagonal[circuit.loadNode[l]]] += 1.0D / this.calcLoadResistance(circuit, l, V);
+        }
 
-            //Two port networks
-            //Switch
-            else if (columnNode instanceof SwitchA) {
-                SwitchA A = (SwitchA) columnNode;
+        //Diode
+        for (int d = circuit.islandDiodeStart[island]; d < circuit.islandDiodeStart[island + 1]; d++) {
+            int iIn = circuit.diodeIn[d];
+            int iOut = circuit.diodeOut[d];
+            double Gd = circuit.diodeModel[d].calcG(voltages[iIn] - voltages[iOut]);
 
-                if (A.isOn()) {
-                    int iA = A.index;
-                    int iB = A.getComplement().index;
+            jacobian[circuit.diagonal[iIn]] += Gd;
+            jacobian[circuit.diagonal[iOut]] += Gd;
+            jacobian[circuit.diodeInOut[d]] -= Gd;
+            jacobian[circuit.diodeOutIn[d]] -= Gd;
+        }
 
-                    //Diagonal element
-                    diagonalElement += 1.0D / A.getResistance();
+        this.matrix.newMatrix(end - start);
+        for (int row = start; row < end; row++) {
+            for (int p = circuit.rowStart[row]; p < circuit.rowStart[row + 1]; p++)
+                this.matrix.setElementValue(row - start, circuit.columns[p] - start, jacobian[p]);
+        }
+        this.matrix.finishEditing();
+    }
 
-                    //Off-diagonal elements
-                    this.matrix.setElementValue(iA, iB, -1.0D / A.getResistance());
-                    this.matrix.setElementValue(iB, iA, -1.0D / A.getResistance());
-                }
-            } else if (columnNode instanceof SwitchB) {
-                //Diagonal element
-                if (((SwitchB) columnNode).isOn())
-                    diagonalElement += 1.0D / ((SwitchB) columnNode).getResistance();
-            }
+    private double calcLoadResistance(CompiledCircuit circuit, int load, double V) {
+        double Rcal = V * V / circuit.loadPower[load];
 
+        if (Rcal > circuit.loadRmax[load])
+            Rcal = circuit.loadRmax[load];
+        if (Rcal < circuit.loadRmin[load])
+            Rcal = circuit.loadRmin[load];
 
-            //Transformer
-            else if (columnNode instanceof TransformerPrimary) {
-                TransformerPrimary pri = (TransformerPrimary) columnNode;
-                int iPri = pri.index;
-                int iSec = pri.getComplement().index;
+        return Rcal;
+    }
 
-                double ratio = pri.getRatio();
-                double res = pri.getInternalResistance();
-                //Primary diagonal element
-                diagonalElement += ratio * ratio / res;
+    protected final void runSimulator(CompiledCircuit circuit) throws SimulationCancelledException {
+        double[] jacobian = new double[circuit.getTotalNonZeros()];
+        int maxIterations = 0;
 
-                //Off-diagonal elements
-                this.matrix.setElementValue(iPri, iSec, -ratio / res);
-                this.matrix.setElementValue(iSec, iPri, -ratio / res);
-            } else if (columnNode instanceof TransformerSecondary) {
-                //Secondary diagonal element
-                diagonalElement += 1.0D / ((TransformerSecondary) columnNode).getComplement().getInternalResistance();
-            }
+        this.matrixSize = circuit.size();
+        this.nonZeros = circuit.getTotalNonZeros();
+        this.islands = circuit.getIslandCount();
 
-            //Diode
-            else if (columnNode instanceof DiodeInput) {
-                DiodeInput input = (DiodeInput) columnNode;
-                DiodeOutput output = input.getComplement();
-
-                int iPri = input.index;
-                int iSec = output.index;
-                double Vd = voltages[iPri] - voltages[iSec];
-                double Gd = input.calcG(Vd) + this.Gpn;
-
-                diagonalElement += Gd;
-                this.matrix.setElementValue(iPri, iSec, -Gd);
-                this.matrix.setElementValue(iSec, iPri, -Gd);
-            } else if (columnNode instanceof DiodeOutput) {
-            	DiodeOutput output = (DiodeOutput) columnNode;
-                DiodeInput input = output.getComplement();
-
-                int iPri = input.index;
-                int iSec = output.index;
-                double Vd = voltages[iPri] - voltages[iSec];
-                double Gd = input.calcG(Vd) + this.Gpn;
-
-                diagonalElement += Gd;
-            }
+        for (int island = 0; island < circuit.getIslandCount(); island++) {
+            this.pendingIslands = circuit.getIslandCount() - island;
+            this.checkpoint();
 
-            
-            this.matrix.setElementValue(columnNode.index, columnNode.index, diagonalElement);
+            int iterations = this.solveIsland(circuit, island, jacobian);
+            if (iterations > maxIterations)
+                maxIterations = iterations;
         }
 
-        this.matrix.finishEditing();
+        this.pendingIslands = 0;
+        this.iterations = maxIterations;
+        circuit.iterations = maxIterations;
+        SELogger.logInfo(SELogger.simulator, "Simulation converges in "+ this.iterations + " iterations.");
     }
 
-    protected final void runSimulator(boolean optimizeGraph) {
-    	SEGraph circuit = dataProvider.getTEGraph();
-        if (optimizeGraph)
-        	circuit.optimizGraph();
-
-        LinkedList<SEComponent> unknownVoltageNodes = circuit.getTerminalNodes();
-
-        int matrixSize = 0;
-        Iterator<SEComponent> iterator = unknownVoltageNodes.iterator();
-        while (iterator.hasNext()) {
-            iterator.next().index = matrixSize;
-            matrixSize++;
-        }
-
-        double[] voltages = new double[matrixSize];
-        double[] currents = new double[matrixSize];
-
-        this.iterations = 0;
+    /**
+     * Newton-Raphson iteration over one island, the voltages of other islands are not touched
+     *
+     * @return number of iterations
+     */
+    private int solveIsland(CompiledCircuit circuit, int island, double[] jacobian) throws SimulationCancelledException {
+        int start = circuit.islandStart[island];
+        int end = circuit.islandStart[island + 1];
+        int size = end - start;
+        double[] voltages = circuit.voltages;
+        double[] currents = new double[size];
+
+        int iterations = 0;
         while (true) {
-            for (int i = 0; i < matrixSize; i++)
-                currents[i] = 0;
+            this.checkpoint();
+
             //Calculate the current flow into each node using their voltage
-            this.calcCurrents(voltages, currents, unknownVoltageNodes.iterator());    //Current mismatch
+            this.calcCurrents(circuit, island, start, end, currents);    //Current mismatch
 
             boolean keepGoing = false;
 
-            for (int i = 0; i < matrixSize; i++) {
+            for (int i = 0; i < size; i++) {
                 if (Math.abs(currents[i]) > this.epsilon)
                     keepGoing = true;
             }
 
 
             if (keepGoing) {
-                if (this.iterations > ConfigManager.maxIteration) {
+                if (iterations > ConfigManager.maxIteration) {
                     SELogger.logError(SELogger.simulator, "Convergence problem: Reached maximum iteration limit!");
                     break;
                 }
@@ -489,38 +362,30 @@ public class EnergyNetSimulator extends Thread {
                 break;
             }
 
-            this.formJacobian(voltages, unknownVoltageNodes.iterator());
+            this.formJacobian(circuit, island, start, end, jacobian);
 
-            String[] header = new String[unknownVoltageNodes.size()];
-            Iterator<SEComponent> it = unknownVoltageNodes.iterator();
-            while (it.hasNext()) {
-                SEComponent comp = it.next();
-                header[comp.index] = comp.toString();
-            }
-            //matrix.print(header);
             if (!this.matrix.solve(currents)) {
                 throw new RuntimeException("Due to incorrect value of components, the EnergyNet has been shutdown!");
             }
             //currents is now deltaV
 
-            //Debug.println("Iteration:", String.valueOf(iterations));
-            for (int i = 0; i < matrixSize; i++) {
+            for (int i = 0; i < size; i++) {
                 if (!Double.isNaN(currents[i]))
-                    voltages[i] += currents[i];
-                //String[] temp = unknownVoltageNodes.get(i).toString().split("[.]");
-                //Debug.println(temp[temp.length-1].split("@")[0], String.valueOf(voltages[i]));
+                    voltages[start + i] += currents[i];
             }
 
-            this.iterations++;
+            iterations++;
         }
 
+        return iterations;
+    }
 
-        //Update voltage cache
-        circuit.clearVoltageCache();
-        for (SEComponent node : unknownVoltageNodes) {
-            node.voltageCache = voltages[node.index];
+    /**
+     * Thrown at a checkpoint when a newer circuit has been submitted
+     */
+    private static final class SimulationCancelledException extends Exception {
+        private SimulationCancelledException() {
+            super(null, null, false, false);
         }
-
-        SELogger.logInfo(SELogger.simulator, "Simulation converges in "+ this.iterations + " iterations.");
     }
 }
@@ -0,0 +1,138 @@
+package simelectricity.energynet;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import simelectricity.api.ISEEnvironmentSensitive;
+
+import java.util.*;
+
+/**
+ * Updates the parameters of ISEEnvironmentSensitive tiles on behalf of them,
+ * so that they do not need to poll the world every tick.
+ */
+public class EnvironmentScheduler {
+    /**
+     * The sky exposure of every tile is checked again at least once within this period (in ticks),
+     * in case the world is modified without block updates
+     */
+    private static final int RECHECK_PERIOD = 1200;
+
+    private final World world;
+    private final List<TileEntity> tiles = new ArrayList<TileEntity>();
+    private final Set<TileEntity> tracked = new HashSet<TileEntity>();
+    //Column (x, z) -> tiles in that column
+    private final Map<Long, List<TileEntity>> columns = new HashMap<Long, List<TileEntity>>();
+    //Cached sky exposure, absent if unknown
+    private final Map<TileEntity, Boolean> skyExposure = new HashMap<TileEntity, Boolean>();
+    //Tiles need to be updated in the next tick
+    private final Set<TileEntity> dirty = new LinkedHashSet<TileEntity>();
+    private int recheckCursor;
+    private boolean isDaytime;
+
+    public EnvironmentScheduler(World world) {
+        this.world = world;
+        this.isDaytime = world.isDaytime();
+    }
+
+    private static long columnKey(BlockPos pos) {
+        return ((long) pos.getX() << 32) | (pos.getZ() & 0xFFFFFFFFL);
+    }
+
+    public void track(TileEntity te) {
+        if (!(te instanceof ISEEnvironmentSensitive) || !this.tracked.add(te))
+            return;
+
+        this.tiles.add(te);
+        long key = columnKey(te.getPos());
+        List<TileEntity> column = this.columns.get(key);
+        if (column == null) {
+            column = new LinkedList<TileEntity>();
+            this.columns.put(key, column);
+        }
+        column.add(te);
+
+        this.dirty.add(te);
+    }
+
+    public void untrack(TileEntity te) {
+        if (!this.tracked.remove(te))
+            return;
+        this.tiles.remove(te);
+
+        long key = columnKey(te.getPos());
+        List<TileEntity> column = this.columns.get(key);
+        if (column != null) {
+            column.remove(te);
+            if (column.isEmpty())
+                this.columns.remove(key);
+        }
+
+        this.skyExposure.remove(te);
+        this.dirty.remove(te);
+    }
+
+    public int size() {
+        return this.tiles.size();
+    }
+
+    /**
+     * Called when a block changes, tiles below it may have lost or gained the sky
+     */
+    public void onBlockChanged(BlockPos pos) {
+        List<TileEntity> column = this.columns.get(columnKey(pos));
+        if (column == null)
+            return;
+
+        for (TileEntity te : column) {
+            if (te.getPos().getY() < pos.getY()) {
+                this.skyExposure.remove(te);
+                this.dirty.add(te);
+            }
+        }
+    }
+
+    /**
+     * @return tiles whose parameters have been changed in this tick
+     */
+    public List<TileEntity> onPreTick() {
+        boolean isDaytime = this.world.isDaytime();
+        if (isDaytime != this.isDaytime) {
+            //Day/night transition affects all of them at once
+            this.isDaytime = isDaytime;
+            this.dirty.addAll(this.tiles);
+        }
+
+        //Spread the periodical recheck over the whole period
+        int recheck = (this.tiles.size() + RECHECK_PERIOD - 1) / RECHECK_PERIOD;
+        for (int i = 0; i < recheck; i++) {
+            if (this.recheckCursor >= this.tiles.size())
+                this.recheckCursor = 0;
+
+            TileEntity te = this.tiles.get(this.recheckCursor++);
+            this.skyExposure.remove(te);
+            this.dirty.add(te);
+        }
+
+        if (this.dirty.isEmpty())
+            return Collections.emptyList();
+
+        List<TileEntity> changed = new LinkedList<TileEntity>();
+        for (TileEntity te : this.dirty) {
+            if (te.isInvalid())
+                continue;
+
+            Boolean canSeeSky = this.skyExposure.get(te);
+            if (canSeeSky == null) {
+                canSeeSky = this.world.provider.isSurfaceWorld() && this.world.canBlockSeeSky(te.getPos().up());
+                this.skyExposure.put(te, canSeeSky);
+            }
+
+            if (((ISEEnvironmentSensitive) te).onEnvironmentUpdate(isDaytime, canSeeSky))
+                changed.add(te);
+        }
+        this.dirty.clear();
+
+        return changed;
+    }
+}
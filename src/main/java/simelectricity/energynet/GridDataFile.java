@@ -0,0 +1,706 @@
+package simelectricity.energynet;
+
+import net.minecraft.util.math.BlockPos;
+import simelectricity.common.SELogger;
+import simelectricity.energynet.components.GridNode;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Packed binary storage of the grid, in its own directory next to the world's data files.
+ * <p/>
+ * The grid is partitioned into regions of 512x512 blocks, each region is stored in its own file "r.x.z.sequence.bin"
+ * and only the regions changed since the last save are written again. Edges between two regions are kept in "edges.sequence.bin".
+ * The sequence in the name is the number of the save which wrote the file, so a save never overwrites the files of the previous one.
+ * "manifest.bin" lists the files of the latest complete save, it is written last and then the files it does not list are deleted.
+ * An interrupted save therefore leaves the previous manifest with all its files. All files are deflated and written atomically, see AtomicFile.
+ * <p/>
+ * Manifest (version 3):
+ * <pre>
+ * int magic, int version, long sequence, int regionCount, long[] regionKey, long[] regionSequence, long edgeSequence (-1 if none)
+ * </pre>
+ * Region file (version 3), arrays indexed by the node's position in the file:
+ * <pre>
+ * int magic, int version, long sequence, int nodeCount
+ * long[] pos (BlockPos.toLong), byte[] type, byte[] numOfParallelConductor
+ * int transformerCount, int[] node, long[] complementPos, double[] ratio, double[] resistance
+ * int edgeCount, int[] edgeA, int[] edgeB, double[] edgeR (edges inside the region, every edge once)
+ * </pre>
+ * Edge file (version 3):
+ * <pre>
+ * int magic, int version, long sequence, int edgeCount, long[] posA, long[] posB, double[] edgeR
+ * </pre>
+ * Versions 1 and 2 stored the whole grid in a single file, they can still be read.
+ */
+public final class GridDataFile {
+    public static final int MAGIC = 0x53454744;         //"SEGD"
+    public static final int EDGE_MAGIC = 0x53454745;    //"SEGE"
+    public static final int MANIFEST_MAGIC = 0x5345474D;    //"SEGM"
+    public static final int VERSION = 3;
+    public static final int REGION_SHIFT = 9;           //512 blocks
+    private static final String MANIFEST_FILE_NAME = "manifest.bin";
+
+    private GridDataFile() {}
+
+    public static long regionKey(BlockPos pos) {
+        return ((long) (pos.getX() >> REGION_SHIFT) << 32) | ((pos.getZ() >> REGION_SHIFT) & 0xFFFFFFFFL);
+    }
+
+    public static boolean isSameRegion(GridNode node1, GridNode node2) {
+        return regionKey(node1.getPos()) == regionKey(node2.getPos());
+    }
+
+    private static File regionFile(File dir, long region, long sequence) {
+        return new File(dir, "r." + (int) (region >> 32) + "." + (int) region + "." + sequence + ".bin");
+    }
+
+    private static File edgeFile(File dir, long sequence) {
+        return new File(dir, "edges." + sequence + ".bin");
+    }
+
+    public static boolean hasManifest(File dir) {
+        return new File(dir, MANIFEST_FILE_NAME).isFile();
+    }
+
+    ////////////////////////////////////////////////
+    /// Snapshots
+    ////////////////////////////////////////////////
+    /**
+     * A copy of one region in the file layout, it does not refer to any GridNode and can be written from another thread
+     */
+    public static final class Region {
+        public final long key;
+        final long[] pos;
+        final byte[] type;
+        final byte[] numOfParallelConductor;
+        final int[] transformer;
+        final long[] complementPos;
+        final double[] ratio;
+        final double[] resistance;
+        final int[] edgeA;
+        final int[] edgeB;
+        final double[] edgeR;
+
+        private Region(long key, int count, int transformerCount, int edgeCount) {
+            this.key = key;
+            this.pos = new long[count];
+            this.type = new byte[count];
+            this.numOfParallelConductor = new byte[count];
+            this.transformer = new int[transformerCount];
+            this.complementPos = new long[transformerCount];
+            this.ratio = new double[transformerCount];
+            this.resistance = new double[transformerCount];
+            this.edgeA = new int[edgeCount];
+            this.edgeB = new int[edgeCount];
+            this.edgeR = new double[edgeCount];
+        }
+
+        public int size() {
+            return this.pos.length;
+        }
+    }
+
+    /**
+     * Edges between regions
+     */
+    public static final class EdgeIndex {
+        final long[] posA;
+        final long[] posB;
+        final double[] edgeR;
+
+        private EdgeIndex(int edgeCount) {
+            this.posA = new long[edgeCount];
+            this.posB = new long[edgeCount];
+            this.edgeR = new double[edgeCount];
+        }
+    }
+
+    /**
+     * The changed part of the grid to be written by one save
+     */
+    public static final class Save {
+        public final long sequence;
+        //Empty regions are deleted
+        final Map<Long, Region> regions = new LinkedHashMap<Long, Region>();
+        //Null if the edges between regions have not changed
+        EdgeIndex edgeIndex;
+        //The single file of version 1 and 2, deleted once the regions are written
+        File legacyFile;
+
+        public Save(long sequence) {
+            this.sequence = sequence;
+        }
+
+        public Set<Long> getRegions() {
+            return this.regions.keySet();
+        }
+
+        public boolean hasEdgeIndex() {
+            return this.edgeIndex != null;
+        }
+
+        /**
+         * Take over the parts of an older save which have not been replaced by this one
+         */
+        public void merge(Save older) {
+            for (Region region : older.regions.values()) {
+                if (!this.regions.containsKey(region.key))
+                    this.regions.put(region.key, region);
+            }
+            if (this.edgeIndex == null)
+                this.edgeIndex = older.edgeIndex;
+            if (this.legacyFile == null)
+                this.legacyFile = older.legacyFile;
+        }
+    }
+
+    /**
+     * The files of a complete save, every region refers to the save which wrote it last
+     */
+    static final class Manifest {
+        final long sequence;
+        final Map<Long, Long> regions = new LinkedHashMap<Long, Long>();
+        long edgeSequence = -1;
+
+        Manifest(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * @return a scratch array for captureRegion(), reused if it is still large enough
+     */
+    public static int[] regionScratch(int[] scratch, SEGraph graph) {
+        if (scratch != null && scratch.length >= graph.getHighestId())
+            return scratch;
+
+        scratch = new int[Math.max(graph.getHighestId(), 64) * 2];
+        Arrays.fill(scratch, -1);
+        return scratch;
+    }
+
+    /**
+     * Copy a region into primitive arrays, must be called from the thread which modifies the graph
+     *
+     * @param gridNodes all nodes of the region, can be empty
+     * @param indexOf scratch array from regionScratch(), all -1, it is left the same way
+     */
+    public static Region captureRegion(long key, Collection<GridNode> gridNodes, SEGraph graph, int[] indexOf) {
+        int count = gridNodes.size();
+        GridNode[] nodes = gridNodes.toArray(new GridNode[count]);
+
+        //Graph id -> index in file
+        int maxDegree = 0;
+        int transformerCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (graph.containsNode(nodes[i]))
+                indexOf[nodes[i].id] = i;
+            maxDegree = Math.max(maxDegree, graph.getDegree(nodes[i]));
+            if (nodes[i].complement != null)
+                transformerCount++;
+        }
+
+        //Edges inside the region, each one is written by the endpoint with the smaller index
+        int edgeCount = 0;
+        int[] neighbors = new int[maxDegree];
+        for (int i = 0; i < count; i++) {
+            int degree = graph.copyNeighbors(nodes[i], neighbors, null);
+            for (int j = 0; j < degree; j++) {
+                if (indexOf[neighbors[j]] > i)
+                    edgeCount++;
+            }
+        }
+
+        Region region = new Region(key, count, transformerCount, edgeCount);
+        double[] neighborR = new double[maxDegree];
+        int t = 0;
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            GridNode node = nodes[i];
+            region.pos[i] = node.getPos().toLong();
+            region.type[i] = node.type;
+            region.numOfParallelConductor[i] = node.numOfParallelConductor();
+
+            if (node.complement != null) {
+                region.transformer[t] = i;
+                region.complementPos[t] = node.complement.getPos().toLong();
+                region.ratio[t] = node.ratio;
+                region.resistance[t] = node.resistance;
+                t++;
+            }
+
+            //indexOf is -1 for neighbors outside the region
+            int degree = graph.copyNeighbors(node, neighbors, neighborR);
+            for (int j = 0; j < degree; j++) {
+                int neighbor = indexOf[neighbors[j]];
+                if (neighbor > i) {
+                    region.edgeA[k] = i;
+                    region.edgeB[k] = neighbor;
+                    region.edgeR[k] = neighborR[j];
+                    k++;
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (graph.containsNode(nodes[i]))
+                indexOf[nodes[i].id] = -1;
+        }
+
+        return region;
+    }
+
+    /**
+     * Copy the edges between regions, must be called from the thread which modifies the graph
+     *
+     * @param borderNodes nodes which may have neighbors in other regions, including all that actually have
+     */
+    public static EdgeIndex captureEdgeIndex(Collection<GridNode> borderNodes, SEGraph graph) {
+        List<GridNode> from = new ArrayList<GridNode>();
+        List<GridNode> to = new ArrayList<GridNode>();
+
+        for (GridNode node : borderNodes) {
+            long pos = node.getPos().toLong();
+            for (Object neighbor : graph.getNeighbors(node)) {
+                //Written once, by the endpoint with the smaller position
+                if (neighbor instanceof GridNode && !isSameRegion(node, (GridNode) neighbor) &&
+                        pos < ((GridNode) neighbor).getPos().toLong()) {
+                    from.add(node);
+                    to.add((GridNode) neighbor);
+                }
+            }
+        }
+
+        EdgeIndex index = new EdgeIndex(from.size());
+        for (int i = 0; i < from.size(); i++) {
+            index.posA[i] = from.get(i).getPos().toLong();
+            index.posB[i] = to.get(i).getPos().toLong();
+            index.edgeR[i] = graph.getGridResistance(from.get(i), to.get(i));
+        }
+        return index;
+    }
+
+    ////////////////////////////////////////////////
+    /// Writing
+    ////////////////////////////////////////////////
+    /**
+     * Write the changed regions and the edge index to new files, then the manifest which refers to them,
+     * the files which are no longer referred to are deleted afterwards
+     */
+    public static void write(File dir, Save save) throws IOException {
+        dir.mkdirs();
+
+        Manifest previous = readManifest(dir);
+        if (previous != null && previous.sequence >= save.sequence)
+            throw new IOException("Save #" + save.sequence + " is not newer than save #" + previous.sequence + " in " + dir);
+
+        Manifest manifest = new Manifest(save.sequence);
+        if (previous != null) {
+            manifest.regions.putAll(previous.regions);
+            manifest.edgeSequence = previous.edgeSequence;
+        }
+
+        for (Region region : save.regions.values()) {
+            //Empty regions are left out, their files are deleted with the others
+            if (region.size() == 0) {
+                manifest.regions.remove(region.key);
+                continue;
+            }
+
+            AtomicFile atomicFile = new AtomicFile(regionFile(dir, region.key, save.sequence));
+            try {
+                writeRegion(atomicFile.out, region, save.sequence);
+                atomicFile.commit();
+            } finally {
+                atomicFile.close();
+            }
+            manifest.regions.put(region.key, save.sequence);
+        }
+
+        if (save.edgeIndex != null) {
+            AtomicFile atomicFile = new AtomicFile(edgeFile(dir, save.sequence));
+            try {
+                writeEdgeIndex(atomicFile.out, save.edgeIndex, save.sequence);
+                atomicFile.commit();
+            } finally {
+                atomicFile.close();
+            }
+            manifest.edgeSequence = save.sequence;
+        }
+
+        //Everything above is on the disk, the save becomes visible now
+        AtomicFile atomicFile = new AtomicFile(new File(dir, MANIFEST_FILE_NAME));
+        try {
+            writeManifest(atomicFile.out, manifest);
+            atomicFile.commit();
+        } finally {
+            atomicFile.close();
+        }
+
+        deleteUnreferenced(dir, manifest);
+
+        //Everything is in the regions now
+        if (save.legacyFile != null)
+            Files.deleteIfExists(save.legacyFile.toPath());
+    }
+
+    /**
+     * Delete the files of previous and interrupted saves
+     */
+    private static void deleteUnreferenced(File dir, Manifest manifest) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null)
+            throw new IOException("Failed to list " + dir);
+
+        Set<String> referenced = new HashSet<String>();
+        referenced.add(MANIFEST_FILE_NAME);
+        for (Map.Entry<Long, Long> entry : manifest.regions.entrySet())
+            referenced.add(regionFile(dir, entry.getKey(), entry.getValue()).getName());
+        if (manifest.edgeSequence >= 0)
+            referenced.add(edgeFile(dir, manifest.edgeSequence).getName());
+
+        for (File file : files) {
+            String name = file.getName();
+            if ((name.startsWith("r.") || name.startsWith("edges.") || name.endsWith(".tmp")) && !referenced.contains(name))
+                Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private static void writeManifest(DataOutputStream out, Manifest manifest) throws IOException {
+        out.writeInt(MANIFEST_MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(manifest.sequence);
+
+        out.writeInt(manifest.regions.size());
+        for (Long key : manifest.regions.keySet())
+            out.writeLong(key);
+        for (Long sequence : manifest.regions.values())
+            out.writeLong(sequence);
+        out.writeLong(manifest.edgeSequence);
+    }
+
+    private static void writeRegion(DataOutputStream out, Region region, long sequence) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sequence);
+
+        int count = region.size();
+        out.writeInt(count);
+        for (int i = 0; i < count; i++)
+            out.writeLong(region.pos[i]);
+        out.write(region.type);
+        out.write(region.numOfParallelConductor);
+
+        int transformerCount = region.transformer.length;
+        out.writeInt(transformerCount);
+        for (int i = 0; i < transformerCount; i++)
+            out.writeInt(region.transformer[i]);
+        for (int i = 0; i < transformerCount; i++)
+            out.writeLong(region.complementPos[i]);
+        for (int i = 0; i < transformerCount; i++)
+            out.writeDouble(region.ratio[i]);
+        for (int i = 0; i < transformerCount; i++)
+            out.writeDouble(region.resistance[i]);
+
+        int edgeCount = region.edgeA.length;
+        out.writeInt(edgeCount);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeInt(region.edgeA[i]);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeInt(region.edgeB[i]);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeDouble(region.edgeR[i]);
+    }
+
+    private static void writeEdgeIndex(DataOutputStream out, EdgeIndex index, long sequence) throws IOException {
+        int edgeCount = index.posA.length;
+        out.writeInt(EDGE_MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sequence);
+        out.writeInt(edgeCount);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeLong(index.posA[i]);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeLong(index.posB[i]);
+        for (int i = 0; i < edgeCount; i++)
+            out.writeDouble(index.edgeR[i]);
+    }
+
+    /**
+     * Data goes to a temporary file first, commit() syncs it to the disk and then renames it to the target,
+     * so the target always contains complete data, either the previous one or the new one
+     */
+    static final class AtomicFile {
+        private final File file;
+        private final File temp;
+        private final FileOutputStream fileStream;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final DeflaterOutputStream deflaterStream;
+        final DataOutputStream out;
+        private boolean closed;
+
+        AtomicFile(File file) throws IOException {
+            this.file = file;
+            this.temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            this.fileStream = new FileOutputStream(this.temp);
+            this.deflaterStream = new DeflaterOutputStream(this.fileStream, this.deflater);
+            this.out = new DataOutputStream(new BufferedOutputStream(this.deflaterStream, 65536));
+        }
+
+        void commit() throws IOException {
+            this.out.flush();
+            this.deflaterStream.finish();
+            this.fileStream.getFD().sync();
+            this.close();
+
+            try {
+                Files.move(this.temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(this.temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        void close() throws IOException {
+            if (this.closed)
+                return;
+
+            this.closed = true;
+            try {
+                this.out.close();
+            } finally {
+                this.deflater.end();
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////
+    /// Reading
+    ////////////////////////////////////////////////
+    private static DataInputStream open(File file, int magic) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file)), 65536));
+        if (in.readInt() != magic) {
+            in.close();
+            throw new IOException("Not a grid data file: " + file);
+        }
+        return in;
+    }
+
+    /**
+     * @return the manifest in the directory, null if there is none
+     */
+    static Manifest readManifest(File dir) throws IOException {
+        File file = new File(dir, MANIFEST_FILE_NAME);
+        if (!file.isFile())
+            return null;
+
+        DataInputStream in = open(file, MANIFEST_MAGIC);
+        try {
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported grid data version " + version + " in " + file);
+
+            Manifest manifest = new Manifest(in.readLong());
+            int regionCount = in.readInt();
+            long[] keys = new long[regionCount];
+            for (int i = 0; i < regionCount; i++)
+                keys[i] = in.readLong();
+            for (int i = 0; i < regionCount; i++)
+                manifest.regions.put(keys[i], in.readLong());
+            manifest.edgeSequence = in.readLong();
+            return manifest;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Check the version and the sequence of a file listed in the manifest
+     */
+    private static void checkHeader(DataInputStream in, File file, long sequence) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported grid data version " + version + " in " + file);
+
+        long fileSequence = in.readLong();
+        if (fileSequence != sequence)
+            throw new IOException(file + " is from save #" + fileSequence + ", but the manifest expects #" + sequence);
+    }
+
+    /**
+     * Read all regions listed in the manifest and the edges between them, add the nodes with their connections to the graph.
+     * A missing directory, manifest or file, or any file which does not match the manifest fails the whole load,
+     * a partial grid must not be saved over the complete one.
+     *
+     * @param gridNodeMap receives the nodes
+     * @return the sequence number of the save
+     */
+    public static long readRegions(File dir, Map<BlockPos, GridNode> gridNodeMap, SEGraph graph) throws IOException {
+        if (!dir.isDirectory())
+            throw new FileNotFoundException(dir + " does not exist");
+
+        Manifest manifest = readManifest(dir);
+        if (manifest == null)
+            throw new FileNotFoundException("No " + MANIFEST_FILE_NAME + " in " + dir);
+
+        //Complements may be in another region, they are resolved after all nodes are there
+        List<GridNode> transformers = new ArrayList<GridNode>();
+        List<BlockPos> complements = new ArrayList<BlockPos>();
+
+        for (Map.Entry<Long, Long> entry : manifest.regions.entrySet()) {
+            File file = regionFile(dir, entry.getKey(), entry.getValue());
+            DataInputStream in = open(file, MAGIC);
+            try {
+                checkHeader(in, file, entry.getValue());
+
+                int count = in.readInt();
+                long[] pos = new long[count];
+                for (int i = 0; i < count; i++)
+                    pos[i] = in.readLong();
+                byte[] type = new byte[count];
+                in.readFully(type);
+                byte[] numOfParallelConductor = new byte[count];
+                in.readFully(numOfParallelConductor);
+
+                GridNode[] nodes = new GridNode[count];
+                for (int i = 0; i < count; i++) {
+                    nodes[i] = new GridNode(BlockPos.fromLong(pos[i]), numOfParallelConductor[i]);
+                    nodes[i].type = type[i];
+                    if (regionKey(nodes[i].getPos()) != entry.getKey() || gridNodeMap.containsKey(nodes[i].getPos()))
+                        throw new IOException(file + " contains a GridNode at " + nodes[i].getPos() + " which does not belong there");
+                    graph.addVertex(nodes[i]);
+                    gridNodeMap.put(nodes[i].getPos(), nodes[i]);
+                }
+
+                int transformerCount = in.readInt();
+                int[] transformer = new int[transformerCount];
+                for (int i = 0; i < transformerCount; i++)
+                    transformer[i] = in.readInt();
+                for (int i = 0; i < transformerCount; i++) {
+                    transformers.add(nodes[transformer[i]]);
+                    complements.add(BlockPos.fromLong(in.readLong()));
+                }
+                for (int i = 0; i < transformerCount; i++)
+                    nodes[transformer[i]].ratio = in.readDouble();
+                for (int i = 0; i < transformerCount; i++)
+                    nodes[transformer[i]].resistance = in.readDouble();
+
+                int edgeCount = in.readInt();
+                int[] edgeA = new int[edgeCount];
+                int[] edgeB = new int[edgeCount];
+                for (int i = 0; i < edgeCount; i++)
+                    edgeA[i] = in.readInt();
+                for (int i = 0; i < edgeCount; i++)
+                    edgeB[i] = in.readInt();
+                for (int i = 0; i < edgeCount; i++)
+                    graph.addGridEdge(nodes[edgeA[i]], nodes[edgeB[i]], in.readDouble());
+            } finally {
+                in.close();
+            }
+        }
+
+        for (int i = 0; i < transformers.size(); i++) {
+            GridNode complement = gridNodeMap.get(complements.get(i));
+            if (complement == null)
+                throw new IOException("The complement of the transformer at " + transformers.get(i).getPos() + " is missing in " + dir);
+            transformers.get(i).complement = complement;
+            graph.joinComplement(transformers.get(i));
+        }
+
+        if (manifest.edgeSequence < 0)
+            return manifest.sequence;
+
+        File edgeFile = edgeFile(dir, manifest.edgeSequence);
+        DataInputStream in = open(edgeFile, EDGE_MAGIC);
+        try {
+            checkHeader(in, edgeFile, manifest.edgeSequence);
+
+            int edgeCount = in.readInt();
+            long[] posA = new long[edgeCount];
+            long[] posB = new long[edgeCount];
+            for (int i = 0; i < edgeCount; i++)
+                posA[i] = in.readLong();
+            for (int i = 0; i < edgeCount; i++)
+                posB[i] = in.readLong();
+
+            for (int i = 0; i < edgeCount; i++) {
+                double r = in.readDouble();
+                GridNode node1 = gridNodeMap.get(BlockPos.fromLong(posA[i]));
+                GridNode node2 = gridNodeMap.get(BlockPos.fromLong(posB[i]));
+                if (node1 == null || node2 == null)
+                    throw new IOException(edgeFile + " refers to a missing GridNode, " + BlockPos.fromLong(posA[i]) + " - " + BlockPos.fromLong(posB[i]));
+                graph.addGridEdge(node1, node2, r);
+            }
+        } finally {
+            in.close();
+        }
+
+        return manifest.sequence;
+    }
+
+    /**
+     * Read the single file of version 1 and 2, add the nodes with their connections to the graph
+     *
+     * @param sequence the sequence number recorded in the world's NBT, -1 if unknown
+     */
+    public static GridNode[] readLegacy(File file, long sequence, SEGraph graph) throws IOException {
+        DataInputStream in = open(file, MAGIC);
+        try {
+            int version = in.readInt();
+            if (version < 1 || version > 2)
+                throw new IOException("Unsupported grid data version " + version + " in " + file);
+            if (version >= 2) {
+                long fileSequence = in.readLong();
+                if (sequence >= 0 && fileSequence != sequence)
+                    SELogger.logWarn(SELogger.energyNet, file + " is from save #" + fileSequence + ", but the world expects #" + sequence +
+                            ", the last save was probably interrupted");
+            }
+
+            int count = in.readInt();
+            long[] pos = new long[count];
+            for (int i = 0; i < count; i++)
+                pos[i] = in.readLong();
+            byte[] type = new byte[count];
+            in.readFully(type);
+            byte[] numOfParallelConductor = new byte[count];
+            in.readFully(numOfParallelConductor);
+
+            GridNode[] nodes = new GridNode[count];
+            for (int i = 0; i < count; i++) {
+                nodes[i] = new GridNode(BlockPos.fromLong(pos[i]), numOfParallelConductor[i]);
+                nodes[i].type = type[i];
+                graph.addVertex(nodes[i]);
+            }
+
+            for (int i = 0; i < count; i++) {
+                int complement = in.readInt();
+                nodes[i].complement = complement < 0 ? null : nodes[complement];
+                graph.joinComplement(nodes[i]);
+            }
+            for (int i = 0; i < count; i++)
+                nodes[i].ratio = in.readDouble();
+            for (int i = 0; i < count; i++)
+                nodes[i].resistance = in.readDouble();
+
+            int edgeCount = in.readInt();
+            int[] edgeA = new int[edgeCount];
+            int[] edgeB = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++)
+                edgeA[i] = in.readInt();
+            for (int i = 0; i < edgeCount; i++)
+                edgeB[i] = in.readInt();
+            for (int i = 0; i < edgeCount; i++)
+                graph.addGridEdge(nodes[edgeA[i]], nodes[edgeB[i]], in.readDouble());
+
+            return nodes;
+        } finally {
+            in.close();
+        }
+    }
+}
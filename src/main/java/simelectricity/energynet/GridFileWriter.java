@@ -0,0 +1,148 @@
+package simelectricity.energynet;
+
+import simelectricity.common.SELogger;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes grid snapshots to the disk in its own thread, so the world save does not wait for the serialization and the I/O
+ * <p/>
+ * A save which has not been written yet is merged into the next one, regions are only written in their latest state.
+ */
+public class GridFileWriter extends Thread {
+    private final File dir;
+    private volatile boolean suicide;
+    private GridDataFile.Save pending;            //Guarded by this
+    private GridDataFile.Save failed;             //Guarded by this
+    private boolean processing;                    //Guarded by this
+    private volatile long duration;                //Time taken for the latest write, in milliseconds
+    private volatile long writtenSequence = -1;    //Sequence number of the latest save which is completely on the disk
+
+    protected GridFileWriter(String name, File dir) {
+        this.setName(name);
+        this.dir = dir;
+    }
+
+    public long getTimeConsumption() {
+        return this.duration;
+    }
+
+    /**
+     * @return the sequence number of the latest save whose files are all on the disk, -1 if none yet
+     */
+    public long getWrittenSequence() {
+        return this.writtenSequence;
+    }
+
+    public void submit(GridDataFile.Save save) {
+        synchronized (this) {
+            if (this.pending != null)
+                save.merge(this.pending);
+            this.pending = save;
+            this.notifyAll();
+        }
+
+        if (!this.isAlive())
+            this.start();
+    }
+
+    /**
+     * @return the parts of failed saves, they have to be captured again in the next save, null if none
+     */
+    public synchronized GridDataFile.Save takeFailed() {
+        GridDataFile.Save ret = this.failed;
+        this.failed = null;
+        return ret;
+    }
+
+    /**
+     * @return true if a save has failed and has not been taken by takeFailed() yet
+     */
+    public synchronized boolean hasFailed() {
+        return this.failed != null;
+    }
+
+    /**
+     * Block until the given save is on the disk, or the writer has given up on it
+     *
+     * @return true if the save has been written
+     */
+    public boolean waitFor(long sequence) {
+        synchronized (this) {
+            while (this.writtenSequence < sequence && (this.pending != null || this.processing) && this.isAlive()) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+
+        return this.writtenSequence >= sequence;
+    }
+
+    /**
+     * Block until the pending snapshot (if any) is on the disk, then stop the thread
+     */
+    public void finish() {
+        synchronized (this) {
+            while ((this.pending != null || this.processing) && this.isAlive()) {
+                try {
+                    this.wait();
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+
+        this.suicide = true;
+        this.interrupt();
+    }
+
+    @Override
+    public void run() {
+        GridDataFile.Save save;
+
+        while (true) {
+            try {
+                synchronized (this) {
+                    while (this.pending == null)
+                        this.wait();
+                    save = this.pending;
+                    this.pending = null;
+                    this.processing = true;
+                }
+
+                long startAt = System.currentTimeMillis();
+                boolean success = true;
+                try {
+                    GridDataFile.write(this.dir, save);
+                } catch (IOException e) {
+                    SELogger.logError(SELogger.energyNet, "Failed to save the grid to " + this.dir + ": " + e);
+                    success = false;
+                }
+                this.duration = System.currentTimeMillis() - startAt;
+                if (success)
+                    this.writtenSequence = save.sequence;
+
+                synchronized (this) {
+                    if (!success) {
+                        if (this.failed != null)
+                            save.merge(this.failed);
+                        this.failed = save;
+                    }
+                    this.processing = false;
+                    this.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                if (this.suicide) {
+                    SELogger.logInfo(SELogger.general, this.getName() + " is shutting down");
+                    return;
+                }
+
+                e.printStackTrace();
+            }
+        }
+    }
+}
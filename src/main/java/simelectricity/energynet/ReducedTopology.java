@@ -0,0 +1,47 @@
+package simelectricity.energynet;
+
+import simelectricity.energynet.components.SEComponent;
+
+/**
+ * The result of the topology reduction, immutable
+ * <p/>
+ * Chains of wires (cables and transmission lines) between terminal nodes are contracted into a single resistance,
+ * only terminal nodes have unknown voltages. Parameters other than wire resistances are not part of the topology,
+ * they are read when the circuit is compiled.
+ */
+public final class ReducedTopology {
+    public final int version;
+
+    //SubComponents, Cable/TransmissionLine with more than 2 connections, Interconnection terminals
+    final SEComponent[] terminals;
+    //Reduced edges of terminal k, parallel paths are already combined.
+    //Rows of terminals which did not change are shared with the previous topology, they must not be modified
+    final int[][] edgeTo;
+    final double[][] edgeR;
+
+    //Wires removed by the reduction, A and B are the terminals at both ends of the chain (-1 if not exist)
+    final SEComponent[] eliminated;
+    final int[] eliminatedA, eliminatedB;
+    final double[] eliminatedRA, eliminatedRB;
+
+    ReducedTopology(int version, SEComponent[] terminals, int[][] edgeTo, double[][] edgeR,
+                    SEComponent[] eliminated, int[] eliminatedA, int[] eliminatedB, double[] eliminatedRA, double[] eliminatedRB) {
+        this.version = version;
+        this.terminals = terminals;
+        this.edgeTo = edgeTo;
+        this.edgeR = edgeR;
+        this.eliminated = eliminated;
+        this.eliminatedA = eliminatedA;
+        this.eliminatedB = eliminatedB;
+        this.eliminatedRA = eliminatedRA;
+        this.eliminatedRB = eliminatedRB;
+    }
+
+    public int getTerminalCount() {
+        return this.terminals.length;
+    }
+
+    public int getEliminatedCount() {
+        return this.eliminated.length;
+    }
+}
@@ -1,38 +1,84 @@
 package simelectricity.energynet;
 
+import simelectricity.api.node.ISESubComponent;
 import simelectricity.energynet.components.Cable;
 import simelectricity.energynet.components.GridNode;
 import simelectricity.energynet.components.SEComponent;
 
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.LinkedList;
 
 /**
- * Unweighed graph, using Adjacency lists (SEComponent.neighbors)
+ * Unweighed graph (except edges between GridNodes), stored by node id
+ * <p/>
+ * Every node in the graph has an int id (SEComponent.id) and a reference to the graph, membership tests are O(1).
+ * The adjacency of node i is stored in adjacency[i][0 .. degree[i]), ordered by the time the edges were added.
+ * The resistances of the edges between GridNodes are kept in a separate edge table, an open addressing hash table
+ * keyed by both node ids with the resistances in a parallel column, so the resistance of an edge is found in O(1).
+ * <p/>
+ * Nodes whose adjacency or terminal state have changed since the last snapshot are marked as dirty,
+ * so the TopologyReducer only has to re-contract the changed region.
+ * <p/>
+ * The graph also maintains a connectivity index: nodes connected by edges, Cable-GridNode interconnections or
+ * two-port components (e.g. transformers, switches, see complementOf()) share an island, every island is solved as one unit.
+ * Insertions are unions of island labels, a removal searches from both ends of the removed edge
+ * at the same time and relabels the smaller side if they are no longer connected.
+ * Labels are internal, each root label carries the public id of its island, which is never reused.
  */
 public class SEGraph {
-    // A list of pointers to registered components and cables
-    private final LinkedList<SEComponent> components;
-    private final LinkedList<SEComponent> wires;
-
-    private final LinkedList<SEComponent> terminalNodes;
+    private static final int[] NO_NEIGHBOR = new int[0];
+
+    //Indexed by node id
+    private SEComponent[] nodes = new SEComponent[64];
+    private int[][] adjacency = new int[64][];
+    private int[] degree = new int[64];
+
+    //Edge table of the grid, indexed by slot, see edgeSlot()
+    private long[] gridEdgeKey = SEGraph.newEdgeTable(64);
+    private double[] gridEdgeR = new double[64];
+    private int gridEdgeCount;
+
+    //Ids below this have been allocated once, freed ids are reused first
+    private int highestId;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+
+    private int componentCount, wireCount;
+
+    //Nodes changed since the last snapshot
+    private boolean[] dirty = new boolean[64];
+    private int[] dirtyIds = new int[64];
+    private int dirtyCount;
+    //Nodes which have been replaced by an equivalent object since the last snapshot, their structure is unchanged
+    private int[] swappedIds = new int[16];
+    private int swappedCount;
+
+    //Connectivity index, island label of each node id, labels are merged by union-find
+    private int[] label = new int[64];
+    private int[] labelParent = new int[64];
+    private int[] labelSize = new int[64];    //Number of nodes, only valid for root labels
+    private int[] labelIsland = new int[64];    //Public island id, only valid for root labels
+    private int labelCount;
+    private int nextIslandId;
+    private int islandCount;
+    private int merges, splits;
+    //Bidirectional search for splits
+    private int[] searchMark = new int[64];
+    private int searchStamp;
+    private int[] queueA = new int[64], queueB = new int[64];
 
     public SEGraph() {
-        this.components = new LinkedList<SEComponent>();
-        this.wires = new LinkedList<SEComponent>();
-
-        this.terminalNodes = new LinkedList<SEComponent>();
     }
 
     ////////////////////////////////////////////////
-    ///Optimizer
+    ///Topology reduction
     ////////////////////////////////////////////////
     private static boolean isWire(SEComponent node) {
         return node instanceof Cable || node instanceof GridNode;
     }
 
-    private static boolean shouldCalcVoltage(SEComponent node) {
-        if (node.neighbors.size() > 2)                //A node has more than 2 connections
+    private boolean shouldCalcVoltage(SEComponent node) {
+        if (this.degree[node.id] > 2)                //A node has more than 2 connections
             return true;
         if (SEGraph.isInterconnectionTerminal(node))        //A interconnection terminal
             return true;
@@ -82,23 +128,63 @@ public class SEGraph {
      * @return total number of registered tiles (the number of nodes)
      */
     public int size() {
-        return this.components.size() + this.wires.size();
+        return this.componentCount + this.wireCount;
     }
 
     public boolean containsNode(SEComponent node) {
-        if (this.components.contains(node))
-            return true;
-        else return this.wires.contains(node);
+        return node.graph == this;
+    }
+
+    /**
+     * @return an upper bound (exclusive) of the node ids
+     */
+    public int getHighestId() {
+        return this.highestId;
     }
 
     /**
      * Add an EnergyTiles/GridNode into the graph
      */
     public void addVertex(SEComponent node) {
+        if (this.containsNode(node))
+            return;
+
+        int id;
+        if (this.freeCount > 0) {
+            id = this.freeIds[--this.freeCount];
+        } else {
+            id = this.highestId++;
+            if (id == this.nodes.length) {
+                int capacity = id * 2;
+                this.nodes = Arrays.copyOf(this.nodes, capacity);
+                this.adjacency = Arrays.copyOf(this.adjacency, capacity);
+                this.degree = Arrays.copyOf(this.degree, capacity);
+                this.dirty = Arrays.copyOf(this.dirty, capacity);
+                this.label = Arrays.copyOf(this.label, capacity);
+                this.searchMark = Arrays.copyOf(this.searchMark, capacity);
+            }
+        }
+
+        //Allocate the label first, it may relabel all registered nodes
+        int island = this.newLabel(1);
+        this.nodes[id] = node;
+        this.adjacency[id] = NO_NEIGHBOR;
+        this.degree[id] = 0;
+        node.id = id;
+        node.graph = this;
+        this.markDirty(id);
+        this.label[id] = island;
+        this.islandCount++;
+
+        //The other side of a two-port component may have been added already
+        SEComponent complement = SEGraph.complementOf(node);
+        if (complement != null && this.containsNode(complement))
+            this.union(id, complement.id);
+
         if (SEGraph.isWire(node))
-            this.wires.addLast(node);
+            this.wireCount++;
         else
-            this.components.addLast(node);
+            this.componentCount++;
 
         node.isValid = true;
     }
@@ -109,10 +195,70 @@ public class SEGraph {
     public void removeVertex(SEComponent node) {        
         //Mark as dead
         node.isValid = false;
+        if (!this.containsNode(node))
+            return;
+
     	isolateVertex(node);
-        (SEGraph.isWire(node) ? this.wires : this.components).remove(node);
+    	this.freeVertex(node);
     }
-    
+
+    private void freeVertex(SEComponent node) {
+        int id = node.id;
+        this.markDirty(id);
+
+        int island = this.islandOf(id);
+        if (--this.labelSize[island] == 0)
+            this.islandCount--;
+        this.nodes[id] = null;
+        this.adjacency[id] = null;
+        this.degree[id] = 0;
+
+        if (this.freeCount == this.freeIds.length)
+            this.freeIds = Arrays.copyOf(this.freeIds, this.freeCount * 2);
+        this.freeIds[this.freeCount++] = id;
+
+        if (SEGraph.isWire(node))
+            this.wireCount--;
+        else
+            this.componentCount--;
+
+        node.id = -1;
+        node.graph = null;
+    }
+
+    /**
+     * Let another object of the same class take over a vertex, its edges, island and interconnection,
+     * e.g. when a frozen tile is loaded again. The structure stays the same, so nothing is marked as dirty.
+     *
+     * @return false if the replacement is not possible
+     */
+    public boolean replaceVertex(SEComponent node, SEComponent replacement) {
+        if (!this.containsNode(node) || this.containsNode(replacement) || node.getClass() != replacement.getClass())
+            return false;
+
+        int id = node.id;
+        this.nodes[id] = replacement;
+        replacement.id = id;
+        replacement.graph = this;
+        replacement.isValid = true;
+        node.id = -1;
+        node.graph = null;
+        node.isValid = false;
+
+        if (node instanceof Cable) {
+            GridNode gridNode = ((Cable) node).connectedGridNode;
+            ((Cable) node).connectedGridNode = null;
+            ((Cable) replacement).connectedGridNode = gridNode;
+            if (gridNode != null)
+                gridNode.interConnection = (Cable) replacement;
+        }
+
+        if (this.swappedCount == this.swappedIds.length)
+            this.swappedIds = Arrays.copyOf(this.swappedIds, this.swappedCount * 2);
+        this.swappedIds[this.swappedCount++] = id;
+        return true;
+    }
+
     /**
      * Remove all connection to the node
      */
@@ -121,14 +267,240 @@ public class SEGraph {
         if (node instanceof Cable)
             this.breakInterconnection((Cable) node);
 
-        //Remove this node from its neighbor list
-        for (SEComponent neighbor : node.neighbors) {
-            LinkedList<SEComponent> list = neighbor.neighbors;
-            if (list.contains(node))
-                list.remove(node);
+        if (!this.containsNode(node))
+            return;
+
+        //Remove this node from its neighbor list, one edge at a time so that the islands can be split
+        int id = node.id;
+        while (this.degree[id] > 0)
+            this.unlink(id, this.adjacency[id][this.degree[id] - 1]);
+        this.markDirty(id);
+    }
+
+    ////////////////////////////////////////////////
+    /// Adjacency storage
+    ////////////////////////////////////////////////
+    private void markDirty(int id) {
+        if (this.dirty[id])
+            return;
+
+        this.dirty[id] = true;
+        if (this.dirtyCount == this.dirtyIds.length)
+            this.dirtyIds = Arrays.copyOf(this.dirtyIds, this.dirtyCount * 2);
+        this.dirtyIds[this.dirtyCount++] = id;
+    }
+
+    private void markDirty(SEComponent node) {
+        if (node != null && this.containsNode(node))
+            this.markDirty(node.id);
+    }
+
+    /**
+     * @return the position of "to" in the adjacency of "from", -1 if not exist
+     */
+    private int findEntry(int from, int to) {
+        int[] neighbors = this.adjacency[from];
+        for (int i = 0; i < this.degree[from]; i++) {
+            if (neighbors[i] == to)
+                return i;
         }
+        return -1;
+    }
 
-        node.neighbors.clear();
+    private void appendEntry(int from, int to) {
+        int n = this.degree[from];
+        if (n == this.adjacency[from].length)
+            this.adjacency[from] = Arrays.copyOf(this.adjacency[from], Math.max(2, n * 2));
+
+        this.adjacency[from][n] = to;
+        this.degree[from] = n + 1;
+        this.markDirty(from);
+    }
+
+    /**
+     * Remove "to" from the adjacency of "from", the order of the remaining edges is kept
+     */
+    private void removeEntry(int from, int to) {
+        int i = this.findEntry(from, to);
+        if (i < 0)
+            return;
+
+        System.arraycopy(this.adjacency[from], i + 1, this.adjacency[from], i, this.degree[from] - i - 1);
+        this.degree[from]--;
+        this.markDirty(from);
+    }
+
+    /**
+     * Remove the edge between a and b in both directions, including its resistance, and update the islands
+     */
+    private void unlink(int a, int b) {
+        this.removeEntry(a, b);
+        this.removeEntry(b, a);
+        if (this.nodes[a] instanceof GridNode && this.nodes[b] instanceof GridNode)
+            this.removeGridR(a, b);
+        this.checkSplit(a, b);
+    }
+
+    ////////////////////////////////////////////////
+    /// Grid edge table
+    ////////////////////////////////////////////////
+    private static final long NO_EDGE = -1;
+
+    private static long[] newEdgeTable(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, NO_EDGE);
+        return keys;
+    }
+
+    private static long edgeKey(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    //Ids are small and dense, all bits have to be mixed (MurmurHash3 finalizer)
+    private static int edgeHash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * @return the slot holding the key, or the empty slot where it would be inserted
+     */
+    private int edgeSlot(long key) {
+        int mask = this.gridEdgeKey.length - 1;
+        int slot = SEGraph.edgeHash(key) & mask;
+        while (this.gridEdgeKey[slot] != NO_EDGE && this.gridEdgeKey[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private double getGridR(int a, int b) {
+        int slot = this.edgeSlot(SEGraph.edgeKey(a, b));
+        return this.gridEdgeKey[slot] == NO_EDGE ? Double.NaN : this.gridEdgeR[slot];
+    }
+
+    private void putGridR(int a, int b, double resistance) {
+        //Keep the load factor below 1/2
+        if ((this.gridEdgeCount + 1) * 2 > this.gridEdgeKey.length) {
+            long[] keys = this.gridEdgeKey;
+            double[] values = this.gridEdgeR;
+            this.gridEdgeKey = SEGraph.newEdgeTable(keys.length * 2);
+            this.gridEdgeR = new double[keys.length * 2];
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != NO_EDGE) {
+                    int slot = this.edgeSlot(keys[i]);
+                    this.gridEdgeKey[slot] = keys[i];
+                    this.gridEdgeR[slot] = values[i];
+                }
+            }
+        }
+
+        long key = SEGraph.edgeKey(a, b);
+        int slot = this.edgeSlot(key);
+        if (this.gridEdgeKey[slot] == NO_EDGE) {
+            this.gridEdgeKey[slot] = key;
+            this.gridEdgeCount++;
+        }
+        this.gridEdgeR[slot] = resistance;
+    }
+
+    private void removeGridR(int a, int b) {
+        int hole = this.edgeSlot(SEGraph.edgeKey(a, b));
+        if (this.gridEdgeKey[hole] == NO_EDGE)
+            return;
+
+        //Shift the following entries of the probe sequence back, so no tombstone is needed
+        int mask = this.gridEdgeKey.length - 1;
+        int next = (hole + 1) & mask;
+        while (this.gridEdgeKey[next] != NO_EDGE) {
+            int home = SEGraph.edgeHash(this.gridEdgeKey[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.gridEdgeKey[hole] = this.gridEdgeKey[next];
+                this.gridEdgeR[hole] = this.gridEdgeR[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        this.gridEdgeKey[hole] = NO_EDGE;
+        this.gridEdgeCount--;
+    }
+
+    public int getDegree(SEComponent node) {
+        return this.containsNode(node) ? this.degree[node.id] : 0;
+    }
+
+    /**
+     * @return neighbors of the node, in the order they were connected
+     */
+    public SEComponent[] getNeighbors(SEComponent node) {
+        if (!this.containsNode(node))
+            return new SEComponent[0];
+
+        int id = node.id;
+        SEComponent[] ret = new SEComponent[this.degree[id]];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = this.nodes[this.adjacency[id][i]];
+        return ret;
+    }
+
+    /**
+     * @return GridNode neighbors of a GridNode, the interconnected cable is not included
+     */
+    public GridNode[] getGridNeighbors(GridNode node) {
+        if (!this.containsNode(node))
+            return new GridNode[0];
+
+        int id = node.id;
+        int count = 0;
+        for (int i = 0; i < this.degree[id]; i++) {
+            if (this.nodes[this.adjacency[id][i]] instanceof GridNode)
+                count++;
+        }
+
+        GridNode[] ret = new GridNode[count];
+        count = 0;
+        for (int i = 0; i < this.degree[id]; i++) {
+            SEComponent neighbor = this.nodes[this.adjacency[id][i]];
+            if (neighbor instanceof GridNode)
+                ret[count++] = (GridNode) neighbor;
+        }
+        return ret;
+    }
+
+    /**
+     * Copy the neighbors of a node without allocating, ids and gridR must be able to hold getDegree(node) entries
+     *
+     * @param ids receives the node ids of the neighbors
+     * @param gridR receives the resistances of grid edges, NaN for other edges, can be null
+     * @return the number of neighbors
+     */
+    public int copyNeighbors(SEComponent node, int[] ids, double[] gridR) {
+        if (!this.containsNode(node))
+            return 0;
+
+        int id = node.id;
+        int degree = this.degree[id];
+        System.arraycopy(this.adjacency[id], 0, ids, 0, degree);
+        if (gridR != null) {
+            for (int i = 0; i < degree; i++)
+                gridR[i] = node instanceof GridNode && this.nodes[ids[i]] instanceof GridNode ? this.getGridR(id, ids[i]) : Double.NaN;
+        }
+        return degree;
+    }
+
+    /**
+     * @return resistance between two connected GridNodes, NaN if they are not connected, O(1)
+     */
+    public double getGridResistance(GridNode node, GridNode neighbor) {
+        if (!this.containsNode(node) || !this.containsNode(neighbor))
+            return Double.NaN;
+
+        return this.getGridR(node.id, neighbor.id);
     }
 
     /**
@@ -141,11 +513,13 @@ public class SEGraph {
         if (!this.containsNode(neighbor))
             return;
 
-        if (!node.neighbors.contains(neighbor))
-            node.neighbors.addLast(neighbor);
+        if (this.findEntry(node.id, neighbor.id) < 0)
+            this.appendEntry(node.id, neighbor.id);
+
+        if (this.findEntry(neighbor.id, node.id) < 0)
+            this.appendEntry(neighbor.id, node.id);
 
-        if (!neighbor.neighbors.contains(node))
-            neighbor.neighbors.addLast(node);
+        this.union(node.id, neighbor.id);
     }
 
     /**
@@ -158,11 +532,7 @@ public class SEGraph {
         if (!this.containsNode(neighbor))
             return;
 
-        if (neighbor.neighbors.contains(neighbor))
-            neighbor.neighbors.remove(neighbor);
-
-        if (neighbor.neighbors.contains(node))
-            neighbor.neighbors.remove(node);
+        this.unlink(node.id, neighbor.id);
     }
 
     //////////////////////////
@@ -175,16 +545,15 @@ public class SEGraph {
         if (!this.containsNode(node2))
             return;
 
-        if (!node1.neighbors.contains(node2)) {
-            node1.neighbors.addLast(node2);
-            node1.neighborR.addLast(resistance);
-        }
+        //An existing edge keeps its resistance
+        if (this.gridEdgeKey[this.edgeSlot(SEGraph.edgeKey(node1.id, node2.id))] != NO_EDGE)
+            return;
 
+        this.putGridR(node1.id, node2.id, resistance);
+        this.appendEntry(node1.id, node2.id);
+        this.appendEntry(node2.id, node1.id);
 
-        if (!node2.neighbors.contains(node1)) {
-            node2.neighbors.addLast(node1);
-            node2.neighborR.addLast(resistance);
-        }
+        this.union(node1.id, node2.id);
     }
 
     public LinkedList<GridNode> removeGridVertex(GridNode gridNode) {
@@ -200,79 +569,298 @@ public class SEGraph {
         LinkedList<GridNode> ret = new LinkedList<GridNode>();
 
         //Delete resistance properties of GridNodes
-        for (SEComponent neighbor : gridNode.neighbors) {
-            if (neighbor instanceof GridNode) {
-                Iterator<SEComponent> iterator1 = neighbor.neighbors.iterator();
-                Iterator<Double> iterator2 = ((GridNode) neighbor).neighborR.iterator();
-
-                deleteInfoFromNeighbor:
-                while (iterator1.hasNext()) {
-                    SEComponent seComponent = iterator1.next();
-                    if (seComponent instanceof GridNode) {
-                        iterator2.next();
-                        if (seComponent == gridNode) {
-                            iterator2.remove();
-                            iterator1.remove();
-                            break deleteInfoFromNeighbor;
-                        }
-                    }
-                }
-
-                ret.add((GridNode) neighbor);
-            }
+        int id = gridNode.id;
+        for (int i = 0; i < this.degree[id]; i++) {
+            int neighbor = this.adjacency[id][i];
+            if (this.nodes[neighbor] instanceof GridNode)
+                ret.add((GridNode) this.nodes[neighbor]);
         }
 
-        gridNode.neighbors.clear();
-        gridNode.neighborR.clear();
-        (SEGraph.isWire(gridNode) ? this.wires : this.components).remove(gridNode);
+        while (this.degree[id] > 0)
+            this.unlink(id, this.adjacency[id][this.degree[id] - 1]);
+
+        this.freeVertex(gridNode);
 
         return ret;
     }
 
     public void removeGridEdge(GridNode node1, GridNode node2) {
-        Iterator<SEComponent> iterator1 = node1.neighbors.iterator();
-        Iterator<Double> iterator2 = node1.neighborR.iterator();
-        deleteInfoFromNeighbor:
-        while (iterator1.hasNext()) {
-            iterator2.next();
-            if (iterator1.next() == node2) {
-                iterator2.remove();
-                iterator1.remove();
-                break deleteInfoFromNeighbor;
-            }
-        }
+        if (!this.containsNode(node1))
+            return;
 
-        iterator1 = node2.neighbors.iterator();
-        iterator2 = node2.neighborR.iterator();
-        deleteInfoFromNeighbor:
-        while (iterator1.hasNext()) {
-            iterator2.next();
-            if (iterator1.next() == node1) {
-                iterator2.remove();
-                iterator1.remove();
-                break deleteInfoFromNeighbor;
-            }
-        }
+        if (!this.containsNode(node2))
+            return;
+
+        this.unlink(node1.id, node2.id);
     }
 
     ///////////////////////////////////
     /// Grid - Cable interconnection
     ///////////////////////////////////
-    public static void interconnection(Cable cable, GridNode gridNode) {
+    public void interconnection(Cable cable, GridNode gridNode) {
         gridNode.interConnection = cable;
         cable.connectedGridNode = gridNode;
+        this.markDirty(cable);
+        this.markDirty(gridNode);
+
+        if (this.containsNode(cable) && this.containsNode(gridNode))
+            this.union(cable.id, gridNode.id);
     }
 
-    private static void breakInterconnection(Cable cable) {
-        if (cable.connectedGridNode != null)
-            cable.connectedGridNode.interConnection = null;
+    private void breakInterconnection(Cable cable) {
+        GridNode gridNode = cable.connectedGridNode;
+        this.markDirty(cable);
+        this.markDirty(gridNode);
+        if (gridNode != null)
+            gridNode.interConnection = null;
         cable.connectedGridNode = null;
+
+        if (gridNode != null && this.containsNode(cable) && this.containsNode(gridNode))
+            this.checkSplit(cable.id, gridNode.id);
     }
 
-    private static void breakInterconnection(GridNode gridNode) {
-        if (gridNode.interConnection != null)
-            gridNode.interConnection.connectedGridNode = null;
+    private void breakInterconnection(GridNode gridNode) {
+        Cable cable = gridNode.interConnection;
+        this.markDirty(gridNode);
+        this.markDirty(cable);
+        if (cable != null)
+            cable.connectedGridNode = null;
         gridNode.interConnection = null;
+
+        if (cable != null && this.containsNode(cable) && this.containsNode(gridNode))
+            this.checkSplit(cable.id, gridNode.id);
+    }
+
+    ///////////////////////////////////
+    /// Connectivity index
+    ///////////////////////////////////
+    /**
+     * @return id of the island the node belongs to, -1 if the node is not in this graph.
+     * The id stays the same until the island is merged with another one or split, ids are never reused
+     */
+    public int getIslandId(SEComponent node) {
+        return this.containsNode(node) ? this.labelIsland[this.islandOf(node.id)] : -1;
+    }
+
+    public int getIslandSize(SEComponent node) {
+        return this.containsNode(node) ? this.labelSize[this.islandOf(node.id)] : 0;
+    }
+
+    public int getIslandCount() {
+        return this.islandCount;
+    }
+
+    /**
+     * @return number of island merges since the graph was created
+     */
+    public int getIslandMerges() {
+        return this.merges;
+    }
+
+    /**
+     * @return number of island splits since the graph was created
+     */
+    public int getIslandSplits() {
+        return this.splits;
+    }
+
+    private int newLabel(int size) {
+        if (this.labelCount == this.labelParent.length) {
+            //Labels merged into others are never reused, relabel the whole graph once they pile up, the island ids are kept
+            if (this.labelCount > 2 * this.size() + 64) {
+                this.compactLabels();
+            }
+
+            if (this.labelCount == this.labelParent.length) {
+                this.labelParent = Arrays.copyOf(this.labelParent, this.labelCount * 2);
+                this.labelSize = Arrays.copyOf(this.labelSize, this.labelCount * 2);
+                this.labelIsland = Arrays.copyOf(this.labelIsland, this.labelCount * 2);
+            }
+        }
+
+        int label = this.labelCount++;
+        this.labelParent[label] = label;
+        this.labelSize[label] = size;
+        this.labelIsland[label] = this.nextIslandId++;
+        return label;
+    }
+
+    private int findLabel(int label) {
+        while (this.labelParent[label] != label) {
+            this.labelParent[label] = this.labelParent[this.labelParent[label]];
+            label = this.labelParent[label];
+        }
+        return label;
+    }
+
+    private int islandOf(int id) {
+        int root = this.findLabel(this.label[id]);
+        this.label[id] = root;
+        return root;
+    }
+
+    private void union(int a, int b) {
+        int rootA = this.islandOf(a);
+        int rootB = this.islandOf(b);
+        if (rootA == rootB)
+            return;
+
+        if (this.labelSize[rootA] < this.labelSize[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+
+        this.labelParent[rootB] = rootA;
+        this.labelSize[rootA] += this.labelSize[rootB];
+        this.islandCount--;
+        this.merges++;
+    }
+
+    /**
+     * Merge the island of a node with the other side of its two-port component,
+     * needed if the complement is assigned after both nodes have been added (e.g. when loading GridNodes)
+     */
+    public void joinComplement(SEComponent node) {
+        SEComponent complement = SEGraph.complementOf(node);
+        if (complement != null && this.containsNode(node) && this.containsNode(complement))
+            this.union(node.id, complement.id);
+    }
+
+    /**
+     * Called after a connection between node a and b has been removed,
+     * search from both of them alternately until they meet or one side runs out of nodes
+     */
+    private void checkSplit(int a, int b) {
+        int island = this.islandOf(a);
+        if (island != this.islandOf(b))
+            return;
+
+        int stampA = ++this.searchStamp;
+        int stampB = ++this.searchStamp;
+        int headA = 0, tailA = 0, headB = 0, tailB = 0;
+        this.searchMark[a] = stampA;
+        this.queueA[tailA++] = a;
+        this.searchMark[b] = stampB;
+        this.queueB[tailB++] = b;
+
+        while (true) {
+            if (headA == tailA) {
+                this.split(island, this.queueA, tailA);
+                return;
+            }
+            if (headB == tailB) {
+                this.split(island, this.queueB, tailB);
+                return;
+            }
+
+            //Expand one node on each side
+            int found = this.expand(this.queueA[headA++], stampA, stampB, true, tailA);
+            if (found < 0)
+                return;
+            tailA = found;
+
+            found = this.expand(this.queueB[headB++], stampB, stampA, false, tailB);
+            if (found < 0)
+                return;
+            tailB = found;
+        }
+    }
+
+    /**
+     * @return the new tail of the queue, -1 if a node marked by the other side is found
+     */
+    private int expand(int node, int stamp, int otherStamp, boolean sideA, int tail) {
+        for (int i = 0; i < this.degree[node] + 2; i++) {
+            int neighbor;
+            if (i < this.degree[node]) {
+                neighbor = this.adjacency[node][i];
+            } else {
+                SEComponent linked = i == this.degree[node] ?
+                        this.interconnectionOf(this.nodes[node]) : SEGraph.complementOf(this.nodes[node]);
+                if (linked == null || !this.containsNode(linked))
+                    continue;
+                neighbor = linked.id;
+            }
+
+            if (this.searchMark[neighbor] == otherStamp)
+                return -1;
+
+            if (this.searchMark[neighbor] != stamp) {
+                this.searchMark[neighbor] = stamp;
+                if (sideA) {
+                    if (tail == this.queueA.length)
+                        this.queueA = Arrays.copyOf(this.queueA, tail * 2);
+                    this.queueA[tail++] = neighbor;
+                } else {
+                    if (tail == this.queueB.length)
+                        this.queueB = Arrays.copyOf(this.queueB, tail * 2);
+                    this.queueB[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private SEComponent interconnectionOf(SEComponent node) {
+        if (node instanceof Cable)
+            return ((Cable) node).connectedGridNode;
+        else if (node instanceof GridNode)
+            return ((GridNode) node).interConnection;
+        return null;
+    }
+
+    /**
+     * @return the other side of a two-port component or a grid transformer, null if none.
+     * Parameters are not considered, e.g. both sides of an open switch stay in the same island
+     */
+    private static SEComponent complementOf(SEComponent node) {
+        if (node instanceof GridNode)
+            return ((GridNode) node).complement;
+        else if (node instanceof ISESubComponent)
+            return (SEComponent) ((ISESubComponent) node).getComplement();
+        return null;
+    }
+
+    /**
+     * Move the nodes to a new island
+     */
+    private void split(int island, int[] members, int count) {
+        this.labelSize[island] -= count;
+        int newIsland = this.newLabel(count);
+        for (int i = 0; i < count; i++)
+            this.label[members[i]] = newIsland;
+
+        this.islandCount++;
+        this.splits++;
+    }
+
+    private void compactLabels() {
+        int[] remap = new int[this.labelCount];
+        Arrays.fill(remap, -1);
+        int[] sizes = new int[this.labelCount];
+        int[] islands = new int[this.labelCount];
+        int count = 0;
+        for (int id = 0; id < this.highestId; id++) {
+            if (this.nodes[id] == null)
+                continue;
+
+            int root = this.islandOf(id);
+            if (remap[root] < 0) {
+                remap[root] = count;
+                sizes[count] = this.labelSize[root];
+                islands[count] = this.labelIsland[root];
+                count++;
+            }
+            this.label[id] = remap[root];
+        }
+
+        for (int label = 0; label < count; label++) {
+            this.labelParent[label] = label;
+            this.labelSize[label] = sizes[label];
+            this.labelIsland[label] = islands[label];
+        }
+        this.labelCount = count;
     }
 
     ///////////////////////////////////
@@ -288,176 +876,143 @@ public class SEGraph {
         secondary.complement = primary;
         secondary.ratio = ratio;
         secondary.resistance = resistance;
+
+        this.markDirty(primary);
+        this.markDirty(secondary);
+        this.joinComplement(primary);
     }
 
     public void breakTransformer(GridNode node) {
-        if (node.complement != null) {
-            node.complement.type = GridNode.ISEGridNode_Wire;
-            node.complement.complement = null;
-            node.complement.ratio = 0;
-            node.complement.resistance = 0;
+        GridNode complement = node.complement;
+        this.markDirty(node);
+        this.markDirty(complement);
+        if (complement != null) {
+            complement.type = GridNode.ISEGridNode_Wire;
+            complement.complement = null;
+            complement.ratio = 0;
+            complement.resistance = 0;
         }
 
         node.type = GridNode.ISEGridNode_Wire;
         node.complement = null;
         node.ratio = 0;
         node.resistance = 0;
-    }
 
-    public void clearVoltageCache() {
-        for (SEComponent node : this.terminalNodes)
-            node.voltageCache = 0;
-        for (SEComponent wire : this.wires)
-            wire.voltageCache = 0;
+        if (complement != null && this.containsNode(node) && this.containsNode(complement))
+            this.checkSplit(node.id, complement.id);
     }
 
-    public void optimizGraph() {
-        LinkedList<SEComponent> path = new LinkedList<SEComponent>();
-
-        this.terminalNodes.clear();
-        this.terminalNodes.addAll(this.components);
-
-        for (SEComponent node : this.terminalNodes) {
-            node.visited = false;
-            node.optimizedNeighbors.clear();
-            node.optimizedResistance.clear();
+    ////////////////////////////////////////////////
+    /// Topology snapshot
+    ////////////////////////////////////////////////
+    /**
+     * An immutable copy of the structure of the changed nodes (or the whole graph), the input of the TopologyReducer
+     */
+    public static final class Snapshot {
+        public final int version;
+        //True if the snapshot contains the whole graph, otherwise only the nodes changed since the previous snapshot
+        public final boolean full;
+        //All node ids are below this
+        final int highestId;
+
+        final int[] ids;
+        //Null if the node has been removed
+        final SEComponent[] nodes;
+        //Nodes whose voltage has to be calculated
+        final boolean[] terminal;
+        //Neighbors (node ids) of the i-th node in this snapshot occupy [adjStart[i], adjStart[i+1])
+        final int[] adjStart;
+        final int[] adj;
+        //Resistance from the node to the neighbor, calculated by calcR()
+        final double[] adjR;
+        //Nodes replaced by replaceVertex(), not included in ids
+        final int[] swappedIds;
+        final SEComponent[] swappedNodes;
+
+        private Snapshot(int version, boolean full, int highestId, int[] ids, SEComponent[] nodes, boolean[] terminal,
+                         int[] adjStart, int[] adj, double[] adjR, int[] swappedIds, SEComponent[] swappedNodes) {
+            this.version = version;
+            this.full = full;
+            this.highestId = highestId;
+            this.ids = ids;
+            this.nodes = nodes;
+            this.terminal = terminal;
+            this.adjStart = adjStart;
+            this.adj = adj;
+            this.adjR = adjR;
+            this.swappedIds = swappedIds;
+            this.swappedNodes = swappedNodes;
         }
 
-        for (SEComponent wire : this.wires) {
-            wire.visited = false;
-            wire.optimizedNeighbors.clear();
-            wire.optimizedResistance.clear();
-
-
-            wire.eliminated = true;
+        public int size() {
+            return this.ids.length;
+        }
+    }
 
-            if (SEGraph.shouldCalcVoltage(wire))
-                this.terminalNodes.add(wire);
+    /**
+     * Copy the structure of the nodes changed since the last snapshot, must be called from the thread which modifies the graph
+     *
+     * @param full copy the whole graph instead
+     */
+    public Snapshot snapshot(int version, boolean full) {
+        int[] ids;
+        if (full) {
+            ids = new int[this.size()];
+            int i = 0;
+            for (int id = 0; id < this.highestId; id++) {
+                if (this.nodes[id] != null)
+                    ids[i++] = id;
+            }
+        } else {
+            ids = Arrays.copyOf(this.dirtyIds, this.dirtyCount);
         }
 
-        //SubComponents, Cable/TransmissionLine with more than 2 connections, Interconnection terminals
-        for (SEComponent node : this.terminalNodes) {
-            node.eliminated = false;
-
-            if (!node.visited) {
-                node.visited = true;
-
-                traverseNeighbors:
-                for (SEComponent neighbor : node.neighbors) {
-                    if (neighbor.visited)
-                        continue traverseNeighbors;
-
-                    //Start a new path, from "node" towards "neighbor"
-                    path.clear();
-                    SEComponent prev = node;
-                    SEComponent reach = neighbor;    //Far reach
-                    double resistance = 0.0D;        //The total resistance from "node" to "reach"
-
-                    search:
-                    do {
-                        if (reach == node) {
-                            reach = null;    //Can not form an edge
-                            break search;    //Avoid circulation
-                        }
-
-                        resistance += SEGraph.calcR(prev, reach);
-
-                        if (SEGraph.shouldCalcVoltage(reach))    //We have to calculate the voltage of the interconnection point
-                            break search;
-
-                        else if (reach.neighbors.size() == 1) {
-                            if (SEGraph.isWire(reach)) {
-                                reach.optimizedNeighbors.add(node);
-                                reach.optimizedResistance.add(resistance);
-
-                                reach = null;    //A single ended wire can not form an edge
-                            }
-                            break search;
-                        } else if (reach.neighbors.size() == 2) {    //Always moveforward!
-                            reach.optimizedNeighbors.add(node);
-                            reach.optimizedResistance.add(resistance);
-                            path.add(reach);
-
-                            reach.visited = true;
-                            if (reach.neighbors.getFirst() == prev) {
-                                prev = reach;
-                                reach = reach.neighbors.getLast();
-                            } else if (reach.neighbors.getLast() == prev) {
-                                prev = reach;
-                                reach = reach.neighbors.getFirst();
-                            } else {
-                                throw new RuntimeException("WTF mate whats going on?!");
-                            }
-                        }
-                    } while (true);
-
-                    //node->reach
-                    if (reach != null) {    //node-node connection
-                        //Reached another device node (i.e. transformer primary)
-                        //resistance = total resistance from "node" to the end
-                        Iterator<SEComponent> iterator = path.iterator();
-                        while (iterator.hasNext()) {
-                            SEComponent nodeOnPath = iterator.next();
-                            nodeOnPath.optimizedNeighbors.add(reach);
-                            nodeOnPath.optimizedResistance.add(
-                                    resistance - nodeOnPath.optimizedResistance.getFirst()
-                            );
-                        }
-
-
-                        Iterator<SEComponent> iteratorON = node.optimizedNeighbors.iterator();
-                        Iterator<Double> iteratorR = node.optimizedResistance.iterator();
-
-        				/*
-        				 * Combine parallel path
-        				 * Example:
-        				 * 		x
-        				 * 		x
-        				 * 		xxxx
-        				 * 		x  x
-        				 * 		x  x
-        				 * 		xxxxxxxxxx
-        				 */
-                        checkParallel:
-                        while (iteratorON.hasNext()) {
-                            double prevR = iteratorR.next();
-                            if (iteratorON.next() == reach) {
-                                //Delete previous edge
-                                Iterator<SEComponent> iteratorON2 = reach.optimizedNeighbors.iterator();
-                                Iterator<Double> iteratorR2 = reach.optimizedResistance.iterator();
-                                delete:
-                                while (iteratorON2.hasNext()) {
-                                    iteratorR2.next();
-                                    if (iteratorON2.next() == node) {
-                                        iteratorR2.remove();
-                                        iteratorON2.remove();
-                                        break delete;
-                                    }
-                                }
-
-                                iteratorR.remove();
-                                iteratorON.remove();
-
-                                resistance = resistance * prevR / (resistance + prevR);
-                                break checkParallel;
-                            }
-                        }
-
-
-                        node.optimizedNeighbors.addLast(reach);
-                        node.optimizedResistance.addLast(resistance);
-
-                        reach.optimizedNeighbors.addLast(node);
-                        reach.optimizedResistance.addLast(resistance);
-                    }
-                }
+        //Replaced nodes which have been changed or removed afterwards are already in ids
+        int swapped = 0;
+        int[] swappedIds = new int[this.swappedCount];
+        SEComponent[] swappedNodes = new SEComponent[this.swappedCount];
+        for (int i = 0; i < this.swappedCount; i++) {
+            int id = this.swappedIds[i];
+            if (!full && !this.dirty[id] && this.nodes[id] != null) {
+                swappedIds[swapped] = id;
+                swappedNodes[swapped++] = this.nodes[id];
             }
+        }
+        this.swappedCount = 0;
+
+        for (int i = 0; i < this.dirtyCount; i++)
+            this.dirty[this.dirtyIds[i]] = false;
+        this.dirtyCount = 0;
+
+        int size = ids.length;
+        SEComponent[] nodes = new SEComponent[size];
+        boolean[] terminal = new boolean[size];
+        int[] adjStart = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            SEComponent node = this.nodes[ids[i]];
+            nodes[i] = node;
+            terminal[i] = node != null && (!SEGraph.isWire(node) || this.shouldCalcVoltage(node));
+            adjStart[i + 1] = adjStart[i] + (node == null ? 0 : this.degree[ids[i]]);
+        }
 
+        int[] adj = new int[adjStart[size]];
+        double[] adjR = new double[adjStart[size]];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            SEComponent node = nodes[i];
+            if (node == null)
+                continue;
+
+            int id = ids[i];
+            for (int j = 0; j < this.degree[id]; j++) {
+                int neighbor = this.adjacency[id][j];
+                adj[k] = neighbor;
+                adjR[k] = node instanceof GridNode ? this.getGridR(id, neighbor) : SEGraph.calcR(node, this.nodes[neighbor]);
+                k++;
+            }
         }
-    }
 
-    public LinkedList<SEComponent> getTerminalNodes() {
-        return this.terminalNodes;
+        return new Snapshot(version, full, this.highestId, ids, nodes, terminal, adjStart, adj, adjR,
+                Arrays.copyOf(swappedIds, swapped), Arrays.copyOf(swappedNodes, swapped));
     }
-
 }
@@ -13,6 +13,10 @@ public abstract class TileEvent extends EnergyEventBase {
     }
 
     public static class Attach extends TileEvent {
+        //Took over the components of a frozen tile, the connections are already there
+        private boolean thawed;
+        private boolean changedStructure;
+
         public Attach(TileEntity te) {
             super(te);
         }
@@ -21,11 +25,15 @@ public abstract class TileEvent extends EnergyEventBase {
         public void process(EnergyNetDataProvider dataProvider, int pass) {
         	if (this.te instanceof ISETile || this.te instanceof ISECableTile) {
             	if (pass == TADD) {
-            		dataProvider.addTile(te);
+            		this.thawed = dataProvider.thawTile(te);
+            		if (!this.thawed)
+            			dataProvider.addTile(te);
+            		this.changedStructure = !this.thawed;
             	} else if (pass == TPARAMCHANGE) {
             		dataProvider.updateTileParam(te);
             	} else if (pass == TCONCHANGE) {
-                    dataProvider.updateTileConnection(this.te);
+            		//Verifies the connections of a thawed tile, they only change if its neighbors have changed meanwhile
+                    this.changedStructure |= dataProvider.updateTileConnection(this.te);
             	}
         	}
         	
@@ -34,9 +42,12 @@ public abstract class TileEvent extends EnergyEventBase {
             }
         }
 
+		/**
+		 * Only valid after processing
+		 */
 		@Override
 		public boolean changedStructure() {
-			return this.te instanceof ISETile || this.te instanceof ISECableTile;
+			return this.changedStructure;
 		}
 
 		@Override
@@ -0,0 +1,732 @@
+package simelectricity.energynet;
+
+import simelectricity.common.SELogger;
+import simelectricity.energynet.components.SEComponent;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * The topology reduction stage of the EnergyNet pipeline, runs in its own thread
+ * <p/>
+ * It works on SEGraph.Snapshots taken after structural changes, while the server thread keeps serving the results
+ * of the previous topology. Parameter-only changes never go through this stage.
+ * <p/>
+ * The reduction is incremental: the reducer keeps its own copy of the graph structure and the wire chains it has contracted,
+ * a snapshot only contains the changed nodes, and only chains touching them are dissolved and walked again.
+ * The result is patched the same way, only the rows of terminals at the ends of dissolved or new chains
+ * and the entries of their wires are rebuilt, the rest is copied from the previous result.
+ */
+public class TopologyReducer extends Thread {
+    private static final int[] NO_WIRE = new int[0];
+
+    private volatile boolean processing;
+    private volatile boolean suicide;
+    private volatile long duration;            	//Time taken for the latest reduction, in milliseconds
+    private volatile int rewalkedWires;			//Number of wires walked during the latest reduction
+    private volatile int patchedRows;			//Number of terminal rows rebuilt during the latest reduction
+    private final LinkedList<SEGraph.Snapshot> pending = new LinkedList<SEGraph.Snapshot>();	//Guarded by this
+    private ReducedTopology result;				//Latest finished reduction, guarded by this
+
+    //////////////////////////
+    /// Graph structure, indexed by node id
+    //////////////////////////
+    private SEComponent[] nodes = new SEComponent[0];
+    private int[][] adj = new int[0][];
+    private double[][] adjR = new double[0][];
+    private boolean[] terminal = new boolean[0];
+
+    //////////////////////////
+    /// Wire chains
+    //////////////////////////
+    //A chain is a maximal sequence of wires which are not terminals, or a direct edge between two terminals (no wire)
+    private int[] chainA = new int[16], chainB = new int[16];    //Terminals at both ends, -1 if not exist
+    private int[][] chainWires = new int[16][];                 //Ordered from end A
+    private double[] chainR = new double[16];                   //Total resistance from A to B
+    private int chainCount;
+    private int[] freeChains = new int[16];
+    private int freeChainCount;
+
+    //Indexed by node id
+    private int[] chainOf = new int[0];             //The chain a wire belongs to, -1 for terminals
+    private double[] rFromA = new double[0];        //Resistance from end A of the chain to the wire
+    private int[][] terminalChains = new int[0][];  //Chains ending at a terminal
+    private int[] terminalChainCount = new int[0];
+
+    //Work lists of a reduction
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyIds = new int[16];
+    private int dirtyCount;
+    private int[] unassigned = new int[16];
+    private int unassignedCount;
+    //Terminals and wires whose entries in the result have to be rebuilt
+    private boolean[] rowDirty = new boolean[0];
+    private int[] rowDirtyIds = new int[16];
+    private int rowDirtyCount;
+    private boolean[] wireDirty = new boolean[0];
+    private int[] wireDirtyIds = new int[16];
+    private int wireDirtyCount;
+
+    //////////////////////////
+    /// Result, patched by every reduction
+    //////////////////////////
+    //Position of the node in the terminal or eliminated wire list, -1 if not there, indexed by node id
+    private int[] terminalSlot = new int[0];
+    private int[] wireSlot = new int[0];
+    //Terminal list
+    private int terminalCount;
+    private int[] terminalId = new int[16];
+    private SEComponent[] terminals = new SEComponent[16];
+    private int[][] edgeTo = new int[16][];
+    private double[][] edgeR = new double[16][];
+    //Eliminated wire list
+    private int eliminatedCount;
+    private int[] eliminatedId = new int[16];
+    private SEComponent[] eliminated = new SEComponent[16];
+    private int[] eliminatedA = new int[16], eliminatedB = new int[16];
+    private double[] eliminatedRA = new double[16], eliminatedRB = new double[16];
+    //Combining parallel chains, indexed by node id
+    private int[] combineStamp = new int[0];
+    private int[] combineAt = new int[0];
+    private int stamp;
+
+    protected TopologyReducer(String name) {
+        this.setName(name);
+    }
+
+    /////////////////////////////////////////////////
+    /// Info
+    /////////////////////////////////////////////////
+    public boolean isWorking() {
+        return this.processing;
+    }
+
+    public long getTimeConsumption() {
+        return this.duration;
+    }
+
+    public int getRewalkedWires() {
+        return this.rewalkedWires;
+    }
+
+    public int getPatchedRows() {
+        return this.patchedRows;
+    }
+
+    /////////////////////////////////////////////////
+    /// Threading
+    /////////////////////////////////////////////////
+    public void suicide() {
+        this.suicide = true;
+        this.interrupt();
+    }
+
+    /**
+     * Queue a topology snapshot, snapshots are applied in order,
+     * pending snapshots are merged so only one reduction is performed for all of them
+     */
+    public void submit(SEGraph.Snapshot snapshot) {
+        synchronized (this) {
+            this.pending.add(snapshot);
+            this.processing = true;
+            this.notify();
+        }
+
+        if (!this.isAlive())
+            this.start();
+    }
+
+    /**
+     * @return the latest finished reduction, or null if nothing new since last call
+     */
+    public synchronized ReducedTopology takeResult() {
+        ReducedTopology ret = this.result;
+        this.result = null;
+        return ret;
+    }
+
+    @Override
+    public void run() {
+        SEGraph.Snapshot[] snapshots;
+
+        while (true) {
+            try {
+                synchronized (this) {
+                    while (this.pending.isEmpty())
+                        this.wait();
+                    snapshots = this.pending.toArray(new SEGraph.Snapshot[this.pending.size()]);
+                    this.pending.clear();
+                }
+
+                long startAt = System.currentTimeMillis();
+                ReducedTopology reduced = this.reduce(snapshots);
+                this.duration = System.currentTimeMillis() - startAt;
+
+                synchronized (this) {
+                    this.result = reduced;
+                    this.processing = !this.pending.isEmpty();
+                }
+            } catch (InterruptedException e) {
+                if (this.suicide) {
+                    SELogger.logInfo(SELogger.general, this.getName() + " is shutting down");
+                    return;
+                }
+
+                e.printStackTrace();
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////
+    /// Reduction
+    ////////////////////////////////////////////////
+    ReducedTopology reduce(SEGraph.Snapshot... snapshots) {
+        this.rewalkedWires = 0;
+
+        for (SEGraph.Snapshot snapshot : snapshots) {
+            if (snapshot.full)
+                this.reset();
+            this.ensureCapacity(snapshot.highestId);
+
+            //Dissolve chains touching the changed nodes, using the previous structure
+            for (int id : snapshot.ids) {
+                this.markDirty(id);
+
+                if (this.chainOf[id] >= 0)
+                    this.dissolveChain(this.chainOf[id]);
+
+                while (this.terminalChainCount[id] > 0)
+                    this.dissolveChain(this.terminalChains[id][0]);
+            }
+
+            //Apply the new structure
+            for (int i = 0; i < snapshot.ids.length; i++) {
+                int id = snapshot.ids[i];
+                //May have become a terminal, a wire or removed
+                this.markRowDirty(id);
+                this.markWireDirty(id);
+                this.nodes[id] = snapshot.nodes[i];
+                this.terminal[id] = snapshot.terminal[i];
+                this.adj[id] = Arrays.copyOfRange(snapshot.adj, snapshot.adjStart[i], snapshot.adjStart[i + 1]);
+                this.adjR[id] = Arrays.copyOfRange(snapshot.adjR, snapshot.adjStart[i], snapshot.adjStart[i + 1]);
+                if (!this.terminal[id] && this.nodes[id] != null)
+                    this.addUnassigned(id);
+            }
+
+            //Same structure, only the objects have changed
+            for (int i = 0; i < snapshot.swappedIds.length; i++) {
+                int id = snapshot.swappedIds[i];
+                this.nodes[id] = snapshot.swappedNodes[i];
+                if (this.terminalSlot[id] >= 0)
+                    this.terminals[this.terminalSlot[id]] = this.nodes[id];
+                if (this.wireSlot[id] >= 0)
+                    this.eliminated[this.wireSlot[id]] = this.nodes[id];
+            }
+        }
+
+        //Walk again from changed terminals
+        for (int i = 0; i < this.dirtyCount; i++) {
+            int id = this.dirtyIds[i];
+            if (this.nodes[id] != null && this.terminal[id])
+                this.walkFromTerminal(id);
+        }
+
+        //Remaining wires are in chains whose ends did not change, or in chains without terminals
+        for (int i = 0; i < this.unassignedCount; i++) {
+            int id = this.unassigned[i];
+            if (this.nodes[id] != null && !this.terminal[id] && this.chainOf[id] < 0)
+                this.walkFromWire(id);
+        }
+
+        for (int i = 0; i < this.dirtyCount; i++)
+            this.dirty[this.dirtyIds[i]] = false;
+        this.dirtyCount = 0;
+        this.unassignedCount = 0;
+
+        this.patch();
+        return this.assemble(snapshots[snapshots.length - 1].version);
+    }
+
+    private void reset() {
+        this.nodes = new SEComponent[0];
+        this.adj = new int[0][];
+        this.adjR = new double[0][];
+        this.terminal = new boolean[0];
+        this.chainOf = new int[0];
+        this.rFromA = new double[0];
+        this.terminalChains = new int[0][];
+        this.terminalChainCount = new int[0];
+        this.dirty = new boolean[0];
+        this.dirtyCount = 0;
+        this.unassignedCount = 0;
+        this.chainCount = 0;
+        this.freeChainCount = 0;
+        this.rowDirty = new boolean[0];
+        this.rowDirtyCount = 0;
+        this.wireDirty = new boolean[0];
+        this.wireDirtyCount = 0;
+        this.terminalSlot = new int[0];
+        this.wireSlot = new int[0];
+        this.combineStamp = new int[0];
+        this.combineAt = new int[0];
+        Arrays.fill(this.terminals, 0, this.terminalCount, null);
+        Arrays.fill(this.edgeTo, 0, this.terminalCount, null);
+        Arrays.fill(this.edgeR, 0, this.terminalCount, null);
+        this.terminalCount = 0;
+        Arrays.fill(this.eliminated, 0, this.eliminatedCount, null);
+        this.eliminatedCount = 0;
+    }
+
+    private void ensureCapacity(int highestId) {
+        int capacity = this.nodes.length;
+        if (highestId <= capacity)
+            return;
+
+        capacity = Math.max(highestId, capacity * 2);
+        int from = this.nodes.length;
+        this.nodes = Arrays.copyOf(this.nodes, capacity);
+        this.adj = Arrays.copyOf(this.adj, capacity);
+        this.adjR = Arrays.copyOf(this.adjR, capacity);
+        this.terminal = Arrays.copyOf(this.terminal, capacity);
+        this.chainOf = Arrays.copyOf(this.chainOf, capacity);
+        this.rFromA = Arrays.copyOf(this.rFromA, capacity);
+        this.terminalChains = Arrays.copyOf(this.terminalChains, capacity);
+        this.terminalChainCount = Arrays.copyOf(this.terminalChainCount, capacity);
+        this.dirty = Arrays.copyOf(this.dirty, capacity);
+        this.rowDirty = Arrays.copyOf(this.rowDirty, capacity);
+        this.wireDirty = Arrays.copyOf(this.wireDirty, capacity);
+        this.terminalSlot = Arrays.copyOf(this.terminalSlot, capacity);
+        this.wireSlot = Arrays.copyOf(this.wireSlot, capacity);
+        this.combineStamp = Arrays.copyOf(this.combineStamp, capacity);
+        this.combineAt = Arrays.copyOf(this.combineAt, capacity);
+        Arrays.fill(this.chainOf, from, capacity, -1);
+        Arrays.fill(this.terminalSlot, from, capacity, -1);
+        Arrays.fill(this.wireSlot, from, capacity, -1);
+    }
+
+    private void markDirty(int id) {
+        if (this.dirty[id])
+            return;
+
+        this.dirty[id] = true;
+        if (this.dirtyCount == this.dirtyIds.length)
+            this.dirtyIds = Arrays.copyOf(this.dirtyIds, this.dirtyCount * 2);
+        this.dirtyIds[this.dirtyCount++] = id;
+    }
+
+    private void markRowDirty(int id) {
+        if (this.rowDirty[id])
+            return;
+
+        this.rowDirty[id] = true;
+        if (this.rowDirtyCount == this.rowDirtyIds.length)
+            this.rowDirtyIds = Arrays.copyOf(this.rowDirtyIds, this.rowDirtyCount * 2);
+        this.rowDirtyIds[this.rowDirtyCount++] = id;
+    }
+
+    private void markWireDirty(int id) {
+        if (this.wireDirty[id])
+            return;
+
+        this.wireDirty[id] = true;
+        if (this.wireDirtyCount == this.wireDirtyIds.length)
+            this.wireDirtyIds = Arrays.copyOf(this.wireDirtyIds, this.wireDirtyCount * 2);
+        this.wireDirtyIds[this.wireDirtyCount++] = id;
+    }
+
+    private void addUnassigned(int id) {
+        if (this.unassignedCount == this.unassigned.length)
+            this.unassigned = Arrays.copyOf(this.unassigned, this.unassignedCount * 2);
+        this.unassigned[this.unassignedCount++] = id;
+    }
+
+    //////////////////////////
+    /// Chain storage
+    //////////////////////////
+    private int newChain(int a, int b, int[] wires, double resistance) {
+        int chain;
+        if (this.freeChainCount > 0) {
+            chain = this.freeChains[--this.freeChainCount];
+        } else {
+            chain = this.chainCount++;
+            if (chain == this.chainA.length) {
+                this.chainA = Arrays.copyOf(this.chainA, chain * 2);
+                this.chainB = Arrays.copyOf(this.chainB, chain * 2);
+                this.chainWires = Arrays.copyOf(this.chainWires, chain * 2);
+                this.chainR = Arrays.copyOf(this.chainR, chain * 2);
+            }
+        }
+
+        this.chainA[chain] = a;
+        this.chainB[chain] = b;
+        this.chainWires[chain] = wires;
+        this.chainR[chain] = resistance;
+
+        for (int wire : wires) {
+            this.chainOf[wire] = chain;
+            this.markWireDirty(wire);
+        }
+        if (a >= 0) {
+            this.attachChain(a, chain);
+            this.markRowDirty(a);
+        }
+        if (b >= 0 && b != a) {
+            this.attachChain(b, chain);
+            this.markRowDirty(b);
+        }
+
+        return chain;
+    }
+
+    private void attachChain(int terminal, int chain) {
+        int n = this.terminalChainCount[terminal];
+        int[] list = this.terminalChains[terminal];
+        if (list == null || n == list.length)
+            this.terminalChains[terminal] = list = list == null ? new int[4] : Arrays.copyOf(list, n * 2);
+        list[n] = chain;
+        this.terminalChainCount[terminal] = n + 1;
+    }
+
+    private void detachChain(int terminal, int chain) {
+        int n = this.terminalChainCount[terminal];
+        int[] list = this.terminalChains[terminal];
+        for (int i = 0; i < n; i++) {
+            if (list[i] == chain) {
+                list[i] = list[n - 1];
+                this.terminalChainCount[terminal] = n - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove a chain, its wires have to be walked again
+     */
+    private void dissolveChain(int chain) {
+        for (int wire : this.chainWires[chain]) {
+            this.chainOf[wire] = -1;
+            this.addUnassigned(wire);
+            this.markWireDirty(wire);
+        }
+
+        if (this.chainA[chain] >= 0) {
+            this.detachChain(this.chainA[chain], chain);
+            this.markRowDirty(this.chainA[chain]);
+        }
+        if (this.chainB[chain] >= 0) {
+            this.detachChain(this.chainB[chain], chain);
+            this.markRowDirty(this.chainB[chain]);
+        }
+
+        this.chainWires[chain] = null;
+        this.chainA[chain] = -1;
+        this.chainB[chain] = -1;
+
+        if (this.freeChainCount == this.freeChains.length)
+            this.freeChains = Arrays.copyOf(this.freeChains, this.freeChainCount * 2);
+        this.freeChains[this.freeChainCount++] = chain;
+    }
+
+    //////////////////////////
+    /// Walking
+    //////////////////////////
+    private void walkFromTerminal(int node) {
+        int[] neighbors = this.adj[node];
+        for (int k = 0; k < neighbors.length; k++) {
+            int neighbor = neighbors[k];
+
+            if (this.terminal[neighbor]) {
+                //Direct edge, created only once if both terminals have changed
+                if (!this.dirty[neighbor] || node < neighbor)
+                    this.newChain(node, neighbor, NO_WIRE, this.adjR[node][k]);
+            } else if (this.chainOf[neighbor] < 0) {
+                //Start a new path, from "node" towards "neighbor"
+                int reach = this.walk(node, neighbor, this.adjR[node][k]);
+                //Returning to "node" can not form an edge
+                this.newChain(node, reach == node ? -1 : reach, Arrays.copyOf(this.walkPath, this.walkLength), this.walkResistance);
+            }
+        }
+    }
+
+    /**
+     * Find an end of the chain containing the wire, then walk the whole chain from there
+     */
+    private void walkFromWire(int wire) {
+        int[] neighbors = this.adj[wire];
+        if (neighbors.length == 0) {
+            this.newChain(-1, -1, new int[]{wire}, 0);
+            return;
+        }
+
+        int end = this.walk(wire, neighbors[0], this.adjR[wire][0]);
+        int last = this.walkLength > 0 ? this.walkPath[this.walkLength - 1] : wire;
+        if (end == wire) {
+            //A loop without any terminal
+            int[] wires = new int[this.walkLength + 1];
+            wires[0] = wire;
+            System.arraycopy(this.walkPath, 0, wires, 1, this.walkLength);
+            this.newChain(-1, -1, wires, 0);
+            return;
+        }
+
+        if (end < 0) {
+            //Reached a dead end, look for the other end from there
+            int deadEnd = last;
+            end = this.walk(deadEnd, this.adj[deadEnd][0], this.adjR[deadEnd][0]);
+            if (end < 0) {
+                //Both ends are dead ends
+                int[] wires = new int[this.walkLength + 1];
+                wires[0] = deadEnd;
+                System.arraycopy(this.walkPath, 0, wires, 1, this.walkLength);
+                this.newChain(-1, -1, wires, 0);
+                return;
+            }
+            last = this.walkLength > 0 ? this.walkPath[this.walkLength - 1] : deadEnd;
+        }
+
+        //Walk again from the terminal, so the chain is ordered from it
+        int k = indexOf(this.adj[end], last);
+        int reach = this.walk(end, last, this.adjR[end][k]);
+        this.newChain(end, reach == end ? -1 : reach, Arrays.copyOf(this.walkPath, this.walkLength), this.walkResistance);
+    }
+
+    //Results of walk()
+    private int[] walkPath = new int[16];
+    private int walkLength;
+    private double walkResistance;
+
+    /**
+     * Walk from "from" through "to" along wires which are not terminals, until reaching a terminal, a dead end or "from" again,
+     * the visited wires are stored in walkPath, rFromA of them is the resistance from "from"
+     *
+     * @return the terminal reached, "from" if returned to it, -1 if stopped at a dead end
+     */
+    private int walk(int from, int to, double resistance) {
+        int length = 0;
+        int prev = from;
+        int reach = to;
+
+        while (reach != from && !this.terminal[reach]) {
+            if (length == this.walkPath.length)
+                this.walkPath = Arrays.copyOf(this.walkPath, length * 2);
+            this.walkPath[length++] = reach;
+            this.rFromA[reach] = resistance;
+            this.rewalkedWires++;
+
+            int[] neighbors = this.adj[reach];
+            if (neighbors.length < 2) {
+                reach = -1;     //A single ended wire can not form an edge
+                break;
+            }
+
+            //Always move forward!
+            int forward = neighbors[0] == prev ? 1 : 0;
+            prev = reach;
+            resistance += this.adjR[reach][forward];
+            reach = neighbors[forward];
+        }
+
+        this.walkLength = length;
+        this.walkResistance = resistance;
+        return reach;
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value)
+                return i;
+        }
+        throw new RuntimeException("WTF mate whats going on?!");
+    }
+
+    //////////////////////////
+    /// Result
+    //////////////////////////
+    /**
+     * Update the terminal list and the eliminated wire list, rebuild the entries marked as dirty
+     */
+    private void patch() {
+        this.patchedRows = 0;
+
+        //Terminals which have been removed or became wires, the last terminal takes over the slot
+        for (int i = 0; i < this.rowDirtyCount; i++) {
+            int id = this.rowDirtyIds[i];
+            if (this.terminalSlot[id] >= 0 && (this.nodes[id] == null || !this.terminal[id]))
+                this.removeTerminal(id);
+        }
+
+        for (int i = 0; i < this.rowDirtyCount; i++) {
+            int id = this.rowDirtyIds[i];
+            if (this.terminalSlot[id] < 0 && this.nodes[id] != null && this.terminal[id])
+                this.addTerminal(id);
+        }
+
+        //Rows refer to the slots, so they are rebuilt after all slots are known
+        for (int i = 0; i < this.rowDirtyCount; i++) {
+            int id = this.rowDirtyIds[i];
+            this.rowDirty[id] = false;
+            if (this.terminalSlot[id] >= 0)
+                this.buildRow(id);
+        }
+        this.rowDirtyCount = 0;
+
+        for (int i = 0; i < this.wireDirtyCount; i++) {
+            int id = this.wireDirtyIds[i];
+            this.wireDirty[id] = false;
+
+            if (this.nodes[id] == null || this.terminal[id]) {
+                if (this.wireSlot[id] >= 0)
+                    this.removeWire(id);
+            } else {
+                if (this.wireSlot[id] < 0)
+                    this.addWire(id);
+                this.buildWire(id);
+            }
+        }
+        this.wireDirtyCount = 0;
+    }
+
+    private void addTerminal(int id) {
+        int slot = this.terminalCount++;
+        if (slot == this.terminals.length) {
+            this.terminalId = Arrays.copyOf(this.terminalId, slot * 2);
+            this.terminals = Arrays.copyOf(this.terminals, slot * 2);
+            this.edgeTo = Arrays.copyOf(this.edgeTo, slot * 2);
+            this.edgeR = Arrays.copyOf(this.edgeR, slot * 2);
+        }
+
+        this.terminalSlot[id] = slot;
+        this.terminalId[slot] = id;
+        this.terminals[slot] = this.nodes[id];
+    }
+
+    private void removeTerminal(int id) {
+        int slot = this.terminalSlot[id];
+        int last = --this.terminalCount;
+        this.terminalSlot[id] = -1;
+
+        if (slot != last) {
+            int moved = this.terminalId[last];
+            this.terminalSlot[moved] = slot;
+            this.terminalId[slot] = moved;
+            this.terminals[slot] = this.terminals[last];
+
+            //Everything referring to the old slot of the moved terminal
+            this.markRowDirty(moved);
+            for (int i = 0; i < this.terminalChainCount[moved]; i++) {
+                int chain = this.terminalChains[moved][i];
+                if (this.chainA[chain] >= 0)
+                    this.markRowDirty(this.chainA[chain]);
+                if (this.chainB[chain] >= 0)
+                    this.markRowDirty(this.chainB[chain]);
+                for (int wire : this.chainWires[chain])
+                    this.markWireDirty(wire);
+            }
+        }
+
+        this.terminals[last] = null;
+        this.edgeTo[last] = null;
+        this.edgeR[last] = null;
+    }
+
+    /**
+     * Combine the parallel chains of a terminal into edges, the new row replaces the old one
+     */
+    private void buildRow(int id) {
+        int stamp = ++this.stamp;
+        int count = 0;
+        int n = this.terminalChainCount[id];
+        int[] to = new int[n];
+        double[] r = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            int chain = this.terminalChains[id][i];
+            int other = this.chainA[chain] == id ? this.chainB[chain] : this.chainA[chain];
+            //Dead ends and loops do not form an edge
+            if (other < 0 || other == id)
+                continue;
+
+            double resistance = this.chainR[chain];
+            if (this.combineStamp[other] == stamp) {
+                int e = this.combineAt[other];
+                double prevR = r[e];
+                r[e] = resistance * prevR / (resistance + prevR);
+            } else {
+                this.combineStamp[other] = stamp;
+                this.combineAt[other] = count;
+                to[count] = this.terminalSlot[other];
+                r[count] = resistance;
+                count++;
+            }
+        }
+
+        //The id may have been reused by another node
+        int slot = this.terminalSlot[id];
+        this.terminals[slot] = this.nodes[id];
+        this.edgeTo[slot] = count == n ? to : Arrays.copyOf(to, count);
+        this.edgeR[slot] = count == n ? r : Arrays.copyOf(r, count);
+        this.patchedRows++;
+    }
+
+    private void addWire(int id) {
+        int slot = this.eliminatedCount++;
+        if (slot == this.eliminated.length) {
+            this.eliminatedId = Arrays.copyOf(this.eliminatedId, slot * 2);
+            this.eliminated = Arrays.copyOf(this.eliminated, slot * 2);
+            this.eliminatedA = Arrays.copyOf(this.eliminatedA, slot * 2);
+            this.eliminatedB = Arrays.copyOf(this.eliminatedB, slot * 2);
+            this.eliminatedRA = Arrays.copyOf(this.eliminatedRA, slot * 2);
+            this.eliminatedRB = Arrays.copyOf(this.eliminatedRB, slot * 2);
+        }
+
+        this.wireSlot[id] = slot;
+        this.eliminatedId[slot] = id;
+    }
+
+    private void removeWire(int id) {
+        int slot = this.wireSlot[id];
+        int last = --this.eliminatedCount;
+        this.wireSlot[id] = -1;
+
+        //Nothing refers to wire slots, the last entry is simply moved
+        if (slot != last) {
+            int moved = this.eliminatedId[last];
+            this.wireSlot[moved] = slot;
+            this.eliminatedId[slot] = moved;
+            this.eliminated[slot] = this.eliminated[last];
+            this.eliminatedA[slot] = this.eliminatedA[last];
+            this.eliminatedB[slot] = this.eliminatedB[last];
+            this.eliminatedRA[slot] = this.eliminatedRA[last];
+            this.eliminatedRB[slot] = this.eliminatedRB[last];
+        }
+
+        this.eliminated[last] = null;
+    }
+
+    private void buildWire(int id) {
+        int slot = this.wireSlot[id];
+        int chain = this.chainOf[id];
+        int a = chain < 0 ? -1 : this.chainA[chain];
+        int b = chain < 0 ? -1 : this.chainB[chain];
+
+        this.eliminated[slot] = this.nodes[id];
+        this.eliminatedA[slot] = a < 0 ? -1 : this.terminalSlot[a];
+        this.eliminatedB[slot] = b < 0 || b == a ? -1 : this.terminalSlot[b];
+        this.eliminatedRA[slot] = this.rFromA[id];
+        this.eliminatedRB[slot] = this.eliminatedB[slot] < 0 ? 0 : this.chainR[chain] - this.rFromA[id];
+    }
+
+    /**
+     * Copy the patched lists into an immutable result, unchanged rows are shared
+     */
+    private ReducedTopology assemble(int version) {
+        int terminalCount = this.terminalCount;
+        int eliminatedCount = this.eliminatedCount;
+
+        return new ReducedTopology(version, Arrays.copyOf(this.terminals, terminalCount),
+                Arrays.copyOf(this.edgeTo, terminalCount), Arrays.copyOf(this.edgeR, terminalCount),
+                Arrays.copyOf(this.eliminated, eliminatedCount),
+                Arrays.copyOf(this.eliminatedA, eliminatedCount), Arrays.copyOf(this.eliminatedB, eliminatedCount),
+                Arrays.copyOf(this.eliminatedRA, eliminatedCount), Arrays.copyOf(this.eliminatedRB, eliminatedCount));
+    }
+}
@@ -0,0 +1,251 @@
+package simelectricity.energynet;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import simelectricity.api.tile.ISETile;
+import simelectricity.common.SELogger;
+import simelectricity.energynet.components.Cable;
+import simelectricity.energynet.components.GridNode;
+import simelectricity.energynet.components.SEComponent;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The converged voltages of the last simulation before the world was unloaded, used as the initial guess after a restart
+ * <p/>
+ * Nodes are identified by a key derived from their position (and side), so it survives the restart.
+ * Every island of the circuit has a fingerprint of its structure. An island of a new circuit is only seeded
+ * if its fingerprint matches a cached island, islands which do not match (e.g. partly loaded, or changed) start from zero as usual.
+ * Each cached island is used once. Islands are seeded on the simulator thread, see CompiledCircuit.Compiler.
+ * <p/>
+ * File layout (version 1, deflated):
+ * <pre>
+ * int magic, int version, int islandCount, long[] fingerprint, int[] islandStart (islandCount + 1), long[] key, double[] voltage
+ * </pre>
+ */
+public final class WarmStartCache {
+    public static final int MAGIC = 0x53455753;    //"SEWS"
+    public static final int VERSION = 1;
+
+    //Fingerprint -> index of the island
+    private final Map<Long, Integer> islands = new HashMap<Long, Integer>();
+    private final int[] islandStart;
+    private final long[] keys;
+    private final double[] voltages;
+    private int seeded;
+
+    private WarmStartCache(long[] fingerprints, int[] islandStart, long[] keys, double[] voltages) {
+        for (int k = 0; k < fingerprints.length; k++)
+            this.islands.put(fingerprints[k], k);
+        this.islandStart = islandStart;
+        this.keys = keys;
+        this.voltages = voltages;
+    }
+
+    /**
+     * @return true if all cached islands have been used
+     */
+    public synchronized boolean isEmpty() {
+        return this.islands.isEmpty();
+    }
+
+    /**
+     * @return number of islands seeded so far
+     */
+    public synchronized int getSeededIslands() {
+        return this.seeded;
+    }
+
+    public synchronized int getRemainingIslands() {
+        return this.islands.size();
+    }
+
+    ////////////////////////////////////////////////
+    /// Keys
+    ////////////////////////////////////////////////
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return a key which identifies the node across restarts, 0 if the node can not be identified
+     */
+    static long keyOf(SEComponent node) {
+        if (node instanceof GridNode)
+            return mix(mix(((GridNode) node).getPos().toLong()) + 7);
+
+        TileEntity te = node.te;
+        if (te == null)
+            return 0;
+
+        int slot = 6;
+        if (!(node instanceof Cable) && te instanceof ISETile) {
+            for (EnumFacing direction : EnumFacing.VALUES) {
+                if (((ISETile) te).getComponent(direction) == node) {
+                    slot = direction.ordinal();
+                    break;
+                }
+            }
+        }
+
+        return mix(mix(te.getPos().toLong()) + slot * 31 + node.getClass().getName().hashCode());
+    }
+
+    private static long[] keysOf(CompiledCircuit circuit) {
+        long[] keys = new long[circuit.size()];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = keyOf(circuit.nodes[i]);
+        return keys;
+    }
+
+    /**
+     * Structure of the island: its nodes and the non-zero pattern of its matrix, regardless of the order and the parameters
+     *
+     * @return 0 if any node of the island can not be identified
+     */
+    private static long fingerprint(CompiledCircuit circuit, int island, long[] keys) {
+        int start = circuit.islandStart[island];
+        int end = circuit.islandStart[island + 1];
+        long fingerprint = mix(end - start);
+
+        for (int row = start; row < end; row++) {
+            if (keys[row] == 0)
+                return 0;
+
+            for (int p = circuit.rowStart[row]; p < circuit.rowStart[row + 1]; p++)
+                fingerprint += mix(keys[row] * 31 + mix(keys[circuit.columns[p]]));
+        }
+
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    ////////////////////////////////////////////////
+    /// Seeding
+    ////////////////////////////////////////////////
+    /**
+     * Use the cached voltages as the initial guess for matching islands, must be called before the circuit is solved
+     *
+     * @param keys keyOf() of every node of the circuit, taken while the parameters were read
+     */
+    public synchronized void apply(CompiledCircuit circuit, long[] keys) {
+        if (this.islands.isEmpty())
+            return;
+
+        for (int island = 0; island < circuit.getIslandCount(); island++) {
+            Integer cached = this.islands.remove(fingerprint(circuit, island, keys));
+            if (cached == null)
+                continue;
+
+            Map<Long, Double> voltages = new HashMap<Long, Double>();
+            for (int i = this.islandStart[cached]; i < this.islandStart[cached + 1]; i++)
+                voltages.put(this.keys[i], this.voltages[i]);
+
+            for (int i = circuit.islandStart[island]; i < circuit.islandStart[island + 1]; i++) {
+                Double voltage = voltages.get(keys[i]);
+                if (voltage != null)
+                    circuit.voltages[i] = voltage;
+            }
+            this.seeded++;
+        }
+    }
+
+    ////////////////////////////////////////////////
+    /// Storage
+    ////////////////////////////////////////////////
+    /**
+     * Store the results of a simulated circuit, islands containing unidentifiable nodes are skipped
+     */
+    public static void write(File file, CompiledCircuit circuit) throws IOException {
+        long[] keys = keysOf(circuit);
+        int islandCount = 0;
+        long[] fingerprints = new long[circuit.getIslandCount()];
+        for (int island = 0; island < circuit.getIslandCount(); island++) {
+            fingerprints[island] = fingerprint(circuit, island, keys);
+            if (fingerprints[island] != 0)
+                islandCount++;
+        }
+
+        GridDataFile.AtomicFile atomicFile = new GridDataFile.AtomicFile(file);
+        try {
+            DataOutputStream out = atomicFile.out;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(islandCount);
+            for (int island = 0; island < circuit.getIslandCount(); island++) {
+                if (fingerprints[island] != 0)
+                    out.writeLong(fingerprints[island]);
+            }
+
+            int start = 0;
+            out.writeInt(start);
+            for (int island = 0; island < circuit.getIslandCount(); island++) {
+                if (fingerprints[island] != 0) {
+                    start += circuit.islandStart[island + 1] - circuit.islandStart[island];
+                    out.writeInt(start);
+                }
+            }
+
+            for (int island = 0; island < circuit.getIslandCount(); island++) {
+                if (fingerprints[island] != 0) {
+                    for (int i = circuit.islandStart[island]; i < circuit.islandStart[island + 1]; i++)
+                        out.writeLong(keys[i]);
+                }
+            }
+            for (int island = 0; island < circuit.getIslandCount(); island++) {
+                if (fingerprints[island] != 0) {
+                    for (int i = circuit.islandStart[island]; i < circuit.islandStart[island + 1]; i++)
+                        out.writeDouble(circuit.voltages[i]);
+                }
+            }
+
+            atomicFile.commit();
+        } finally {
+            atomicFile.close();
+        }
+    }
+
+    /**
+     * @return null if the file does not exist or can not be used
+     */
+    public static WarmStartCache read(File file) {
+        if (!file.exists())
+            return null;
+
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file)), 65536));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                    throw new IOException("Unsupported warm start cache");
+
+                int islandCount = in.readInt();
+                long[] fingerprints = new long[islandCount];
+                for (int k = 0; k < islandCount; k++)
+                    fingerprints[k] = in.readLong();
+                int[] islandStart = new int[islandCount + 1];
+                for (int k = 0; k <= islandCount; k++)
+                    islandStart[k] = in.readInt();
+
+                int size = islandStart[islandCount];
+                long[] keys = new long[size];
+                for (int i = 0; i < size; i++)
+                    keys[i] = in.readLong();
+                double[] voltages = new double[size];
+                for (int i = 0; i < size; i++)
+                    voltages[i] = in.readDouble();
+
+                return new WarmStartCache(fingerprints, islandStart, keys, voltages);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            //Only an initial guess, start from zero instead
+            SELogger.logWarn(SELogger.energyNet, "Ignored the warm start cache " + file + ": " + e);
+            return null;
+        }
+    }
+}
@@ -8,7 +8,7 @@ import simelectricity.energynet.components.SEComponent.Tile;
 public class DiodeInput extends Tile<ISEDiode> implements ISESubComponent<DiodeOutput>, ISEDiode {
     protected volatile DiodeOutput output;
     protected volatile double Rs, Is, Vt, Vfw;
-    private double const1, const2;
+    protected volatile Model model;
 
     public DiodeInput(ISEDiode dataProvider, TileEntity te) {
         super(dataProvider, te);
@@ -26,8 +26,14 @@ public class DiodeInput extends Tile<ISEDiode> implements ISESubComponent<DiodeO
         Is = this.dataProvider.getSaturationCurrent();
         Vt = this.dataProvider.getThermalVoltage();
 
-        this.const1 = this.Vt * Math.log(this.Vt / this.Is / this.Rs) + this.Vfw;
-        this.const2 = -this.Vt / this.Rs * (1 - Math.log(this.Vt / this.Is / this.Rs)) - this.Is;
+        this.model = new Model(this.Rs, this.Is, this.Vt, this.Vfw);
+    }
+
+    /**
+     * @return an immutable snapshot of the current diode parameters
+     */
+    public synchronized Model getModel() {
+        return this.model;
     }
 
     @Override
@@ -46,21 +52,47 @@ public class DiodeInput extends Tile<ISEDiode> implements ISESubComponent<DiodeO
     }
 
     public double calcId(double Vd) {
-        if (Vd > this.const1)
-            return (Vd - this.Vfw) / this.Rs + this.const2;
-        else
-            return this.Is * Math.exp((Vd - this.Vfw) / this.Vt) - this.Is;
+        return this.model.calcId(Vd);
     }
 
     public double calcG(double Vd) {
-        if (Vd > this.const1)
-            return 1.0D / this.Rs;
-        else
-            return this.Is / this.Vt * Math.exp((Vd - this.Vfw) / this.Vt);
+        return this.model.calcG(Vd);
     }
 
     @Override
     public String toString() {
         return "DIn";
     }
+
+    /**
+     * Diode parameters, never changes once created
+     */
+    public static final class Model {
+        private final double Rs, Is, Vt, Vfw;
+        private final double const1, const2;
+
+        public Model(double Rs, double Is, double Vt, double Vfw) {
+            this.Rs = Rs;
+            this.Is = Is;
+            this.Vt = Vt;
+            this.Vfw = Vfw;
+
+            this.const1 = Vt * Math.log(Vt / Is / Rs) + Vfw;
+            this.const2 = -Vt / Rs * (1 - Math.log(Vt / Is / Rs)) - Is;
+        }
+
+        public double calcId(double Vd) {
+            if (Vd > this.const1)
+                return (Vd - this.Vfw) / this.Rs + this.const2;
+            else
+                return this.Is * Math.exp((Vd - this.Vfw) / this.Vt) - this.Is;
+        }
+
+        public double calcG(double Vd) {
+            if (Vd > this.const1)
+                return 1.0D / this.Rs;
+            else
+                return this.Is / this.Vt * Math.exp((Vd - this.Vfw) / this.Vt);
+        }
+    }
 }
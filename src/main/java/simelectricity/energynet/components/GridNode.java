@@ -5,9 +5,7 @@ import net.minecraft.util.math.BlockPos;
 import simelectricity.api.node.ISEGridNode;
 import simelectricity.energynet.SEGraph;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
@@ -20,17 +18,9 @@ public class GridNode extends SEComponent implements ISEGridNode {
     //Transformer secondary/primary
     public GridNode complement;
     public double ratio, resistance;
-    //Only stores resistances between GridNodes!
-    public LinkedList<Double> neighborR = new LinkedList<Double>();
     //Simulation & Optimization
     public Cable interConnection;
-    
-    //Only used for loading
-    private int[] neighborX;
-    private int[] neighborY;
-    private int[] neighborZ;
-    private double[] resistancesBuf;
-    private int complementX, complementY, complementZ;
+    //Edges and their resistances are stored in the SEGraph, see SEGraph.addGridEdge()
 
     public GridNode(BlockPos pos, byte numOfParallelConductor) {
         this.pos = pos;
@@ -51,34 +41,33 @@ public class GridNode extends SEComponent implements ISEGridNode {
         type = nbt.getByte("type");
         numOfParallelConductor = nbt.getByte("numOfParallelConductor");
 
-        neighborX = nbt.getIntArray("neigborX");
-        neighborY = nbt.getIntArray("neigborY");
-        neighborZ = nbt.getIntArray("neigborZ");
-
-        complementY = nbt.getInteger("complementY");
-        if (this.complementY > 0) {
-            complementX = nbt.getInteger("complementX");
-            complementZ = nbt.getInteger("complementZ");
+        if (nbt.getInteger("complementY") > 0) {
             ratio = nbt.getDouble("ratio");
             resistance = nbt.getDouble("resistance");
         }
-
-
-        int numOfNeighbors = this.neighborX.length;
-        resistancesBuf = new double[numOfNeighbors];
-        for (int i = 0; i < numOfNeighbors; i++) {
-            this.resistancesBuf[i] = nbt.getDouble("R" + String.valueOf(i));
-        }
     }
 
-    public void buildNeighborConnection(HashMap<BlockPos, GridNode> gridNodeMap, SEGraph graph) {
-        for (int i = 0; i < this.neighborX.length; i++) {
-            GridNode neighbor = gridNodeMap.get(new BlockPos(this.neighborX[i], this.neighborY[i], this.neighborZ[i]));
+    /**
+     * Second pass of loading, once all GridNodes exist. The connections are read from the same NBT again,
+     * so nothing has to be buffered in the GridNode in between.
+     */
+    public void buildNeighborConnection(NBTTagCompound nbt, Map<BlockPos, GridNode> gridNodeMap, SEGraph graph) {
+        int[] neighborX = nbt.getIntArray("neigborX");
+        int[] neighborY = nbt.getIntArray("neigborY");
+        int[] neighborZ = nbt.getIntArray("neigborZ");
+
+        for (int i = 0; i < neighborX.length; i++) {
+            GridNode neighbor = gridNodeMap.get(new BlockPos(neighborX[i], neighborY[i], neighborZ[i]));
 
-            graph.addGridEdge(this, neighbor, this.resistancesBuf[i]);
+            if (neighbor != null)
+                graph.addGridEdge(this, neighbor, nbt.getDouble("R" + String.valueOf(i)));
         }
 
-        complement = gridNodeMap.get(new BlockPos(this.complementX, this.complementY, this.complementZ));
+        int complementY = nbt.getInteger("complementY");
+        if (complementY > 0) {
+            complement = gridNodeMap.get(new BlockPos(nbt.getInteger("complementX"), complementY, nbt.getInteger("complementZ")));
+            graph.joinComplement(this);
+        }
     }
 
     ///////////////////////
@@ -91,30 +80,20 @@ public class GridNode extends SEComponent implements ISEGridNode {
         nbt.setByte("type", this.type);
         nbt.setByte("numOfParallelConductor", this.numOfParallelConductor);
 
-        int length = 0;
-        for (SEComponent neighbor : this.neighbors) {
-            if (neighbor instanceof GridNode)
-                length++;
-        }
-
-        this.neighborX = new int[length];
-        this.neighborY = new int[length];
-        this.neighborZ = new int[length];
-        int i = 0;
-        Iterator<Double> iterator = this.neighborR.iterator();
-        for (SEComponent neighbor : this.neighbors) {
-            if (neighbor instanceof GridNode) {
-                GridNode gridNode = (GridNode) neighbor;
-                this.neighborX[i] = gridNode.pos.getX();
-                this.neighborY[i] = gridNode.pos.getY();
-                this.neighborZ[i] = gridNode.pos.getZ();
-                nbt.setDouble("R" + String.valueOf(i), iterator.next());
-                i++;
-            }
+        GridNode[] neighbors = this.getNeighborList();
+        int[] neighborX = new int[neighbors.length];
+        int[] neighborY = new int[neighbors.length];
+        int[] neighborZ = new int[neighbors.length];
+        for (int i = 0; i < neighbors.length; i++) {
+            GridNode gridNode = neighbors[i];
+            neighborX[i] = gridNode.pos.getX();
+            neighborY[i] = gridNode.pos.getY();
+            neighborZ[i] = gridNode.pos.getZ();
+            nbt.setDouble("R" + String.valueOf(i), this.graph.getGridResistance(this, gridNode));
         }
-        nbt.setIntArray("neigborX", this.neighborX);
-        nbt.setIntArray("neigborY", this.neighborY);
-        nbt.setIntArray("neigborZ", this.neighborZ);
+        nbt.setIntArray("neigborX", neighborX);
+        nbt.setIntArray("neigborY", neighborY);
+        nbt.setIntArray("neigborZ", neighborZ);
 
         if (this.complement != null) {
             nbt.setInteger("complementX", this.complement.getPos().getX());
@@ -128,18 +107,11 @@ public class GridNode extends SEComponent implements ISEGridNode {
     }
 
 
+    /**
+     * @return resistance of the edge to the neighbor, NaN if not connected, an O(1) lookup in the edge table of the SEGraph
+     */
     public double getResistance(GridNode neighbor) {
-        Iterator<SEComponent> iterator1 = this.neighbors.iterator();
-        Iterator<Double> iterator2 = this.neighborR.iterator();
-        while (iterator1.hasNext()) {
-            SEComponent cur = iterator1.next();
-            if (cur instanceof GridNode) {
-                double res = iterator2.next();
-                if (cur == neighbor)
-                    return res;
-            }
-        }
-        return Double.NaN;
+        return this.graph == null ? Double.NaN : this.graph.getGridResistance(this, neighbor);
     }
 
     ///////////////////////////////
@@ -147,14 +119,8 @@ public class GridNode extends SEComponent implements ISEGridNode {
     ///////////////////////////////
     @Override
     @Nonnull
-    public ISEGridNode[] getNeighborList() {
-        ISEGridNode[] ret = new ISEGridNode[neighbors.size()];
-        int i = 0;
-        for (SEComponent neighbor : neighbors) {
-            ret[i] = (ISEGridNode) neighbor;
-            i++;
-        }
-        return ret;
+    public GridNode[] getNeighborList() {
+        return this.graph == null ? new GridNode[0] : this.graph.getGridNeighbors(this);
     }
 
     @Override
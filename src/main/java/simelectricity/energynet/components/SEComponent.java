@@ -3,8 +3,8 @@ package simelectricity.energynet.components;
 import net.minecraft.tileentity.TileEntity;
 import simelectricity.api.components.ISEComponentParameter;
 import simelectricity.api.node.ISESimulatable;
+import simelectricity.energynet.SEGraph;
 
-import java.util.LinkedList;
 
 public abstract class SEComponent implements ISESimulatable, ISEComponentParameter {
     public boolean isValid;
@@ -14,19 +14,23 @@ public abstract class SEComponent implements ISESimulatable, ISEComponentParamet
     public TileEntity te;
 
 
-    //Optimization and simulation runtime
-    public boolean visited;
+    //Simulation runtime
+    //Set when the results are published, true if the wire was removed by the topology reduction
     public boolean eliminated;
-    public LinkedList<SEComponent> optimizedNeighbors = new LinkedList<SEComponent>();
-    public LinkedList<Double> optimizedResistance = new LinkedList<Double>();
+    //Scratch index, only valid while taking a snapshot or compiling a circuit
     public int index;
 
 
     public volatile double voltageCache;
+    //Only valid for wires eliminated by the optimizer
+    public volatile double currentCache;
+    //Epoch of the last published result which changed the voltage (or current) of this node
+    public int resultEpoch;
     /**
-     * Adjacency lists, part of graph
+     * Id of the node within the graph, its adjacency is stored in the graph, -1 if not in a graph
      */
-    public LinkedList<SEComponent> neighbors = new LinkedList<SEComponent>();
+    public int id = -1;
+    public SEGraph graph;
 
 
     /**
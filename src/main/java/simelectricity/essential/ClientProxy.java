@@ -8,9 +8,12 @@ import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 
 import simelectricity.essential.api.SEEAPI;
+import simelectricity.essential.client.LightUpdateQueue;
 import simelectricity.essential.client.coverpanel.LedPanelRender;
 import simelectricity.essential.client.coverpanel.VoltageSensorRender;
 import simelectricity.essential.client.grid.GridRenderMonitor;
+import simelectricity.essential.client.grid.GridRenderRegions;
+import simelectricity.essential.utils.network.TelemetryClient;
 
 import java.util.LinkedList;
 
@@ -51,5 +54,8 @@ public class ClientProxy extends CommonProxy {
     @Override
     public void postInit() {
     	MinecraftForge.EVENT_BUS.register(new GridRenderMonitor());
+    	MinecraftForge.EVENT_BUS.register(new GridRenderRegions());
+    	MinecraftForge.EVENT_BUS.register(new TelemetryClient());
+    	MinecraftForge.EVENT_BUS.register(new LightUpdateQueue());
     }
 }
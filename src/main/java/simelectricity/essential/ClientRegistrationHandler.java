@@ -10,12 +10,12 @@ import net.minecraftforge.fml.relauncher.Side;
 import rikka.librikka.model.loader.AdvancedModelLoader;
 import simelectricity.essential.client.cable.CableStateMapper;
 import simelectricity.essential.client.coverpanel.SupportRender;
-import simelectricity.essential.client.grid.FastTESRPowerPole;
 import simelectricity.essential.client.grid.GridStateMapper;
-import simelectricity.essential.client.grid.pole.FastTESRPowerPole2;
-import simelectricity.essential.client.grid.pole.FastTESRPowerPole3;
+import simelectricity.essential.client.grid.PowerPoleBaker;
 import simelectricity.essential.client.grid.pole.FastTESRPowerPoleBottom;
-import simelectricity.essential.client.grid.pole.FastTESRPowerPoleTop;
+import simelectricity.essential.client.grid.pole.PowerPole2Baker;
+import simelectricity.essential.client.grid.pole.PowerPole3Baker;
+import simelectricity.essential.client.grid.pole.PowerPoleTopBaker;
 import simelectricity.essential.client.grid.transformer.FastTESRPowerTransformer;
 import simelectricity.essential.client.semachine.SEMachineStateMapper;
 import simelectricity.essential.client.semachine.SocketRender;
@@ -75,24 +75,25 @@ public class ClientRegistrationHandler {
     	
     	SocketRender.stitchTexture(map);
     	SupportRender.stitchTexture(map);
-    	FastTESRPowerPole.stitchTexture(map);
+    	PowerPoleBaker.stitchTexture(map);
     }
 	
 	public static void registerTileEntityRenders() {
-        FastTESRPowerPole.register(Primary.class);
-        FastTESRPowerPole.register(Secondary.class);
-        FastTESRPowerPole.register(Pole10Kv.Type0.class);
-        FastTESRPowerPole.register(Pole415vType0.class);
+        PowerPoleBaker.register(Primary.class);
+        PowerPoleBaker.register(Secondary.class);
+        PowerPoleBaker.register(Pole10Kv.Type0.class);
+        PowerPoleBaker.register(Pole415vType0.class);
         
-        FastTESRPowerPole.register(TileDistributionTransformer.Pole10kV.class);
-        FastTESRPowerPole.register(TileDistributionTransformer.Pole415V.class);
+        PowerPoleBaker.register(TileDistributionTransformer.Pole10kV.class);
+        PowerPoleBaker.register(TileDistributionTransformer.Pole415V.class);
         
+        PowerPoleBaker.register(TilePowerPole.class, PowerPoleTopBaker.instance);
+        PowerPoleBaker.register(TilePowerPole2.class, PowerPole2Baker.instance);
+        PowerPoleBaker.register(TilePowerPole3.Pole10Kv.Type1.class, PowerPole3Baker.instance);
+        PowerPoleBaker.register(TilePoleBranch.Type10kV.class, PowerPole3Baker.instance);
+        PowerPoleBaker.register(TilePoleBranch.Type415V.class, PowerPole3Baker.instance);
+
         ClientRegistry.bindTileEntitySpecialRenderer(BlockPowerPoleBottom.Tile.class, FastTESRPowerPoleBottom.instance);
-        ClientRegistry.bindTileEntitySpecialRenderer(TilePowerPole.class, FastTESRPowerPoleTop.instance);
-        ClientRegistry.bindTileEntitySpecialRenderer(TilePowerPole2.class, FastTESRPowerPole2.instance);
-        ClientRegistry.bindTileEntitySpecialRenderer(TilePowerPole3.Pole10Kv.Type1.class, FastTESRPowerPole3.instance);
-        ClientRegistry.bindTileEntitySpecialRenderer(TilePoleBranch.Type10kV.class, FastTESRPowerPole3.instance);
-        ClientRegistry.bindTileEntitySpecialRenderer(TilePoleBranch.Type415V.class, FastTESRPowerPole3.instance);
         ClientRegistry.bindTileEntitySpecialRenderer(TilePowerTransformerPlaceHolder.Render.class, FastTESRPowerTransformer.instance);
 	}
 }
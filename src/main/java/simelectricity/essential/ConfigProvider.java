@@ -14,17 +14,29 @@ public class ConfigProvider implements ISEConfigHandler {
 	
 	@SideOnly(Side.CLIENT)
     public static int parabolaRenderSteps;
+	@SideOnly(Side.CLIENT)
+    public static int lightUpdatesPerFrame;
 	
 	public static final String CATEGORY_CONVERSION = "conversion";
 	public static float joule2rf; 
 	
+	public static final String CATEGORY_GUI = "gui";
+	public static int guiSignificantDigits;
+	public static int guiSyncInterval;
+	public static int telemetryRange;
+	
 	@Override
 	public void onConfigChanged(Configuration config, boolean isClient) {
         //Client-only configurations
         if (isClient) {
         	this.parabolaRenderSteps = config.getInt("Cable Render Step Size", Configuration.CATEGORY_CLIENT, 12, 0, Integer.MAX_VALUE, "The higher this number is, the smoother the catenary cable will be. (must be EVEN! CLIENT ONLY!)");
+        	this.lightUpdatesPerFrame = config.getInt("Light Updates Per Frame", Configuration.CATEGORY_CLIENT, 32, 1, 4096, "Lamps whose light level changed are relit at most this many per frame, the rest wait for the next frames. (CLIENT ONLY!)");
         }
         
         this.joule2rf = config.getFloat("Joule to RF conversion ratio", CATEGORY_CONVERSION, 1, 0, Float.MAX_VALUE, "This number determines how many RF equal to 1 Joule");
+        
+        this.guiSignificantDigits = config.getInt("Measured Value Digits", CATEGORY_GUI, 3, 0, 17, "Voltages, currents and other measured values shown in machine GUIs are rounded to this many significant digits before being sent to the player, small fluctuations are not sent at all. 0 sends the exact value");
+        this.guiSyncInterval = config.getInt("Measured Value Sync Interval", CATEGORY_GUI, 4, 1, 200, "Minimum number of ticks between two updates of measured values sent to a player who has a machine GUI open. Settings are always sent immediately");
+        this.telemetryRange = config.getInt("Telemetry Range", CATEGORY_GUI, 64, 1, 256, "Players receive live voltage and current readings (meters, HUDs) of nodes within this many blocks, subscriptions further away expire");
 	}
 }
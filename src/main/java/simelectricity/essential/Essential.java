@@ -9,6 +9,7 @@ import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
@@ -20,6 +21,11 @@ import simelectricity.essential.cable.CableWatchEventHandler;
 import simelectricity.essential.coverpanel.CoverPanelRegistry;
 import simelectricity.essential.coverpanel.SECoverPanelFactory;
 import simelectricity.essential.utils.network.MessageContainerSync;
+import simelectricity.essential.utils.network.MessageTelemetry;
+import simelectricity.essential.utils.network.MessageTelemetrySubscribe;
+import simelectricity.essential.utils.network.MessageTileSync;
+import simelectricity.essential.utils.network.TelemetryService;
+import simelectricity.essential.utils.network.TileSyncBatcher;
 
 
 @Mod(modid = Essential.MODID, name = "SimElectricity Essential", dependencies = "required-after:simelectricity")
@@ -46,6 +52,11 @@ public class Essential {
         networkChannel = NetworkRegistry.INSTANCE.newSimpleChannel(Essential.MODID);
         networkChannel.registerMessage(MessageContainerSync.HandlerClient.class, MessageContainerSync.class, 0, Side.CLIENT);
         networkChannel.registerMessage(MessageContainerSync.HandlerServer.class, MessageContainerSync.class, 1, Side.SERVER);
+        networkChannel.registerMessage(MessageTileSync.Handler.class, MessageTileSync.class, 2, Side.CLIENT);
+        networkChannel.registerMessage(MessageTelemetry.Handler.class, MessageTelemetry.class, 3, Side.CLIENT);
+        networkChannel.registerMessage(MessageTelemetrySubscribe.Handler.class, MessageTelemetrySubscribe.class, 4, Side.SERVER);
+        MinecraftForge.EVENT_BUS.register(new TileSyncBatcher());
+        MinecraftForge.EVENT_BUS.register(new TelemetryService());
         
         proxy.preInit();
     }
@@ -91,5 +102,12 @@ public class Essential {
     public void postInit(FMLPostInitializationEvent event) {
     	proxy.postInit();
         SEEAPI.coverPanelRegistry.registerCoverPanelFactory(new SECoverPanelFactory());
+        SEEAPI.coverPanelRegistry.registerCoverPanelType("LedPanel");
+        SEEAPI.coverPanelRegistry.registerCoverPanelType("VoltageSensorPanel");
+    }
+
+    @Mod.EventHandler
+    public void serverStopped(FMLServerStoppedEvent event) {
+        TelemetryService.onServerStopped();
     }
 }
@@ -1,5 +1,6 @@
 package simelectricity.essential.api.internal;
 
+import io.netty.buffer.ByteBuf;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import simelectricity.essential.api.ISECoverPanelFactory;
@@ -11,4 +12,18 @@ public interface ISECoverPanelRegistry {
     ISECoverPanel fromItemStack(ItemStack itemStack);
 
     ISECoverPanel fromNBT(NBTTagCompound nbt);
+
+    /**
+     * Assign a network id to a cover panel type (the "coverPanelType" string written by ISECoverPanel.toNBT()),
+     * ids are given in registration order, so both sides must register the same types in the same order.
+     * Cover panels of unregistered types are still synchronized, with their type name
+     */
+    void registerCoverPanelType(String coverPanelType);
+
+    /**
+     * Write a cover panel (can be null) for Server->Client synchronization
+     */
+    void toBytes(ISECoverPanel coverPanel, ByteBuf buf);
+
+    ISECoverPanel fromBytes(ByteBuf buf);
 }
@@ -1,5 +1,6 @@
 package simelectricity.essential.cable;
 
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.Container;
@@ -22,9 +23,17 @@ import simelectricity.essential.api.ISEGenericCable;
 import simelectricity.essential.api.ISEIuminousCoverPanelHost;
 import simelectricity.essential.api.SEEAPI;
 import simelectricity.essential.api.coverpanel.*;
+import simelectricity.essential.client.LightUpdateQueue;
 import simelectricity.essential.common.SEEnergyTile;
+import simelectricity.essential.utils.network.ISEBinarySyncTile;
+import simelectricity.essential.utils.network.TileSyncBatcher;
+
+public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIuminousCoverPanelHost, ISECableTile, ISEEnergyNetUpdateHandler, IGuiProviderTile, ISEBinarySyncTile {
+    //Fields of the binary sync, see ISEBinarySyncTile
+    private static final int SYNC_CONNECTIONS = 1;
+    private static final int SYNC_COVER_PANELS = 2;
+    private static final int SYNC_LIGHT_LEVEL = 4;
 
-public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIuminousCoverPanelHost, ISECableTile, ISEEnergyNetUpdateHandler, IGuiProviderTile {
     public boolean emitRedstoneSignal;
     /**
      * Accessible from client
@@ -71,6 +80,30 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
         }
     }
 
+    private byte connectionsToByte() {
+        byte bc = 0x00;
+        for (int i = 0; i < 6; i++) {
+            if (this.connections[i])
+                bc |= 1 << i;
+        }
+        return bc;
+    }
+
+    private void connectionsFromByte(byte connectionsBinary) {
+        for (int i = 0; i < 6; i++)
+            this.connections[i] = (connectionsBinary & (1 << i)) > 0;
+    }
+
+    @SideOnly(Side.CLIENT)
+    private void onLightLevelArrived(byte lightLevel) {
+        if (this.lightLevel != lightLevel) {
+            this.lightLevel = lightLevel;
+            //Detect change & proceed
+            LightUpdateQueue.enqueue(this.world, this.pos);
+            //world.updateLightByType(EnumSkyBlock.Block, xCoord, yCoord, zCoord);	//checkLightFor
+        }
+    }
+
     public void setResistanceOnPlace(double resistance) {
         this.resistance = resistance;
     }
@@ -88,7 +121,7 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
 
 
         //Initiate Server->Client synchronization
-		this.markTileEntityForS2CSync();
+        TileSyncBatcher.markDirty(this, SYNC_CONNECTIONS);
     }
 
     @Override
@@ -138,6 +171,7 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
         if (coverPanel instanceof ISEElectricalLoadCoverPanel)
             SEAPI.energyNetAgent.updateTileConnection(this);
 
+        TileSyncBatcher.markDirty(this, SYNC_COVER_PANELS);
 		this.onCableRenderingUpdateRequested();
     }
 
@@ -168,6 +202,7 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
         if (coverPanel instanceof ISERedstoneEmitterCoverPanel)
 			this.world.notifyNeighborsOfStateChange(this.pos, this.blockType, false);
 
+        TileSyncBatcher.markDirty(this, SYNC_COVER_PANELS);
 		this.onCableRenderingUpdateRequested();
 
         if (!coverPanel.isHollow())
@@ -262,19 +297,12 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
     ////////////////////////////////////////
     //Server->Client sync
     ////////////////////////////////////////
+    //Full state, sent with the chunk
     @Override
     public void prepareS2CPacketData(NBTTagCompound nbt) {
         super.prepareS2CPacketData(nbt);
 
-        byte bc = 0x00;
-        if (this.connections[0]) bc |= 1;
-        if (this.connections[1]) bc |= 2;
-        if (this.connections[2]) bc |= 4;
-        if (this.connections[3]) bc |= 8;
-        if (this.connections[4]) bc |= 16;
-        if (this.connections[5]) bc |= 32;
-
-        nbt.setByte("connections", bc);
+        nbt.setByte("connections", this.connectionsToByte());
 
         nbt.setTag("coverPanels", this.coverPanelsToNBT());
 
@@ -284,29 +312,55 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
     @SideOnly(Side.CLIENT)
     @Override
     public void onSyncDataFromServerArrived(NBTTagCompound nbt) {
-        byte connectionsBinary = nbt.getByte("connections");
-
-		connections[0] = (connectionsBinary & 1) > 0;
-		connections[1] = (connectionsBinary & 2) > 0;
-		connections[2] = (connectionsBinary & 4) > 0;
-		connections[3] = (connectionsBinary & 8) > 0;
-		connections[4] = (connectionsBinary & 16) > 0;
-		connections[5] = (connectionsBinary & 32) > 0;
+        this.connectionsFromByte(nbt.getByte("connections"));
 
 		this.coverPanelsFromNBT(nbt.getTagList("coverPanels", NBT.TAG_COMPOUND));
 
-        byte lightLevel = nbt.getByte("lightLevel");
-        if (this.lightLevel != lightLevel) {
-            this.lightLevel = lightLevel;
-            //Detect change & proceed
-			this.world.checkLight(this.pos);
-            //world.updateLightByType(EnumSkyBlock.Block, xCoord, yCoord, zCoord);	//checkLightFor
-        }
+        this.onLightLevelArrived(nbt.getByte("lightLevel"));
 
         // Flag 1 - update Rendering Only!
 		this.markForRenderUpdate();
     }
 
+    //Changes, batched per chunk
+    @Override
+    public void writeSyncData(ByteBuf buf, int fields) {
+        if ((fields & SYNC_CONNECTIONS) != 0)
+            buf.writeByte(this.connectionsToByte());
+
+        if ((fields & SYNC_COVER_PANELS) != 0) {
+            for (ISECoverPanel coverPanel : this.installedCoverPanels)
+                SEEAPI.coverPanelRegistry.toBytes(coverPanel, buf);
+        }
+
+        if ((fields & SYNC_LIGHT_LEVEL) != 0)
+            buf.writeByte(this.lightLevel);
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public void readSyncData(ByteBuf buf, int fields) {
+        if ((fields & SYNC_CONNECTIONS) != 0)
+            this.connectionsFromByte(buf.readByte());
+
+        if ((fields & SYNC_COVER_PANELS) != 0) {
+            for (int i = 0; i < this.installedCoverPanels.length; i++) {
+                ISECoverPanel coverPanel = SEEAPI.coverPanelRegistry.fromBytes(buf);
+                this.installedCoverPanels[i] = coverPanel;
+
+                if (coverPanel != null)
+                    coverPanel.setHost(this, EnumFacing.getFront(i));
+            }
+        }
+
+        if ((fields & SYNC_LIGHT_LEVEL) != 0)
+            this.onLightLevelArrived(buf.readByte());
+
+        //The light level alone does not change the model
+        if ((fields & (SYNC_CONNECTIONS | SYNC_COVER_PANELS)) != 0)
+            this.markForRenderUpdate();
+    }
+
     ////////////////////////////////////////
     //ISEEnergyNetUpdateHandler
     ////////////////////////////////////////
@@ -345,7 +399,7 @@ public class TileCable extends SEEnergyTile implements ISEGenericCable, ISEIumin
 
         if (this.lightLevel != lightLevel) {
             this.lightLevel = lightLevel;
-			markTileEntityForS2CSync();
+            TileSyncBatcher.markDirty(this, SYNC_LIGHT_LEVEL);
         }
     }
 }
@@ -0,0 +1,61 @@
+package simelectricity.essential.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import simelectricity.essential.ConfigProvider;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Light levels of lamps and luminous cover panels arrive in bursts (e.g. a whole street dims in a brownout),
+ * instead of relighting each position as it arrives, the positions are queued (once each) and relit
+ * at most {@link ConfigProvider#lightUpdatesPerFrame} per frame, oldest first.
+ * <p/>
+ * Client thread only
+ */
+@SideOnly(Side.CLIENT)
+public class LightUpdateQueue {
+    private static final LinkedHashSet<BlockPos> pending = new LinkedHashSet<BlockPos>();
+    private static World world;
+
+    public static void enqueue(World world, BlockPos pos) {
+        //Positions of the previous world are meaningless
+        if (LightUpdateQueue.world != world) {
+            LightUpdateQueue.pending.clear();
+            LightUpdateQueue.world = world;
+        }
+
+        LightUpdateQueue.pending.add(pos.toImmutable());
+    }
+
+    @SubscribeEvent
+    public void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || LightUpdateQueue.pending.isEmpty())
+            return;
+
+        World world = Minecraft.getMinecraft().world;
+        if (world != LightUpdateQueue.world) {
+            LightUpdateQueue.pending.clear();
+            LightUpdateQueue.world = null;
+            return;
+        }
+
+        int budget = ConfigProvider.lightUpdatesPerFrame;
+        Iterator<BlockPos> iterator = LightUpdateQueue.pending.iterator();
+        while (iterator.hasNext() && budget > 0) {
+            BlockPos pos = iterator.next();
+            iterator.remove();
+
+            if (world.isBlockLoaded(pos)) {
+                world.checkLight(pos);
+                budget--;
+            }
+        }
+    }
+}
@@ -66,6 +66,7 @@ public class GridRenderMonitor {
             	ISEPowerPole pole = iterator.next();
             	pole.getRenderHelper().postUpdate();
             	PoleAccessoryRendererDispatcher.render(theWorld, pole, pole.getAccessoryPos());
+            	GridRenderRegions.markDirty(pole);
             	iterator.remove();
             }
             this.processedTiles.clear();
@@ -87,6 +88,7 @@ public class GridRenderMonitor {
         			continue;
         		
         		helper.postUpdate();
+        		GridRenderRegions.markDirty((ISEPowerPole) tile);
         	}
         }
     }
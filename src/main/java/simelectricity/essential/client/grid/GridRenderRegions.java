@@ -0,0 +1,275 @@
+package simelectricity.essential.client.grid;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.VertexBuffer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.client.model.pipeline.LightUtil;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.lwjgl.opengl.GL11;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Draws the baked cables, insulators and models of all power poles, merged into render regions of
+ * 2^REGION_SHIFT x 2^REGION_SHIFT blocks.
+ * <p/>
+ * Each region compiles the quads of its poles into one display list and keeps the bounding box of all its spans,
+ * so a frame costs one frustum test per region and one draw call per visible region, no matter how many poles there are.
+ * A region is rebuilt when one of its poles is updated (see GridRenderMonitor) or unloaded.
+ * <p/>
+ * Client thread only
+ */
+@SideOnly(Side.CLIENT)
+public class GridRenderRegions {
+    public static final int REGION_SHIFT = 6;
+    //Same as the render distance of the power pole tiles
+    public static final double MAX_RENDER_DISTANCE_SQUARED = 100000;
+
+    private static final Map<Long, Region> regions = new HashMap<Long, Region>();
+    private static World world;
+
+    private static final class Region {
+        final BlockPos origin;
+        final Set<TileEntity> poles = new HashSet<TileEntity>();
+        boolean dirty;
+        int displayList;
+        //null if nothing has been baked
+        AxisAlignedBB boundingBox;
+
+        private Region(BlockPos origin) {
+            this.origin = origin;
+        }
+
+        private void compile() {
+            this.dirty = false;
+            this.boundingBox = null;
+
+            if (this.displayList == 0)
+                this.displayList = GLAllocation.generateDisplayLists(1);
+
+            GlStateManager.glNewList(this.displayList, GL11.GL_COMPILE);
+
+            Tessellator tessellator = Tessellator.getInstance();
+            VertexBuffer buffer = tessellator.getBuffer();
+            buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.BLOCK);
+
+            int i = 15728640;
+            for (TileEntity te : this.poles) {
+                PowerPoleRenderHelper helper = ((ISEPowerPole) te).getRenderHelper();
+                PowerPoleBaker baker = PowerPoleBaker.getBaker(te);
+                //e.g. pole accessories, they are baked into their host
+                if (helper == null || baker == null)
+                    continue;
+
+                if (helper.needBake()) {
+                    baker.bake(te, helper);
+                    helper.renderBoundingBox = getBoundingBox(helper);
+                }
+
+                if (helper.renderBoundingBox == null)
+                    continue;
+
+                this.boundingBox = this.boundingBox == null ? helper.renderBoundingBox : this.boundingBox.union(helper.renderBoundingBox);
+
+                //The quads are relative to the pole
+                BlockPos pos = helper.pos;
+                buffer.setTranslation(pos.getX() - this.origin.getX(), pos.getY() - this.origin.getY(), pos.getZ() - this.origin.getZ());
+                for (BakedQuad quad : helper.quadBuffer) {
+                    buffer.addVertexData(quad.getVertexData());
+                    buffer.putBrightness4(i, i, i, i);
+
+                    float diffuse = 1;
+                    if (quad.shouldApplyDiffuseLighting())
+                        diffuse = LightUtil.diffuseLight(quad.getFace());
+
+                    buffer.putColorMultiplier(diffuse, diffuse, diffuse, 4);
+                    buffer.putColorMultiplier(diffuse, diffuse, diffuse, 3);
+                    buffer.putColorMultiplier(diffuse, diffuse, diffuse, 2);
+                    buffer.putColorMultiplier(diffuse, diffuse, diffuse, 1);
+
+                    buffer.putPosition(0, 0, 0);
+                }
+            }
+
+            buffer.setTranslation(0, 0, 0);
+            tessellator.draw();
+            GlStateManager.glEndList();
+        }
+
+        private void release() {
+            if (this.displayList != 0)
+                GLAllocation.deleteDisplayLists(this.displayList);
+            this.displayList = 0;
+        }
+    }
+
+    /**
+     * Adds the pole to its region if necessary and rebuilds the region before the next frame,
+     * call this after the PowerPoleRenderHelper of the pole is updated
+     */
+    public static void markDirty(ISEPowerPole pole) {
+        TileEntity te = (TileEntity) pole;
+
+        //Regions of the previous world are meaningless
+        if (GridRenderRegions.world != te.getWorld()) {
+            GridRenderRegions.clear();
+            GridRenderRegions.world = te.getWorld();
+        }
+
+        BlockPos pos = te.getPos();
+        int regionX = pos.getX() >> REGION_SHIFT;
+        int regionZ = pos.getZ() >> REGION_SHIFT;
+        long key = ChunkPos.asLong(regionX, regionZ);
+
+        Region region = GridRenderRegions.regions.get(key);
+        if (region == null) {
+            region = new Region(new BlockPos(regionX << REGION_SHIFT, 0, regionZ << REGION_SHIFT));
+            GridRenderRegions.regions.put(key, region);
+        }
+
+        region.poles.add(te);
+        region.dirty = true;
+    }
+
+    private static void clear() {
+        for (Region region : GridRenderRegions.regions.values())
+            region.release();
+        GridRenderRegions.regions.clear();
+        GridRenderRegions.world = null;
+    }
+
+    /**
+     * @return the bounds of the baked quads in world coordinates, null if there is no quad
+     */
+    private static AxisAlignedBB getBoundingBox(PowerPoleRenderHelper helper) {
+        if (helper.quadBuffer.isEmpty())
+            return null;
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (BakedQuad quad : helper.quadBuffer) {
+            int[] vertexData = quad.getVertexData();
+            int stride = quad.getFormat().getIntegerSize();
+            for (int offset = 0; offset < vertexData.length; offset += stride) {
+                float x = Float.intBitsToFloat(vertexData[offset]);
+                float y = Float.intBitsToFloat(vertexData[offset + 1]);
+                float z = Float.intBitsToFloat(vertexData[offset + 2]);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+        }
+
+        BlockPos pos = helper.pos;
+        return new AxisAlignedBB(minX + pos.getX(), minY + pos.getY(), minZ + pos.getZ(),
+                maxX + pos.getX(), maxY + pos.getY(), maxZ + pos.getZ());
+    }
+
+    private static double distanceSq(AxisAlignedBB bb, double x, double y, double z) {
+        double dx = Math.max(Math.max(bb.minX - x, x - bb.maxX), 0);
+        double dy = Math.max(Math.max(bb.minY - y, y - bb.maxY), 0);
+        double dz = Math.max(Math.max(bb.minZ - z, z - bb.maxZ), 0);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    //Drop unloaded poles
+    @SubscribeEvent
+    public void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || GridRenderRegions.regions.isEmpty())
+            return;
+
+        if (Minecraft.getMinecraft().world != GridRenderRegions.world) {
+            GridRenderRegions.clear();
+            return;
+        }
+
+        Iterator<Region> iterator = GridRenderRegions.regions.values().iterator();
+        while (iterator.hasNext()) {
+            Region region = iterator.next();
+
+            Iterator<TileEntity> poleIterator = region.poles.iterator();
+            while (poleIterator.hasNext()) {
+                if (poleIterator.next().isInvalid()) {
+                    poleIterator.remove();
+                    region.dirty = true;
+                }
+            }
+
+            if (region.poles.isEmpty()) {
+                region.release();
+                iterator.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onRenderWorldLast(RenderWorldLastEvent event) {
+        Minecraft mc = Minecraft.getMinecraft();
+        if (GridRenderRegions.regions.isEmpty() || mc.world != GridRenderRegions.world)
+            return;
+
+        for (Region region : GridRenderRegions.regions.values()) {
+            if (region.dirty)
+                region.compile();
+        }
+
+        Entity viewer = mc.getRenderViewEntity();
+        float partialTicks = event.getPartialTicks();
+        double x = viewer.lastTickPosX + (viewer.posX - viewer.lastTickPosX) * partialTicks;
+        double y = viewer.lastTickPosY + (viewer.posY - viewer.lastTickPosY) * partialTicks;
+        double z = viewer.lastTickPosZ + (viewer.posZ - viewer.lastTickPosZ) * partialTicks;
+
+        Frustum frustum = new Frustum();
+        frustum.setPosition(x, y, z);
+
+        boolean lighting = GL11.glIsEnabled(GL11.GL_LIGHTING);
+
+        mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+        RenderHelper.disableStandardItemLighting();
+        mc.entityRenderer.enableLightmap();
+        GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+        GlStateManager.enableBlend();
+        GlStateManager.disableCull();
+
+        for (Region region : GridRenderRegions.regions.values()) {
+            AxisAlignedBB bb = region.boundingBox;
+            if (bb == null || distanceSq(bb, x, y, z) > MAX_RENDER_DISTANCE_SQUARED || !frustum.isBoundingBoxInFrustum(bb))
+                continue;
+
+            GlStateManager.pushMatrix();
+            GlStateManager.translate(region.origin.getX() - x, region.origin.getY() - y, region.origin.getZ() - z);
+            GlStateManager.callList(region.displayList);
+            GlStateManager.popMatrix();
+        }
+
+        GlStateManager.enableCull();
+        GlStateManager.disableBlend();
+        mc.entityRenderer.disableLightmap();
+        if (lighting)
+            RenderHelper.enableStandardItemLighting();
+    }
+}
@@ -1,8 +1,11 @@
 package simelectricity.essential.client.grid;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
-import net.minecraft.client.renderer.VertexBuffer;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.texture.TextureMap;
@@ -11,8 +14,6 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3i;
-import net.minecraftforge.client.model.animation.FastTESR;
-import net.minecraftforge.fml.client.registry.ClientRegistry;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -24,23 +25,54 @@ import simelectricity.essential.ConfigProvider;
 import simelectricity.essential.client.ResourcePaths;
 import simelectricity.essential.client.grid.PowerPoleRenderHelper.ConnectionInfo;
 
+/**
+ * Bakes the cables, insulators and models of power poles into their PowerPoleRenderHelper.
+ * <p/>
+ * This used to be the FastTESR of power poles. Power poles are not bound to a TESR anymore,
+ * so the TileEntityRendererDispatcher never visits them and register() does not bind one.
+ * GridRenderRegions merges the baked quads into render regions and draws those,
+ * it finds the baker of a tile through register().
+ * Subclasses override bake() to add their own models.
+ */
 @SideOnly(Side.CLIENT)
-public class FastTESRPowerPole<T extends TileEntity & ISEPowerPole> extends FastTESR<T> {	
-    private static FastTESRPowerPole instance;
+public class PowerPoleBaker<T extends TileEntity & ISEPowerPole> {	
+    private static PowerPoleBaker instance;
     private static TextureAtlasSprite texture;
+    private static final Map<Class<? extends TileEntity>, PowerPoleBaker> bakers = new HashMap<Class<? extends TileEntity>, PowerPoleBaker>();
 
     /**
-     * Do not call this
+     * Called by ClientRegistrationHandler when the block textures are stitched, do not call this anywhere else
      */
     public static void stitchTexture(TextureMap map) {
         texture = map.registerSprite(new ResourceLocation(ResourcePaths.hv_cable));
     }
     
+    /**
+     * Bake the power poles of the class with the default baker, only registers the baker, no TESR is bound
+     */
     public static <T extends TileEntity & ISEPowerPole> void register(Class<T> cls) {
-        if (FastTESRPowerPole.instance == null)
-        	FastTESRPowerPole.instance = new FastTESRPowerPole();
+        if (PowerPoleBaker.instance == null)
+        	PowerPoleBaker.instance = new PowerPoleBaker();
+
+        register(cls, PowerPoleBaker.instance);
+    }
+
+    public static <T extends TileEntity & ISEPowerPole> void register(Class<T> cls, PowerPoleBaker baker) {
+        PowerPoleBaker.bakers.put(cls, baker);
+    }
+
+    /**
+     * @return the baker registered for the class of the tile or its closest superclass, null if there is none
+     */
+    @Nullable
+    public static PowerPoleBaker getBaker(TileEntity te) {
+        for (Class<?> cls = te.getClass(); cls != TileEntity.class && cls != null; cls = cls.getSuperclass()) {
+            PowerPoleBaker baker = PowerPoleBaker.bakers.get(cls);
+            if (baker != null)
+                return baker;
+        }
 
-        ClientRegistry.bindTileEntitySpecialRenderer(cls, FastTESRPowerPole.instance);
+        return null;
     }
 
     public static RawQuadGroup renderParabolicCable(Object[] vertexAndTension, float thickness) {
@@ -144,14 +176,9 @@ public class FastTESRPowerPole<T extends TileEntity & ISEPowerPole> extends Fast
     }
     
     /////////////////////////
-    //// FastTESRPowerPole
+    //// Baking
     /////////////////////////
     
-    @Override
-    public boolean isGlobalRenderer(TileEntity te) {
-        return true;
-    }
-    
     protected void bake(T te, PowerPoleRenderHelper helper) {
     	if (helper.extraWireList.isEmpty() && helper.connectionList.isEmpty())
     		return;
@@ -173,37 +200,4 @@ public class FastTESRPowerPole<T extends TileEntity & ISEPowerPole> extends Fast
         	group.bake(helper.quadBuffer);
         }
     }
-    
-	@Override
-	public void renderTileEntityFast(T te, double x, double y, double z, float partialTicks, int destroyStage, VertexBuffer buffer) {
-		if (te.isInvalid())
-			return;
-		
-		PowerPoleRenderHelper helper = te.getRenderHelper();
-		
-        if (helper == null)
-            return;
-              
-        if (helper.needBake())
-        	bake(te, helper);
-        
-		buffer.setTranslation(x, y, z);
-		
-		int i = 15728640;
-		for (BakedQuad quad: helper.quadBuffer) {
-			buffer.addVertexData(quad.getVertexData());
-			buffer.putBrightness4(i, i, i, i);
-			
-			float diffuse = 1;
-            if(quad.shouldApplyDiffuseLighting())
-                diffuse = net.minecraftforge.client.model.pipeline.LightUtil.diffuseLight(quad.getFace());
-
-            buffer.putColorMultiplier(diffuse, diffuse, diffuse, 4);
-            buffer.putColorMultiplier(diffuse, diffuse, diffuse, 3);
-            buffer.putColorMultiplier(diffuse, diffuse, diffuse, 2);
-            buffer.putColorMultiplier(diffuse, diffuse, diffuse, 1);
-			
-			buffer.putPosition(0, 0, 0);
-		}
-	}
 }
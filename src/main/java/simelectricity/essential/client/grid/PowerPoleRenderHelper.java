@@ -4,6 +4,7 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3i;
@@ -38,6 +39,8 @@ public class PowerPoleRenderHelper {
     
     public final List<BakedQuad> quadBuffer = new ArrayList();
     private boolean needBake = false;
+    //Bounds of the quadBuffer in world coordinates, set by GridRenderRegions
+    AxisAlignedBB renderBoundingBox;
     
     private int addedGroup;
 
@@ -219,7 +222,15 @@ public class PowerPoleRenderHelper {
     	}
     	return false;
     }
-    
+
+    /**
+     * @return the bounds of the baked cables, insulators and models, null if not baked yet
+     */
+    @Nullable
+    public final AxisAlignedBB getRenderBoundingBox() {
+        return this.renderBoundingBox;
+    }
+
     public final void updateRenderData(IBlockAccess world, BlockPos... neighborPosList) {
         this.connectionList.clear();
         this.extraWireList.clear();
@@ -6,14 +6,14 @@ import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.model.quadbuilder.RawQuadGroup;
-import simelectricity.essential.client.grid.FastTESRPowerPole;
+import simelectricity.essential.client.grid.PowerPoleBaker;
 import simelectricity.essential.client.grid.PowerPoleRenderHelper;
 import simelectricity.essential.grid.TilePowerPole2;
 
 @SideOnly(Side.CLIENT)
-public class FastTESRPowerPole2 extends FastTESRPowerPole<TilePowerPole2>{
-	public final static FastTESRPowerPole2 instance = new FastTESRPowerPole2();
-	private FastTESRPowerPole2() {}
+public class PowerPole2Baker extends PowerPoleBaker<TilePowerPole2>{
+	public final static PowerPole2Baker instance = new PowerPole2Baker();
+	private PowerPole2Baker() {}
 	
 	public static RawQuadGroup modelInsulator = null;
 	
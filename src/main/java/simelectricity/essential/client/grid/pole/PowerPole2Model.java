@@ -58,7 +58,7 @@ public class PowerPole2Model extends CodeBasedModel {
 	protected void bake(Function<ResourceLocation, TextureAtlasSprite> textureRegistry) {
 		this.quads.clear();
 
-        FastTESRPowerPole2.modelInsulator = Models.render35KvInsulator(textureMetal, textureInsulator);		
+        PowerPole2Baker.modelInsulator = Models.render35KvInsulator(textureMetal, textureInsulator);		
 
         if (isRod) {
             RawQuadCube cube = new RawQuadCube(0.25F, 1, 0.25F, textureConcrete);
@@ -70,7 +70,7 @@ public class PowerPole2Model extends CodeBasedModel {
         	model2.add((new RawQuadCube(0.25F, 11F, 0.25F, textureMetal)).translateCoord(0, -5.5F, 0).rotateAroundX(90).translateCoord(-0.25F, 0.125F, 0));
 
             if (type > 0) {    //1
-                RawQuadGroup insulator = FastTESRPowerPole2.modelInsulator.clone().rotateAroundX(180);
+                RawQuadGroup insulator = PowerPole2Baker.modelInsulator.clone().rotateAroundX(180);
                 model2.merge(insulator.clone().translateCoord(0, 0, -4.5F));
                 model2.merge(insulator.clone().translateCoord(0, 0, 0));
                 model2.merge(insulator.translateCoord(0, 0, 4.5F));
@@ -4,16 +4,16 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.model.quadbuilder.RawQuadGroup;
-import simelectricity.essential.client.grid.FastTESRPowerPole;
+import simelectricity.essential.client.grid.PowerPoleBaker;
 import simelectricity.essential.client.grid.ISEPowerPole;
 import simelectricity.essential.client.grid.PowerPoleRenderHelper;
 import simelectricity.essential.grid.TilePoleBranch;
 import simelectricity.essential.grid.TilePowerPole3;
 
 @SideOnly(Side.CLIENT)
-public class FastTESRPowerPole3<T extends TileEntity & ISEPowerPole> extends FastTESRPowerPole<T> {
-	public final static FastTESRPowerPole3 instance = new FastTESRPowerPole3();
-	private FastTESRPowerPole3() {}
+public class PowerPole3Baker<T extends TileEntity & ISEPowerPole> extends PowerPoleBaker<T> {
+	public final static PowerPole3Baker instance = new PowerPole3Baker();
+	private PowerPole3Baker() {}
 	
 	public static RawQuadGroup modelInsulator10kV = null;
 	public static RawQuadGroup modelInsulator415V = null;
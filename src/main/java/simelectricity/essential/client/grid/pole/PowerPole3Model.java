@@ -67,8 +67,8 @@ public class PowerPole3Model extends CodeBasedModel {
 	protected void bake(Function<ResourceLocation, TextureAtlasSprite> textureRegistry) {
 		this.quads.clear();
 		
-        FastTESRPowerPole3.modelInsulator10kV = Models.render10kVInsulator(textureMetal, glassInsulator);
-        FastTESRPowerPole3.modelInsulator415V = Models.render415VInsulator(textureMetal, glassInsulator);
+        PowerPole3Baker.modelInsulator10kV = Models.render10kVInsulator(textureMetal, glassInsulator);
+        PowerPole3Baker.modelInsulator415V = Models.render415VInsulator(textureMetal, glassInsulator);
 
         RawQuadGroup insulator = null;
         //Build the insulator model
@@ -6,14 +6,14 @@ import net.minecraft.client.renderer.block.model.BakedQuad;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.model.quadbuilder.RawQuadGroup;
-import simelectricity.essential.client.grid.FastTESRPowerPole;
+import simelectricity.essential.client.grid.PowerPoleBaker;
 import simelectricity.essential.client.grid.PowerPoleRenderHelper;
 import simelectricity.essential.grid.TilePowerPole;
 
 @SideOnly(Side.CLIENT)
-public class FastTESRPowerPoleTop extends FastTESRPowerPole<TilePowerPole>{
-	public final static FastTESRPowerPoleTop instance = new FastTESRPowerPoleTop();
-	private FastTESRPowerPoleTop() {}
+public class PowerPoleTopBaker extends PowerPoleBaker<TilePowerPole>{
+	public final static PowerPoleTopBaker instance = new PowerPoleTopBaker();
+	private PowerPoleTopBaker() {}
 	
 	public final static List<BakedQuad>[] insulator35Kv = new List[8];
 	public final static List<BakedQuad>[] bakedModelType0 = new List[8];
@@ -30,7 +30,7 @@ public class PowerPoleTopModel extends CodeBasedModel {
     public void bake(Function<ResourceLocation, TextureAtlasSprite> bakedTextureGetter) {
     	SERenderHeap model = Models.renderTower0Top(textureMetal);
 		
-        FastTESRPowerPoleTop.modelInsulator = Models.render35KvInsulator(textureMetal, textureInsulator);		
+        PowerPoleTopBaker.modelInsulator = Models.render35KvInsulator(textureMetal, textureInsulator);		
         
     	for (int facing=0; facing< 8; facing ++) {
     		List<BakedQuad> type0 = new ArrayList();
@@ -39,7 +39,7 @@ public class PowerPoleTopModel extends CodeBasedModel {
     		
 
     		//Type 0
-            RawQuadGroup insulator = FastTESRPowerPoleTop.modelInsulator.clone();
+            RawQuadGroup insulator = PowerPoleTopBaker.modelInsulator.clone();
             insulator.rotateAroundZ(180);
             insulator.translateCoord(-3.95F, 7F, 0);
             insulator.rotateAroundVector(facing*45, 0, 1, 0);
@@ -52,15 +52,15 @@ public class PowerPoleTopModel extends CodeBasedModel {
             
             //Type 1
             RawQuadGroup insulators = new RawQuadGroup();
-            insulators.merge(FastTESRPowerPoleTop.modelInsulator.clone().translateCoord(0, -2F, -4.9F));
-            insulators.merge(FastTESRPowerPoleTop.modelInsulator.clone().translateCoord(0, -2F, 4.9F));
-            insulators.merge(FastTESRPowerPoleTop.modelInsulator.clone().translateCoord(0, 5F, 3.95F));
+            insulators.merge(PowerPoleTopBaker.modelInsulator.clone().translateCoord(0, -2F, -4.9F));
+            insulators.merge(PowerPoleTopBaker.modelInsulator.clone().translateCoord(0, -2F, 4.9F));
+            insulators.merge(PowerPoleTopBaker.modelInsulator.clone().translateCoord(0, 5F, 3.95F));
             insulators.rotateAroundY(rotation).translateCoord(0.5F, 0, 0.5F).bake(type1);
             type1.addAll(type0);
             
-            FastTESRPowerPoleTop.bakedModelType0[facing] = type0;
-            FastTESRPowerPoleTop.insulator35Kv[facing] = insulator35Kv;
-            FastTESRPowerPoleTop.bakedModelType1[facing] = type1;
+            PowerPoleTopBaker.bakedModelType0[facing] = type0;
+            PowerPoleTopBaker.insulator35Kv[facing] = insulator35Kv;
+            PowerPoleTopBaker.bakedModelType1[facing] = type1;
     	}
     }
 
@@ -2,28 +2,32 @@ package simelectricity.essential.coverpanel;
 
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.ClickType;
 import net.minecraft.inventory.Container;
-import net.minecraft.inventory.IContainerListener;
 import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.IContainerWithGui;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
-
-import java.util.Iterator;
 
 public class ContainerVoltageSensor extends Container implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerVoltageSensor.class,
+            "emitRedstoneSignal", "inverted", "thresholdVoltage");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
+
     private final VoltageSensorPanel panel;
+    private final TileEntity host;
     public boolean emitRedstoneSignal;
     public boolean inverted;
     public double thresholdVoltage;
 
-    public ContainerVoltageSensor(VoltageSensorPanel panel) {
+    public ContainerVoltageSensor(VoltageSensorPanel panel, TileEntity host) {
         this.panel = panel;
+        this.host = host;
     }
 
 	@Override
@@ -44,37 +48,34 @@ public class ContainerVoltageSensor extends Container implements ISEContainerUpd
 
     @Override
     public void detectAndSendChanges() {
+        if (!this.syncState.isUpdateNeeded(this.host))
+            return;
+
         boolean emitRedstoneSignal = this.panel.emitRedStoneSignal;
         boolean inverted = this.panel.inverted;
         double thresholdVoltage = this.panel.thresholdVoltage;
 
-        //Look for any changes
-        if (this.emitRedstoneSignal == emitRedstoneSignal &&
-                this.inverted == inverted &&
-                this.thresholdVoltage == thresholdVoltage)
-            return;
-
         this.emitRedstoneSignal = emitRedstoneSignal;
         this.inverted = inverted;
         this.thresholdVoltage = thresholdVoltage;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, emitRedstoneSignal, inverted, thresholdVoltage);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        this.emitRedstoneSignal = (Boolean) data[0];
-        this.inverted = (Boolean) data[1];
-        this.thresholdVoltage = (Double) data[2];
+    public void onDataArrivedFromServer() {
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
     }
 
     @Override
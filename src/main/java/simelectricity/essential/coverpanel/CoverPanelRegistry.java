@@ -1,16 +1,25 @@
 package simelectricity.essential.coverpanel;
 
+import io.netty.buffer.ByteBuf;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import simelectricity.essential.api.ISECoverPanelFactory;
 import simelectricity.essential.api.coverpanel.ISECoverPanel;
 import simelectricity.essential.api.internal.ISECoverPanelRegistry;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 
 public class CoverPanelRegistry implements ISECoverPanelRegistry {
     public static ISECoverPanelRegistry instance;
     private final LinkedList<ISECoverPanelFactory> factories = new LinkedList<ISECoverPanelFactory>();
+    //Network ids of cover panel types, 0 means no cover panel, 255 means the type name follows
+    private static final int TYPE_NONE = 0;
+    private static final int TYPE_NAMED = 255;
+    private final ArrayList<String> typeNames = new ArrayList<String>();
+    private final HashMap<String, Integer> typeIds = new HashMap<String, Integer>();
 
     public CoverPanelRegistry() {
         CoverPanelRegistry.instance = this;
@@ -42,6 +51,60 @@ public class CoverPanelRegistry implements ISECoverPanelRegistry {
         return selectedFactory.fromNBT(nbt);
     }
 
+    @Override
+    public void registerCoverPanelType(String coverPanelType) {
+        if (this.typeIds.containsKey(coverPanelType))
+            return;
+
+        if (this.typeNames.size() + 1 >= TYPE_NAMED)
+            throw new RuntimeException("Too many cover panel types!");
+
+        this.typeNames.add(coverPanelType);
+        this.typeIds.put(coverPanelType, this.typeNames.size());
+    }
+
+    /**
+     * Format: type id (1 byte), the type name if the id is TYPE_NAMED,
+     * then the rest of the NBT of the cover panel, or an empty NBT if it only contains the type
+     */
+    @Override
+    public void toBytes(ISECoverPanel coverPanel, ByteBuf buf) {
+        if (coverPanel == null) {
+            buf.writeByte(TYPE_NONE);
+            return;
+        }
+
+        NBTTagCompound nbt = new NBTTagCompound();
+        coverPanel.toNBT(nbt);
+        String coverPanelType = nbt.getString("coverPanelType");
+        Integer id = this.typeIds.get(coverPanelType);
+        nbt.removeTag("coverPanelType");
+
+        if (id == null) {
+            buf.writeByte(TYPE_NAMED);
+            ByteBufUtils.writeUTF8String(buf, coverPanelType);
+        } else {
+            buf.writeByte(id);
+        }
+        ByteBufUtils.writeTag(buf, nbt.hasNoTags() ? null : nbt);
+    }
+
+    @Override
+    public ISECoverPanel fromBytes(ByteBuf buf) {
+        int id = buf.readUnsignedByte();
+        if (id == TYPE_NONE)
+            return null;
+
+        String coverPanelType = id == TYPE_NAMED ? ByteBufUtils.readUTF8String(buf) :
+                id <= this.typeNames.size() ? this.typeNames.get(id - 1) : "";
+        NBTTagCompound nbt = ByteBufUtils.readTag(buf);
+        if (nbt == null)
+            nbt = new NBTTagCompound();
+        nbt.setString("coverPanelType", coverPanelType);
+
+        return this.fromNBT(nbt);
+    }
+
     @Override
     public ISECoverPanel fromItemStack(ItemStack itemStack) {
         ISECoverPanelFactory selectedFactory = null;
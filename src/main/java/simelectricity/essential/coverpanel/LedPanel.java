@@ -13,6 +13,7 @@ import simelectricity.essential.api.client.ISECoverPanelRender;
 import simelectricity.essential.api.coverpanel.ISEElectricalLoadCoverPanel;
 import simelectricity.essential.api.coverpanel.ISEIuminousCoverPanel;
 import simelectricity.essential.client.coverpanel.LedPanelRender;
+import simelectricity.essential.utils.SELightHelper;
 
 public class LedPanel implements ISEElectricalLoadCoverPanel, ISEIuminousCoverPanel {
     private volatile byte lightLevel;
@@ -56,9 +57,7 @@ public class LedPanel implements ISEElectricalLoadCoverPanel, ISEIuminousCoverPa
     @Override
     public void onEnergyNetUpdate(double voltage) {
         double power = voltage * voltage / this.getResistance() / 0.3;
-        if (power > 15)
-            power = 15;
-        byte lightLevel = (byte) power;
+        byte lightLevel = SELightHelper.getLightLevel(power, this.lightLevel);
 
         if (this.lightLevel != lightLevel) {
             //If light value changes, send a sync. packet to client
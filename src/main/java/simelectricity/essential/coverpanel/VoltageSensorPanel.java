@@ -86,7 +86,7 @@ public class VoltageSensorPanel implements ISEElectricalCoverPanel, ISERedstoneE
     /////////////////////////
     @Override
     public Container getContainer(EntityPlayer player, TileEntity te) {
-        return new ContainerVoltageSensor(this);
+        return new ContainerVoltageSensor(this, te);
     }
 
     /////////////////////////
@@ -57,13 +57,9 @@ public abstract class SEMultiBlockGridTile extends SEMultiBlockEnergyTile implem
     @SideOnly(Side.CLIENT)
     @Override
     public AxisAlignedBB getRenderBoundingBox() {
-        return TileEntity.INFINITE_EXTENT_AABB;
-    }
-    
-
-    @Override
-    public boolean hasFastRenderer() {
-        return true;
+        //The baked spans of this pole, they are drawn by GridRenderRegions
+        AxisAlignedBB bb = this.renderHelper == null ? null : this.renderHelper.getRenderBoundingBox();
+        return bb == null ? super.getRenderBoundingBox() : bb;
     }
 
     /////////////////////////////////////////////////////////
@@ -1,27 +1,34 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.ContainerNoInventory;
 import rikka.librikka.container.IContainerWithGui;
-import simelectricity.api.SEAPI;
 import simelectricity.essential.machines.tile.TileAdjustableResistor;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
+import simelectricity.essential.utils.network.ISEApplyModeContainer;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
+import simelectricity.essential.utils.network.ISENumericInputHandler;
 
-import java.util.Iterator;
+public class ContainerAdjustableResistor extends ContainerNoInventory<TileAdjustableResistor> implements ISEContainerUpdate, ISEButtonEventHandler, ISENumericInputHandler, ISEApplyModeContainer, IContainerWithGui {
+    public static final int INPUT_RESISTANCE = 0;
+
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerAdjustableResistor.class,
+            "resistance", "voltage", "current", "powerLevel", "bufferedEnergy", "applyMode")
+            .measured("voltage", "current", "powerLevel", "bufferedEnergy");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
 
-public class ContainerAdjustableResistor extends ContainerNoInventory<TileAdjustableResistor> implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
     public double resistance;
     public double voltage;
     public double current;
     public double powerLevel;
     public double bufferedEnergy;
+    public boolean applyMode;
 
     public ContainerAdjustableResistor(TileEntity tileEntity) {
         super(tileEntity);
@@ -29,50 +36,56 @@ public class ContainerAdjustableResistor extends ContainerNoInventory<TileAdjust
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        this.resistance = (Double) data[0];
-        this.voltage = (Double) data[1];
-        this.current = (Double) data[2];
-        this.powerLevel = (Double) data[3];
-        this.bufferedEnergy = (Double) data[4];
+    public void onDataArrivedFromServer() {
+    }
+
+    @Override
+    public boolean isApplyMode() {
+        return this.applyMode;
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
     }
 
     @Override
     public void detectAndSendChanges() {
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         double voltage = tileEntity.voltage;
-        double resistance = tileEntity.resistance;
         double current = tileEntity.current;
         double powerLevel = tileEntity.powerLevel;
         double bufferedEnergy = tileEntity.bufferedEnergy;
 
-        //Look for any changes
-        if (this.resistance == resistance &&
-                this.voltage == voltage &&
-                this.current == current &&
-                this.powerLevel == powerLevel &&
-                this.bufferedEnergy == bufferedEnergy)
-            return;
-
-        this.resistance = resistance;
+        //In apply mode, the settings of the container are the edits of the player
+        if (!this.applyMode)
+            this.resistance = tileEntity.resistance;
         this.voltage = voltage;
         this.current = current;
         this.powerLevel = powerLevel;
         this.bufferedEnergy = bufferedEnergy;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, resistance, voltage, current, powerLevel, bufferedEnergy);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     public void onButtonPressed(int buttonID, boolean isCtrlPressed) {
-        double resistance = tileEntity.resistance;
+        if (buttonID == BUTTON_APPLY) {
+            if (this.applyMode)
+                this.applySettings();
+            this.applyMode = !this.applyMode;
+            return;
+        }
+
+        double resistance = this.applyMode ? this.resistance : tileEntity.resistance;
 
         switch (buttonID) {
             case 0:
@@ -105,14 +118,31 @@ public class ContainerAdjustableResistor extends ContainerNoInventory<TileAdjust
                 return;
         }
 
+        this.setResistance(resistance);
+    }
+
+    @Override
+    public void onNumberEntered(int inputID, double value) {
+        if (inputID == INPUT_RESISTANCE)
+            this.setResistance(value);
+    }
+
+    private void setResistance(double resistance) {
         if (resistance < 0.1)
             resistance = 0.1;
         if (resistance > 10000)
             resistance = 10000;
 
-        tileEntity.resistance = resistance;
+        this.resistance = resistance;
+
+        if (!this.applyMode)
+            this.applySettings();
+    }
+
+    private void applySettings() {
+        tileEntity.resistance = this.resistance;
 
-        SEAPI.energyNetAgent.updateTileParameter(this.tileEntity);
+        this.syncState.markTileParameterChanged();
     }
     
     @Override
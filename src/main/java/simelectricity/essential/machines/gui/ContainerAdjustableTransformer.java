@@ -1,23 +1,25 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.IContainerWithGui;
-import simelectricity.api.SEAPI;
 import simelectricity.essential.common.ContainerNoInventoryTwoPort;
 import simelectricity.essential.machines.tile.TileAdjustableTransformer;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
-
-import java.util.Iterator;
 
 public class ContainerAdjustableTransformer extends ContainerNoInventoryTwoPort<TileAdjustableTransformer> implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerAdjustableTransformer.class,
+            "ratio", "outputResistance", "inputSide", "outputSide", "vPri", "vSec")
+            .measured("vPri", "vSec");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
+
     public double ratio, outputResistance;
     public EnumFacing inputSide, outputSide;
     public double vPri, vSec;
@@ -28,19 +30,13 @@ public class ContainerAdjustableTransformer extends ContainerNoInventoryTwoPort<
 
     @Override
     public void detectAndSendChanges() {
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         double ratio = this.tileEntity.ratio, outputResistance = this.tileEntity.outputResistance;
         EnumFacing inputSide = this.tileEntity.inputSide, outputSide = this.tileEntity.outputSide;
         double vPri = this.tileEntity.vPri, vSec = this.tileEntity.vSec;
 
-        //Look for any changes
-        if (this.ratio == ratio &&
-                this.outputResistance == outputResistance &&
-                this.inputSide == inputSide &&
-                this.outputSide == outputSide &&
-                this.vPri == vPri &&
-                this.vSec == vSec)
-            return;
-
         this.ratio = ratio;
         this.outputResistance = outputResistance;
         this.inputSide = inputSide;
@@ -48,26 +44,23 @@ public class ContainerAdjustableTransformer extends ContainerNoInventoryTwoPort<
         this.vPri = vPri;
         this.vSec = vSec;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, ratio, outputResistance, inputSide, outputSide, vPri, vSec);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        ratio = (Double) data[0];
-        outputResistance = (Double) data[1];
-        inputSide = (EnumFacing) data[2];
-        outputSide = (EnumFacing) data[3];
-        vPri = (Double) data[4];
-        vSec = (Double) data[5];
+    public void onDataArrivedFromServer() {
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
     }
 
     @Override
@@ -153,7 +146,7 @@ public class ContainerAdjustableTransformer extends ContainerNoInventoryTwoPort<
         this.tileEntity.ratio = ratio;
         this.tileEntity.outputResistance = outputResistance;
 
-        SEAPI.energyNetAgent.updateTileParameter(this.tileEntity);
+        this.syncState.markTileParameterChanged();
     }
     
     @Override
@@ -1,30 +1,34 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.IContainerWithGui;
-import simelectricity.api.SEAPI;
 import simelectricity.essential.common.ContainerNoInventoryTwoPort;
 import simelectricity.essential.machines.tile.TileCurrentSensor;
 import simelectricity.essential.utils.SEUnitHelper;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
+import simelectricity.essential.utils.network.ISEApplyModeContainer;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
 
-import java.util.Iterator;
+public class ContainerCurrentSensor extends ContainerNoInventoryTwoPort<TileCurrentSensor> implements ISEContainerUpdate, ISEButtonEventHandler, ISEApplyModeContainer, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerCurrentSensor.class,
+            "thresholdCurrent", "resistance", "inputSide", "outputSide", "absMode", "inverted", "current", "emitRedstoneSignal", "applyMode")
+            .measured("current");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
 
-public class ContainerCurrentSensor extends ContainerNoInventoryTwoPort<TileCurrentSensor> implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
     public double thresholdCurrent, resistance;
     public EnumFacing inputSide, outputSide;
     public boolean absMode, inverted;
 
     public double current;
     public boolean emitRedstoneSignal;
+    public boolean applyMode;
 
     @SideOnly(Side.CLIENT)
     public String conditionString;
@@ -35,66 +39,65 @@ public class ContainerCurrentSensor extends ContainerNoInventoryTwoPort<TileCurr
 
     @Override
     public void detectAndSendChanges() {
-        double thresholdCurrent = this.tileEntity.thresholdCurrent, resistance = this.tileEntity.resistance;
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         EnumFacing inputSide = this.tileEntity.inputSide, outputSide = this.tileEntity.outputSide;
-        boolean absMode = this.tileEntity.absMode, inverted = this.tileEntity.inverted;
         double current = this.tileEntity.current;
         boolean emitRedstoneSignal = this.tileEntity.emitRedstoneSignal;
 
-        //Look for any changes
-        if (this.thresholdCurrent == thresholdCurrent &&
-                this.resistance == resistance &&
-                this.inputSide == inputSide &&
-                this.outputSide == outputSide &&
-                this.absMode == absMode &&
-                this.inverted == inverted &&
-                this.current == current &&
-                this.emitRedstoneSignal == emitRedstoneSignal)
-            return;
-
-        this.thresholdCurrent = thresholdCurrent;
-        this.resistance = resistance;
+        //In apply mode, the settings of the container are the edits of the player
+        if (!this.applyMode) {
+            this.thresholdCurrent = this.tileEntity.thresholdCurrent;
+            this.resistance = this.tileEntity.resistance;
+            this.absMode = this.tileEntity.absMode;
+            this.inverted = this.tileEntity.inverted;
+        }
         this.inputSide = inputSide;
         this.outputSide = outputSide;
-        this.absMode = absMode;
-        this.inverted = inverted;
         this.current = current;
         this.emitRedstoneSignal = emitRedstoneSignal;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, thresholdCurrent, resistance, inputSide, outputSide, absMode, inverted, current, emitRedstoneSignal);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        thresholdCurrent = (Double) data[0];
-        resistance = (Double) data[1];
-        inputSide = (EnumFacing) data[2];
-        outputSide = (EnumFacing) data[3];
-        absMode = (Boolean) data[4];
-        inverted = (Boolean) data[5];
-        current = (Double) data[6];
-        emitRedstoneSignal = (Boolean) data[7];
-
+    public void onDataArrivedFromServer() {
         conditionString = absMode ? "|I|" : "I";
         conditionString += inverted ? "<" : ">";
         conditionString += SEUnitHelper.getCurrentStringWithUnit(thresholdCurrent);
     }
 
+    @Override
+    public boolean isApplyMode() {
+        return this.applyMode;
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
+    }
+
     @Override
     public void onButtonPressed(int buttonID, boolean isCtrlPressed) {
-        double resistance = tileEntity.resistance;
-        double thresholdCurrent = tileEntity.thresholdCurrent;
-        boolean absMode = tileEntity.absMode;
-        boolean inverted = tileEntity.inverted;
+        if (buttonID == BUTTON_APPLY) {
+            if (this.applyMode)
+                this.applySettings();
+            this.applyMode = !this.applyMode;
+            return;
+        }
+
+        double resistance = this.applyMode ? this.resistance : tileEntity.resistance;
+        double thresholdCurrent = this.applyMode ? this.thresholdCurrent : tileEntity.thresholdCurrent;
+        boolean absMode = this.applyMode ? this.absMode : tileEntity.absMode;
+        boolean inverted = this.applyMode ? this.inverted : tileEntity.inverted;
 
         switch (buttonID) {
             case 0:
@@ -169,23 +172,27 @@ public class ContainerCurrentSensor extends ContainerNoInventoryTwoPort<TileCurr
         if (thresholdCurrent > 1000)
             thresholdCurrent = 1000;
 
-        if (this.tileEntity.resistance != resistance) {
-            this.tileEntity.resistance = resistance;
-            SEAPI.energyNetAgent.updateTileParameter(tileEntity);
-        }
+        this.resistance = resistance;
+        this.thresholdCurrent = thresholdCurrent;
+        this.absMode = absMode;
+        this.inverted = inverted;
 
-        if (tileEntity.thresholdCurrent != thresholdCurrent) {
-            tileEntity.thresholdCurrent = thresholdCurrent;
-            this.tileEntity.checkRedstoneStatus();
-        }
+        if (!this.applyMode)
+            this.applySettings();
+    }
 
-        if (this.tileEntity.inverted != inverted) {
-            this.tileEntity.inverted = inverted;
-            this.tileEntity.checkRedstoneStatus();
+    private void applySettings() {
+        if (this.tileEntity.resistance != this.resistance) {
+            this.tileEntity.resistance = this.resistance;
+            this.syncState.markTileParameterChanged();
         }
 
-        if (this.tileEntity.absMode != absMode) {
-            this.tileEntity.absMode = absMode;
+        if (this.tileEntity.thresholdCurrent != this.thresholdCurrent ||
+                this.tileEntity.inverted != this.inverted ||
+                this.tileEntity.absMode != this.absMode) {
+            this.tileEntity.thresholdCurrent = this.thresholdCurrent;
+            this.tileEntity.inverted = this.inverted;
+            this.tileEntity.absMode = this.absMode;
             this.tileEntity.checkRedstoneStatus();
         }
     }
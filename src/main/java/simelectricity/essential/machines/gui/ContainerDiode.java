@@ -1,8 +1,7 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.relauncher.Side;
@@ -10,12 +9,16 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.IContainerWithGui;
 import simelectricity.essential.common.ContainerNoInventoryTwoPort;
 import simelectricity.essential.machines.tile.TileDiode;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
-
-import java.util.Iterator;
 
 public class ContainerDiode extends ContainerNoInventoryTwoPort<TileDiode> implements ISEContainerUpdate, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerDiode.class,
+            "inputVoltage", "outputVoltage", "inputSide", "outputSide")
+            .measured("inputVoltage", "outputVoltage");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
+
     public double inputVoltage, outputVoltage;
     public EnumFacing inputSide, outputSide;
 
@@ -28,42 +31,36 @@ public class ContainerDiode extends ContainerNoInventoryTwoPort<TileDiode> imple
 
     @Override
     public void detectAndSendChanges() {
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         double inputVoltage = this.tileEntity.inputVoltage, outputVoltage = this.tileEntity.outputVoltage;
         EnumFacing inputSide = this.tileEntity.inputSide, outputSide = this.tileEntity.outputSide;
 
-        //Look for any changes
-        if (this.inputVoltage == inputVoltage &&
-                this.outputVoltage == outputVoltage &&
-                this.inputSide == inputSide &&
-                this.outputSide == outputSide)
-            return;
-
         this.inputVoltage = inputVoltage;
         this.outputVoltage = outputVoltage;
         this.inputSide = inputSide;
         this.outputSide = outputSide;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, inputVoltage, outputVoltage, inputSide, outputSide);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        inputVoltage = (Double) data[0];
-        outputVoltage = (Double) data[1];
-        inputSide = (EnumFacing) data[2];
-        outputSide = (EnumFacing) data[3];
-
+    public void onDataArrivedFromServer() {
         forwardBiased = inputVoltage > outputVoltage;
     }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
+    }
     
     @Override
     @SideOnly(Side.CLIENT)
@@ -1,22 +1,24 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.ContainerNoInventory;
 import rikka.librikka.container.IContainerWithGui;
-import simelectricity.api.SEAPI;
 import simelectricity.essential.machines.tile.TileQuantumGenerator;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
-
-import java.util.Iterator;
 
 public class ContainerQuantumGenerator extends ContainerNoInventory<TileQuantumGenerator> implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerQuantumGenerator.class,
+            "internalVoltage", "resistance", "voltage", "current")
+            .measured("voltage", "current");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
+
     public double internalVoltage;
     public double resistance;
     public double voltage;
@@ -31,44 +33,38 @@ public class ContainerQuantumGenerator extends ContainerNoInventory<TileQuantumG
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        this.internalVoltage = (Double) data[0];
-        this.resistance = (Double) data[1];
-        this.voltage = (Double) data[2];
-        this.current = (Double) data[3];
-
+    public void onDataArrivedFromServer() {
         this.outputPower = this.current * this.voltage;
     }
 
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
+    }
+
     @Override
     public void detectAndSendChanges() {
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         double internalVoltage = tileEntity.internalVoltage;
         double resistance = tileEntity.resistance;
 
         double voltage = tileEntity.voltage;
         double current = tileEntity.current;
 
-        //Look for any changes
-        if (this.internalVoltage == internalVoltage &&
-                this.resistance == resistance &&
-                this.voltage == voltage &&
-                this.current == current)
-            return;
-
         this.voltage = voltage;
         this.internalVoltage = voltage;
         this.resistance = resistance;
         this.current = current;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, internalVoltage, resistance, voltage, current);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
@@ -142,7 +138,7 @@ public class ContainerQuantumGenerator extends ContainerNoInventory<TileQuantumG
         tileEntity.resistance = resistance;
         tileEntity.internalVoltage = internalVoltage;
 
-        SEAPI.energyNetAgent.updateTileParameter(this.tileEntity);
+        this.syncState.markTileParameterChanged();
     }
     
     @Override
@@ -1,28 +1,32 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.IContainerWithGui;
-import simelectricity.api.SEAPI;
 import simelectricity.essential.common.ContainerNoInventoryTwoPort;
 import simelectricity.essential.machines.tile.TileSwitch;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
+import simelectricity.essential.utils.network.ISEApplyModeContainer;
 import simelectricity.essential.utils.network.ISEButtonEventHandler;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
 
-import java.util.Iterator;
+public class ContainerSwitch extends ContainerNoInventoryTwoPort<TileSwitch> implements ISEContainerUpdate, ISEButtonEventHandler, ISEApplyModeContainer, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerSwitch.class,
+            "resistance", "isOn", "maxCurrent", "current", "inputSide", "outputSide", "applyMode")
+            .measured("current");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
 
-public class ContainerSwitch extends ContainerNoInventoryTwoPort<TileSwitch> implements ISEContainerUpdate, ISEButtonEventHandler, IContainerWithGui {
     public volatile double resistance;
     public volatile boolean isOn;
     public volatile double maxCurrent;
     public volatile double current;
     public volatile EnumFacing inputSide, outputSide;
+    public volatile boolean applyMode;
 
     public ContainerSwitch(TileEntity tileEntity) {
         super(tileEntity);
@@ -30,57 +34,58 @@ public class ContainerSwitch extends ContainerNoInventoryTwoPort<TileSwitch> imp
 
     @Override
     public void detectAndSendChanges() {
-        double resistance = this.tileEntity.resistance;
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
+            return;
+
         boolean isOn = this.tileEntity.isOn;
-        double maxCurrent = this.tileEntity.maxCurrent;
         double current = this.tileEntity.current;
         EnumFacing inputSide = this.tileEntity.inputSide, outputSide = this.tileEntity.outputSide;
 
-        //Look for any changes
-        if (this.resistance == resistance &&
-                this.isOn == isOn &&
-                this.maxCurrent == maxCurrent &&
-                this.current == current &&
-                this.inputSide == inputSide &&
-                this.outputSide == outputSide)
-            return;
-
-        this.resistance = resistance;
+        //In apply mode, the settings of the container are the edits of the player
+        if (!this.applyMode) {
+            this.resistance = this.tileEntity.resistance;
+            this.maxCurrent = this.tileEntity.maxCurrent;
+        }
         this.isOn = isOn;
-        this.maxCurrent = maxCurrent;
         this.current = current;
         this.inputSide = inputSide;
         this.outputSide = outputSide;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
-
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, resistance, isOn, maxCurrent, current, inputSide, outputSide);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @Override
     @SideOnly(Side.CLIENT)
-    public void onDataArrivedFromServer(Object[] data) {
-        resistance = (Double) data[0];
-        isOn = (Boolean) data[1];
-        maxCurrent = (Double) data[2];
-        current = (Double) data[3];
-        inputSide = (EnumFacing) data[4];
-        outputSide = (EnumFacing) data[5];
+    public void onDataArrivedFromServer() {
+    }
+
+    @Override
+    public boolean isApplyMode() {
+        return this.applyMode;
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
     }
 
     @Override
     public void onButtonPressed(int buttonID, boolean isCtrlPressed) {
-        double resistance = tileEntity.resistance;
-        double maxCurrent = tileEntity.maxCurrent;
-        boolean isOn = this.isOn;
+        if (buttonID == BUTTON_APPLY) {
+            if (this.applyMode)
+                this.applySettings();
+            this.applyMode = !this.applyMode;
+            return;
+        }
 
-        boolean isOnChanged = false;
+        double resistance = this.applyMode ? this.resistance : tileEntity.resistance;
+        double maxCurrent = this.applyMode ? this.maxCurrent : tileEntity.maxCurrent;
 
         switch (buttonID) {
             case 0:
@@ -135,10 +140,10 @@ public class ContainerSwitch extends ContainerNoInventoryTwoPort<TileSwitch> imp
                 break;
 
 
+            //Not a setting, switches immediately, the synced isOn may be several ticks old
             case 12:
-                isOnChanged = true;
-                isOn = !isOn;
-                break;
+                tileEntity.setSwitchStatus(!tileEntity.isOn);
+                return;
             default:
         }
 
@@ -152,14 +157,18 @@ public class ContainerSwitch extends ContainerNoInventoryTwoPort<TileSwitch> imp
         if (maxCurrent > 1000)
             maxCurrent = 1000;
 
-        tileEntity.resistance = resistance;
-        tileEntity.maxCurrent = maxCurrent;
+        this.resistance = resistance;
+        this.maxCurrent = maxCurrent;
 
-        if (isOnChanged) {
-            tileEntity.setSwitchStatus(isOn);
-        } else {
-            SEAPI.energyNetAgent.updateTileParameter(tileEntity);
-        }
+        if (!this.applyMode)
+            this.applySettings();
+    }
+
+    private void applySettings() {
+        tileEntity.resistance = this.resistance;
+        tileEntity.maxCurrent = this.maxCurrent;
+
+        this.syncState.markTileParameterChanged();
     }
     
     @Override
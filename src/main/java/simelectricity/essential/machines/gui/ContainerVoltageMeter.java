@@ -1,20 +1,23 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiScreen;
-import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.inventory.IContainerListener;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import rikka.librikka.container.ContainerNoInventory;
 import rikka.librikka.container.IContainerWithGui;
 import simelectricity.essential.machines.tile.TileVoltageMeter;
+import simelectricity.essential.utils.network.ContainerSyncSchema;
+import simelectricity.essential.utils.network.ContainerSyncState;
 import simelectricity.essential.utils.network.ISEContainerUpdate;
-import simelectricity.essential.utils.network.MessageContainerSync;
-
-import java.util.Iterator;
 
 public class ContainerVoltageMeter extends ContainerNoInventory<TileVoltageMeter> implements ISEContainerUpdate, IContainerWithGui {
+    private static final ContainerSyncSchema syncSchema = new ContainerSyncSchema(ContainerVoltageMeter.class,
+            "voltage")
+            .measured("voltage");
+    private final ContainerSyncState syncState = new ContainerSyncState(syncSchema);
+
     public double voltage;
 
     public ContainerVoltageMeter(TileEntity tileEntity) {
@@ -23,29 +26,30 @@ public class ContainerVoltageMeter extends ContainerNoInventory<TileVoltageMeter
 
     @Override
     public void detectAndSendChanges() {
-        double voltage = tileEntity.voltage;
-
-        //Look for any changes
-        if (this.voltage == voltage)
+        if (!this.syncState.isUpdateNeeded(this.tileEntity))
             return;
 
-        this.voltage = voltage;
+        double voltage = tileEntity.voltage;
 
-        //Send change to all crafter
-        Iterator<IContainerListener> iterator = listeners.iterator();
-        while (iterator.hasNext()) {
-            IContainerListener crafter = iterator.next();
+        this.voltage = voltage;
 
-            if (crafter instanceof EntityPlayerMP) {
-                MessageContainerSync.sendToClient((EntityPlayerMP) crafter, voltage);
-            }
-        }
+        this.syncState.sendChanges(this, this.listeners);
     }
 
     @SideOnly(Side.CLIENT)
     @Override
-    public void onDataArrivedFromServer(Object[] data) {
-        this.voltage = (Double) data[0];
+    public void onDataArrivedFromServer() {
+    }
+
+    @Override
+    public ContainerSyncState getSyncState() {
+        return this.syncState;
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.syncState.close();
     }
 
     @Override
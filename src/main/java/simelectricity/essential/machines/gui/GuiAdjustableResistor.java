@@ -1,17 +1,25 @@
 package simelectricity.essential.machines.gui;
 
 import net.minecraft.client.gui.GuiButton;
+import net.minecraft.client.gui.GuiTextField;
 import net.minecraft.inventory.Container;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.translation.I18n;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import org.lwjgl.input.Keyboard;
 import org.lwjgl.opengl.GL11;
 import simelectricity.essential.utils.SEUnitHelper;
 import simelectricity.essential.utils.client.gui.SEGuiContainer;
+import simelectricity.essential.utils.network.MessageContainerSync;
+
+import java.io.IOException;
 
 @SideOnly(Side.CLIENT)
 public final class GuiAdjustableResistor extends SEGuiContainer<ContainerAdjustableResistor> {
+    //Type a resistance and press enter, the server clamps it the same way as the buttons do
+    private GuiTextField resistanceInput;
+
     public GuiAdjustableResistor(Container container) {
         super(container);
     }
@@ -60,5 +68,49 @@ public final class GuiAdjustableResistor extends SEGuiContainer<ContainerAdjusta
         this.buttonList.add(new GuiButton(5, this.guiLeft + xbase + 110, this.guiTop + ybase + 38, 30, 20, "+100"));
 
         this.buttonList.add(new GuiButton(6, this.guiLeft + xbase + 100, this.guiTop + ybase, 40, 20, "Clear"));
+
+        this.addApplyButton(128, 3);
+
+        this.resistanceInput = new GuiTextField(7, this.fontRenderer, this.guiLeft + xbase, this.guiTop + 40, 60, 12);
+        this.resistanceInput.setMaxStringLength(10);
+    }
+
+    @Override
+    public void updateScreen() {
+        super.updateScreen();
+        this.resistanceInput.updateCursorCounter();
+    }
+
+    @Override
+    public void drawScreen(int mouseX, int mouseY, float partialTicks) {
+        super.drawScreen(mouseX, mouseY, partialTicks);
+        this.resistanceInput.drawTextBox();
+    }
+
+    @Override
+    public void mouseClicked(int x, int y, int button) throws IOException {
+        super.mouseClicked(x, y, button);
+        this.resistanceInput.mouseClicked(x, y, button);
+    }
+
+    @Override
+    protected void keyTyped(char typedChar, int keyCode) throws IOException {
+        if (!this.resistanceInput.isFocused() || keyCode == Keyboard.KEY_ESCAPE) {
+            super.keyTyped(typedChar, keyCode);
+            return;
+        }
+
+        if (keyCode == Keyboard.KEY_RETURN || keyCode == Keyboard.KEY_NUMPADENTER) {
+            try {
+                MessageContainerSync.sendNumericInputToServer(this.container, ContainerAdjustableResistor.INPUT_RESISTANCE,
+                        Double.parseDouble(this.resistanceInput.getText().trim()));
+                this.resistanceInput.setText("");
+            } catch (NumberFormatException e) {
+                this.resistanceInput.setTextColor(0xFF5555);
+                return;
+            }
+        } else if (this.resistanceInput.textboxKeyTyped(typedChar, keyCode)) {
+            this.resistanceInput.setTextColor(0xE0E0E0);
+        }
     }
 }
@@ -68,5 +68,6 @@ public class GuiCurrentSensor extends SEGuiContainer<ContainerCurrentSensor> {
         this.buttonList.add(new GuiButton(13, this.guiLeft + xbase, this.guiTop + ybase - 36, 50, 20, "Abs()"));
 
         this.directionSelector = new GuiDirectionSelector(this.guiLeft + 116, this.guiTop + 20);
+        this.addApplyButton(128, 3);
     }
 }
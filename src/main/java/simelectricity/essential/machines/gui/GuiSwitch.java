@@ -80,6 +80,7 @@ public final class GuiSwitch extends SEGuiContainer<ContainerSwitch> {
         this.buttonList.add(new GuiButton(11, this.guiLeft + xbase + 120, this.guiTop + ybase + 38, 20, 20, "+1"));
 
         this.directionSelector = new GuiDirectionSelector(this.guiLeft + 116, this.guiTop + 20);
+        this.addApplyButton(128, 3);
     }
 
     @Override
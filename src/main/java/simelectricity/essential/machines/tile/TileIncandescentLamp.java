@@ -1,5 +1,6 @@
 package simelectricity.essential.machines.tile;
 
+import io.netty.buffer.ByteBuf;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.world.WorldServer;
@@ -8,10 +9,16 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import simelectricity.api.ISEEnergyNetUpdateHandler;
 import simelectricity.api.SEAPI;
 import simelectricity.api.components.ISEVoltageSource;
+import simelectricity.essential.client.LightUpdateQueue;
 import simelectricity.essential.common.semachine.ISESocketProvider;
 import simelectricity.essential.common.semachine.SESinglePortMachine;
+import simelectricity.essential.utils.SELightHelper;
+import simelectricity.essential.utils.network.ISEBinarySyncTile;
+import simelectricity.essential.utils.network.TileSyncBatcher;
+
+public class TileIncandescentLamp extends SESinglePortMachine implements ISEVoltageSource, ISEEnergyNetUpdateHandler, ISESocketProvider, ISEBinarySyncTile {
+    private static final int SYNC_LIGHT_LEVEL = 1;
 
-public class TileIncandescentLamp extends SESinglePortMachine implements ISEVoltageSource, ISEEnergyNetUpdateHandler, ISESocketProvider {
     public volatile byte lightLevel;
 
     @Override
@@ -27,17 +34,17 @@ public class TileIncandescentLamp extends SESinglePortMachine implements ISEVolt
     @Override
     public void onEnergyNetUpdate() {
         double voltage = SEAPI.energyNetAgent.getVoltage(circuit);
-        double lightLevel = voltage * voltage / this.getResistance() / 0.3D;
+        byte lightLevel = SELightHelper.getLightLevel(voltage * voltage / this.getResistance() / 0.3D, this.lightLevel);
 
-        if (lightLevel > 15)
-            lightLevel = 15;
+        if (this.lightLevel == lightLevel)
+            return;
 
-        this.lightLevel = (byte) lightLevel;
+        this.lightLevel = lightLevel;
 
         ((WorldServer) world).addScheduledTask(new Runnable() {
             @Override
             public void run() {
-            	markTileEntityForS2CSync();
+                TileSyncBatcher.markDirty(TileIncandescentLamp.this, SYNC_LIGHT_LEVEL);
             }
         });
     }
@@ -59,6 +66,19 @@ public class TileIncandescentLamp extends SESinglePortMachine implements ISEVolt
         super.onSyncDataFromServerArrived(nbt);
         this.lightLevel = nbt.getByte("lightLevel");
         markForRenderUpdate();
-        this.world.checkLight(this.pos);    //checkLightFor
+        LightUpdateQueue.enqueue(this.world, this.pos);    //checkLightFor
+    }
+
+    @Override
+    public void writeSyncData(ByteBuf buf, int fields) {
+        buf.writeByte(this.lightLevel);
+    }
+
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void readSyncData(ByteBuf buf, int fields) {
+        this.lightLevel = buf.readByte();
+        markForRenderUpdate();
+        LightUpdateQueue.enqueue(this.world, this.pos);    //checkLightFor
     }
 }
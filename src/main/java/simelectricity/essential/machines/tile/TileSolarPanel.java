@@ -1,15 +1,14 @@
 package simelectricity.essential.machines.tile;
 
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.ITickable;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
-import simelectricity.api.SEAPI;
+import simelectricity.api.ISEEnvironmentSensitive;
 import simelectricity.api.components.ISEVoltageSource;
 import simelectricity.essential.common.semachine.ISESocketProvider;
 import simelectricity.essential.common.semachine.SESinglePortMachine;
 
-public class TileSolarPanel extends SESinglePortMachine implements ISEVoltageSource, ISESocketProvider, ITickable {
+public class TileSolarPanel extends SESinglePortMachine implements ISEVoltageSource, ISESocketProvider, ISEEnvironmentSensitive {
     private static byte STATE_DAY;
     private static final byte STATE_NIGHT = 1;
     private static final byte STATE_CAVE = 2;
@@ -19,43 +18,37 @@ public class TileSolarPanel extends SESinglePortMachine implements ISEVoltageSou
     private byte state = -1;
 
     ///////////////////////////////////
-    /// TileEntity
+    /// ISEEnvironmentSensitive
     ///////////////////////////////////
     @Override
-    public void update() {
-        if (this.world.isRemote)
-            return;
+    public boolean onEnvironmentUpdate(boolean isDaytime, boolean canSeeSky) {
+        if (!canSeeSky)
+            return this.detectChange(TileSolarPanel.STATE_CAVE);
 
-        //Server only
-        if (!this.world.provider.isSurfaceWorld() || !this.world.canBlockSeeSky(this.pos.up())) {
-            this.detectAndSendChange(TileSolarPanel.STATE_CAVE);
-            return;
-        }
-
-        if (this.world.isDaytime())
-            this.detectAndSendChange(TileSolarPanel.STATE_DAY);
+        if (isDaytime)
+            return this.detectChange(TileSolarPanel.STATE_DAY);
         else
-            this.detectAndSendChange(TileSolarPanel.STATE_NIGHT);
-
+            return this.detectChange(TileSolarPanel.STATE_NIGHT);
     }
 
-    void detectAndSendChange(byte state) {
-        if (this.state != state) {
-            this.state = state;
+    boolean detectChange(byte state) {
+        if (this.state == state)
+            return false;
 
-            if (state == TileSolarPanel.STATE_DAY) {
-                internalVoltage = 22;
-                resistance = 0.8;
-            } else if (state == TileSolarPanel.STATE_NIGHT) {
-                internalVoltage = 18;
-                resistance = 10;
-            } else {
-                internalVoltage = 10;
-                resistance = 100;
-            }
+        this.state = state;
 
-            SEAPI.energyNetAgent.updateTileParameter(this);
+        if (state == TileSolarPanel.STATE_DAY) {
+            internalVoltage = 22;
+            resistance = 0.8;
+        } else if (state == TileSolarPanel.STATE_NIGHT) {
+            internalVoltage = 18;
+            resistance = 10;
+        } else {
+            internalVoltage = 10;
+            resistance = 100;
         }
+
+        return true;
     }
 
     ///////////////////////////////////
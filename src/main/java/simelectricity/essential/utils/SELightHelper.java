@@ -0,0 +1,25 @@
+package simelectricity.essential.utils;
+
+public class SELightHelper {
+    /**
+     * How far (in light levels) the brightness has to move past the boundary of the current light level before
+     * the light level changes, so that small fluctuations of the voltage around a boundary do not cause light updates
+     */
+    public static final double HYSTERESIS = 0.25;
+
+    /**
+     * @param brightness the unrounded light level, e.g. power / watts per light level
+     * @param current    the current light level
+     * @return the new light level, 0 - 15
+     */
+    public static byte getLightLevel(double brightness, byte current) {
+        if (brightness < 0 || Double.isNaN(brightness))
+            brightness = 0;
+
+        //Compare before clamping, otherwise a clamped 15 never leaves the upper band of 14
+        if (brightness >= current - HYSTERESIS && brightness < current + 1 + HYSTERESIS)
+            return current;
+
+        return brightness > 15 ? 15 : (byte) brightness;
+    }
+}
@@ -7,6 +7,7 @@ import net.minecraft.inventory.Container;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import simelectricity.essential.utils.network.ISEApplyModeContainer;
 import simelectricity.essential.utils.network.MessageContainerSync;
 
 import java.io.IOException;
@@ -15,12 +16,29 @@ import java.io.IOException;
 public abstract class SEGuiContainer<TYPE extends Container> extends GuiContainer {
     protected final TYPE container;
     protected GuiDirectionSelector directionSelector;
+    protected GuiButton applyButton;
 
     public SEGuiContainer(Container container) {
         super(container);
         this.container = (TYPE) container;
     }
 
+    /**
+     * For containers implementing ISEApplyModeContainer, call from initGui()
+     */
+    protected void addApplyButton(int x, int y) {
+        this.applyButton = new GuiButton(ISEApplyModeContainer.BUTTON_APPLY, this.guiLeft + x, this.guiTop + y, 40, 14, "");
+        this.buttonList.add(this.applyButton);
+    }
+
+    @Override
+    public void updateScreen() {
+        super.updateScreen();
+
+        if (this.applyButton != null)
+            this.applyButton.displayString = ((ISEApplyModeContainer) this.container).isApplyMode() ? "Apply" : "Batch";
+    }
+
     @Override
     public void actionPerformed(GuiButton button) {
         MessageContainerSync.sendButtonClickEventToSever(this.container, button.id, GuiScreen.isCtrlKeyDown());
@@ -0,0 +1,265 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.EnumFacing;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * The fixed list of container fields that are synchronized to the client, declared once per container class.
+ * <p/>
+ * A sync packet starts with a change mask (one bit per field, in declaration order), followed by the values of the
+ * changed fields without any type tag: doubles as 8 bytes, ints as 4 bytes, EnumFacings as 1 byte (-1 for null),
+ * booleans are packed into a bit field in front of them.
+ * Primitive fields are accessed with the primitive getters/setters of {@link Field}, so nothing is boxed.
+ * <p/>
+ * Measured values, see {@link #measured(String...)}, are rounded to a few significant digits before comparison,
+ * and are sent at most once every few ticks, see {@link ContainerSyncState}.
+ */
+public final class ContainerSyncSchema {
+    private static final byte TYPE_DOUBLE = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_ENUMFACING = 3;
+
+    private static final EnumFacing[] facings = EnumFacing.values();
+
+    private final Class<?> containerClass;
+    private final Field[] fields;
+    private final byte[] types;
+    private final int booleanMask;
+    private int measuredMask;
+
+    /**
+     * @param containerClass the container, the fields have to be public and non-final
+     * @param fieldNames     double, int, boolean or EnumFacing fields, in the order they are sent, at most 32
+     */
+    public ContainerSyncSchema(Class<?> containerClass, String... fieldNames) {
+        if (fieldNames.length > 32)
+            throw new RuntimeException(containerClass.getName() + " has more than 32 fields to synchronize");
+
+        this.containerClass = containerClass;
+        this.fields = new Field[fieldNames.length];
+        this.types = new byte[fieldNames.length];
+
+        int booleanMask = 0;
+        for (int i = 0; i < fieldNames.length; i++) {
+            Field field = this.getField(fieldNames[i]);
+
+            if (Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers()))
+                throw new RuntimeException(containerClass.getName() + "." + fieldNames[i] + " can not be synchronized");
+
+            Class<?> type = field.getType();
+            if (type == double.class) {
+                this.types[i] = TYPE_DOUBLE;
+            } else if (type == int.class) {
+                this.types[i] = TYPE_INT;
+            } else if (type == boolean.class) {
+                this.types[i] = TYPE_BOOLEAN;
+                booleanMask |= 1 << i;
+            } else if (type == EnumFacing.class) {
+                this.types[i] = TYPE_ENUMFACING;
+            } else {
+                throw new RuntimeException("Unsupported field type " + type.getName() + " of " + containerClass.getName() + "." + fieldNames[i]);
+            }
+
+            this.fields[i] = field;
+        }
+
+        this.booleanMask = booleanMask;
+    }
+
+    /**
+     * Mark double fields as measured values, e.g. voltage and current, they change as soon as the EnergyNet
+     * publishes a new result, while the user only reads a few digits of them
+     */
+    public ContainerSyncSchema measured(String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            Field field = this.getField(fieldName);
+            int i = 0;
+            while (!this.fields[i].equals(field)) {
+                i++;
+                if (i == this.fields.length)
+                    throw new RuntimeException(this.containerClass.getName() + "." + fieldName + " is not synchronized");
+            }
+
+            if (this.types[i] != TYPE_DOUBLE)
+                throw new RuntimeException(this.containerClass.getName() + "." + fieldName + " is not a double");
+            this.measuredMask |= 1 << i;
+        }
+        return this;
+    }
+
+    private Field getField(String fieldName) {
+        try {
+            return this.containerClass.getField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(this.containerClass.getName() + " does not have a public field named " + fieldName, e);
+        }
+    }
+
+    int size() {
+        return this.fields.length;
+    }
+
+    int getMeasuredMask() {
+        return this.measuredMask;
+    }
+
+    /**
+     * Round a value to the given number of significant digits
+     *
+     * @param digits 0 or less disables the rounding
+     */
+    public static double quantise(double value, int digits) {
+        if (digits <= 0 || value == 0 || Double.isNaN(value) || Double.isInfinite(value))
+            return value;
+
+        int exponent = digits - 1 - (int) Math.floor(Math.log10(Math.abs(value)));
+        if (exponent > 300 || exponent < -300)
+            return value;
+
+        if (exponent >= 0) {
+            double scale = Math.pow(10, exponent);
+            return Math.round(value * scale) / scale;
+        } else {
+            double scale = Math.pow(10, -exponent);
+            return Math.round(value / scale) * scale;
+        }
+    }
+
+    /**
+     * Compare the fields of the container with the values sent last time and copy the changed ones into sent[]
+     *
+     * @param sent   the raw bits of the values sent last time
+     * @param mask   the fields to look at
+     * @param digits significant digits of measured values
+     * @return the change mask
+     */
+    int detectChanges(Object container, long[] sent, int mask, int digits) {
+        int changes = 0;
+
+        try {
+            for (int i = 0; i < this.fields.length; i++) {
+                int bit = 1 << i;
+                if ((mask & bit) == 0)
+                    continue;
+
+                Field field = this.fields[i];
+                long value;
+                switch (this.types[i]) {
+                    case TYPE_DOUBLE:
+                        double d = field.getDouble(container);
+                        if ((this.measuredMask & bit) != 0)
+                            d = quantise(d, digits);
+                        value = Double.doubleToLongBits(d);
+                        break;
+                    case TYPE_INT:
+                        value = field.getInt(container);
+                        break;
+                    case TYPE_BOOLEAN:
+                        value = field.getBoolean(container) ? 1 : 0;
+                        break;
+                    default:
+                        EnumFacing facing = (EnumFacing) field.get(container);
+                        value = facing == null ? -1 : facing.ordinal();
+                        break;
+                }
+
+                if (sent[i] != value) {
+                    sent[i] = value;
+                    changes |= bit;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        return changes;
+    }
+
+    /**
+     * Write the change mask and the changed values
+     *
+     * @param sent the raw bits filled by detectChanges()
+     */
+    void write(long[] sent, int changes, ByteBuf buf) {
+        for (int i = 0; i < this.fields.length; i += 8)
+            buf.writeByte(changes >>> i);
+
+        if ((changes & this.booleanMask) != 0) {
+            int bits = 0;
+            for (int i = 0; i < this.fields.length; i++) {
+                if (this.types[i] == TYPE_BOOLEAN && sent[i] != 0)
+                    bits |= 1 << i;
+            }
+
+            for (int i = 0; i < this.fields.length; i += 8) {
+                if ((this.booleanMask & (0xFF << i)) != 0)
+                    buf.writeByte(bits >>> i);
+            }
+        }
+
+        for (int i = 0; i < this.fields.length; i++) {
+            if ((changes & (1 << i)) == 0)
+                continue;
+
+            switch (this.types[i]) {
+                case TYPE_DOUBLE:
+                    buf.writeLong(sent[i]);
+                    break;
+                case TYPE_INT:
+                    buf.writeInt((int) sent[i]);
+                    break;
+                case TYPE_ENUMFACING:
+                    buf.writeByte((int) sent[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Apply the changed values to the client-side container
+     */
+    public void read(ByteBuf buf, Object container) {
+        int changes = 0;
+        for (int i = 0; i < this.fields.length; i += 8)
+            changes |= buf.readUnsignedByte() << i;
+
+        int bits = 0;
+        if ((changes & this.booleanMask) != 0) {
+            for (int i = 0; i < this.fields.length; i += 8) {
+                if ((this.booleanMask & (0xFF << i)) != 0)
+                    bits |= buf.readUnsignedByte() << i;
+            }
+        }
+
+        try {
+            for (int i = 0; i < this.fields.length; i++) {
+                int bit = 1 << i;
+                if ((changes & bit) == 0)
+                    continue;
+
+                Field field = this.fields[i];
+                switch (this.types[i]) {
+                    case TYPE_DOUBLE:
+                        field.setDouble(container, buf.readDouble());
+                        break;
+                    case TYPE_INT:
+                        field.setInt(container, buf.readInt());
+                        break;
+                    case TYPE_BOOLEAN:
+                        field.setBoolean(container, (bits & bit) != 0);
+                        break;
+                    case TYPE_ENUMFACING:
+                        int ordinal = buf.readByte();
+                        field.set(container, ordinal < 0 || ordinal >= facings.length ? null : facings[ordinal]);
+                        break;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package simelectricity.essential.utils.network;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.inventory.Container;
+import net.minecraft.inventory.IContainerListener;
+import net.minecraft.tileentity.TileEntity;
+import simelectricity.api.ISEEnergyNetResultListener;
+import simelectricity.api.SEAPI;
+import simelectricity.essential.ConfigProvider;
+
+import java.util.List;
+
+/**
+ * Server-side record of what has been sent to the client, one per container instance.
+ * <p/>
+ * Every player gets a container of their own, so the send-rate limit of the measured values is effectively per player.
+ * Settings (everything not marked as measured) are sent in the tick they change.
+ * <p/>
+ * The container does not look at its TileEntity every tick, it is woken by the EnergyNet when the results of the
+ * TileEntity change, by events from the client, and every {@link #SETTINGS_POLL_INTERVAL} ticks for settings changed
+ * by other means (e.g. wrench, redstone).
+ * <p/>
+ * Inputs of the player change the TileEntity right away, but the EnergyNet is only told once per tick,
+ * see {@link #markTileParameterChanged()}.
+ */
+public final class ContainerSyncState implements ISEEnergyNetResultListener {
+    public static final int SETTINGS_POLL_INTERVAL = 10;
+
+    private final ContainerSyncSchema schema;
+    private final long[] sent;
+    private boolean initialized;
+    private int ticks;
+    private int lastMeasurementTick;
+
+    //Server only
+    private TileEntity subscribed;
+    private boolean woken;
+    private int lastPollTick;
+    private boolean tileParameterChanged;
+
+    public ContainerSyncState(ContainerSyncSchema schema) {
+        this.schema = schema;
+        this.sent = new long[schema.size()];
+    }
+
+    public ContainerSyncSchema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Call at the beginning of Container.detectAndSendChanges(), subscribes to the results of the TileEntity on the first call
+     *
+     * @return false if nothing can have changed since the last call
+     */
+    public boolean isUpdateNeeded(TileEntity te) {
+        this.ticks++;
+
+        if (this.subscribed == null) {
+            this.subscribed = te;
+            SEAPI.energyNetAgent.subscribeResults(te, this);
+            return true;
+        }
+
+        this.flushTileParameter();
+
+        return this.woken || this.ticks - this.lastPollTick >= SETTINGS_POLL_INTERVAL;
+    }
+
+    /**
+     * Force an update in the next tick, e.g. the player has clicked a button
+     */
+    public void wake() {
+        this.woken = true;
+    }
+
+    /**
+     * Call instead of SEAPI.energyNetAgent.updateTileParameter() when handling inputs of the player,
+     * e.g. a held +/- button sends a click every few frames, the EnergyNet only gets one ParamChanged event per tick
+     */
+    public void markTileParameterChanged() {
+        this.tileParameterChanged = true;
+        this.woken = true;
+    }
+
+    private void flushTileParameter() {
+        if (this.tileParameterChanged) {
+            this.tileParameterChanged = false;
+            if (!this.subscribed.isInvalid())
+                SEAPI.energyNetAgent.updateTileParameter(this.subscribed);
+        }
+    }
+
+    /**
+     * Call from Container.onContainerClosed()
+     */
+    public void close() {
+        if (this.subscribed != null) {
+            this.flushTileParameter();
+            SEAPI.energyNetAgent.unsubscribeResults(this.subscribed, this);
+            this.subscribed = null;
+        }
+    }
+
+    @Override
+    public void onEnergyNetResultChanged(TileEntity te, int resultEpoch) {
+        this.woken = true;
+    }
+
+    /**
+     * Call from Container.detectAndSendChanges() after the container fields have been updated
+     */
+    public void sendChanges(Container container, List<IContainerListener> listeners) {
+        int all = this.schema.size() == 32 ? -1 : (1 << this.schema.size()) - 1;
+        int mask = all;
+
+        //Measured values which are held back stay woken and are sent as soon as the interval has passed
+        this.lastPollTick = this.ticks;
+        this.woken = false;
+        if (this.initialized && this.ticks - this.lastMeasurementTick < ConfigProvider.guiSyncInterval) {
+            mask &= ~this.schema.getMeasuredMask();
+            this.woken = this.schema.getMeasuredMask() != 0;
+        }
+
+        int changes = this.schema.detectChanges(container, this.sent, mask, ConfigProvider.guiSignificantDigits);
+        if (!this.initialized) {
+            changes = all;
+            this.initialized = true;
+        }
+
+        if (changes == 0)
+            return;
+
+        if ((changes & this.schema.getMeasuredMask()) != 0)
+            this.lastMeasurementTick = this.ticks;
+
+        for (IContainerListener listener : listeners) {
+            if (listener instanceof EntityPlayerMP)
+                MessageContainerSync.sendToClient((EntityPlayerMP) listener, container.windowId, this.schema, this.sent, changes);
+        }
+    }
+}
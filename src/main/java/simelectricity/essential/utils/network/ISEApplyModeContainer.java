@@ -0,0 +1,17 @@
+package simelectricity.essential.utils.network;
+
+/**
+ * A container whose settings can also be edited in apply mode: edits are kept in the container (and shown in the GUI)
+ * until the player presses Apply, then they are written to the TileEntity at once. Closing the GUI discards them.
+ * <p/>
+ * Pressing {@link #BUTTON_APPLY} in live mode enters apply mode, pressing it in apply mode applies the edits and
+ * returns to live mode.
+ */
+public interface ISEApplyModeContainer {
+    int BUTTON_APPLY = 100;
+
+    /**
+     * Synchronized to the client, the GUI labels the apply button with it
+     */
+    boolean isApplyMode();
+}
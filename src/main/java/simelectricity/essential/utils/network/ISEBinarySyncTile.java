@@ -0,0 +1,24 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * A TileEntity which sends frequent, small state changes (e.g. light level) through TileSyncBatcher instead of
+ * a full NBT update packet. The initial state still comes with the chunk (the NBT update tag).
+ */
+public interface ISEBinarySyncTile {
+    /**
+     * Write the fields flagged in the bit mask, called from the server thread
+     *
+     * @param fields the bits given to TileSyncBatcher.markDirty() since the last packet, at most 8 bits
+     */
+    void writeSyncData(ByteBuf buf, int fields);
+
+    /**
+     * Read the fields written by writeSyncData(), called from the client thread
+     */
+    @SideOnly(Side.CLIENT)
+    void readSyncData(ByteBuf buf, int fields);
+}
@@ -4,6 +4,14 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 public interface ISEContainerUpdate {
+    /**
+     * @return the sync state of this container instance, its schema is usually a static constant of the container class
+     */
+    ContainerSyncState getSyncState();
+
+    /**
+     * Called after the fields listed in the schema have been updated
+     */
     @SideOnly(Side.CLIENT)
-    void onDataArrivedFromServer(Object[] data);
+    void onDataArrivedFromServer();
 }
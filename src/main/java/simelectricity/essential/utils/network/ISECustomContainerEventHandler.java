@@ -1,5 +0,0 @@
-package simelectricity.essential.utils.network;
-
-public interface ISECustomContainerEventHandler {
-    void onDataArrivedFromClient(Object[] data);
-}
@@ -0,0 +1,8 @@
+package simelectricity.essential.utils.network;
+
+public interface ISENumericInputHandler {
+    /**
+     * Called on the server with a number typed by the player, validate it before applying
+     */
+    void onNumberEntered(int inputID, double value);
+}
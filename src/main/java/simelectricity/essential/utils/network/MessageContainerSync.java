@@ -1,9 +1,9 @@
 package simelectricity.essential.utils.network;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.Container;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
@@ -12,121 +12,145 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import simelectricity.essential.Essential;
 
-import java.util.Iterator;
-
+/**
+ * Server to client: container fields, see ContainerSyncState
+ * <p/>
+ * Client to server: typed actions on the open container, button clicks, direction selection and numeric inputs.
+ * The server only delivers them to the container the sender has open, the container handles them immediately and
+ * should defer expensive updates with ContainerSyncState.markTileParameterChanged(), so that repeated inputs
+ * (e.g. a held +/- button) end up in one update per tick
+ */
 public class MessageContainerSync implements IMessage {
-    private static final byte EVENT_CUSTOM = 0;
+    private static final byte EVENT_NUMERIC_INPUT = 0;
     private static final byte EVENT_BUTTON_CLICK = 1;
     private static final byte EVENT_DIRECTION_SELECT = 2;
-    private static final byte TYPE_BYTE = 0;
-    private static final byte TYPE_INT = 1;
-    private static final byte TYPE_DOUBLE = 2;
-    private static final byte TYPE_ENUMFACING = 3;
-    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte EVENT_CONTAINER_SYNC = 3;
     //MessageData
     private int windowID;
-    private Object[] data;
+    private byte event;
+    //EVENT_BUTTON_CLICK: buttonID, isCtrlPressed
+    //EVENT_DIRECTION_SELECT: mouseButton, direction
+    //EVENT_NUMERIC_INPUT: inputID, value
+    private int intArg;
+    private boolean booleanArg;
+    private EnumFacing direction;
+    private double doubleArg;
+    //EVENT_CONTAINER_SYNC, the sender encodes the values recorded in ContainerSyncState, the receiver keeps
+    //the raw bytes until it is on the client thread and knows the schema of the open container
+    private ContainerSyncSchema schema;
+    private long[] sent;
+    private int changes;
+    private byte[] payload;
 
     public MessageContainerSync() {
     }
 
-    @SideOnly(Side.CLIENT)
-    private MessageContainerSync(int windowID, Object[] data) {
+    private MessageContainerSync(int windowID, byte event) {
         this.windowID = windowID;
-        this.data = data;
-    }
-
-    private MessageContainerSync(Object[] data) {
-        windowID = -1;
-        this.data = data;
+        this.event = event;
     }
 
-    public static void sendToClient(EntityPlayerMP player, Object... data) {
-        Essential.instance.networkChannel.sendTo(new MessageContainerSync(data), player);
+    /**
+     * Use ContainerSyncState.sendChanges(), the message is encoded immediately
+     */
+    static void sendToClient(EntityPlayerMP player, int windowID, ContainerSyncSchema schema, long[] sent, int changes) {
+        MessageContainerSync message = new MessageContainerSync(windowID, EVENT_CONTAINER_SYNC);
+        message.schema = schema;
+        message.sent = sent;
+        message.changes = changes;
+        Essential.instance.networkChannel.sendTo(message, player);
     }
 
     @SideOnly(Side.CLIENT)
     public static void sendButtonClickEventToSever(Container clientContainer, int buttonID, boolean isCtrlPressed) {
-        Essential.instance.networkChannel.sendToServer(new MessageContainerSync(clientContainer.windowId,
-                new Object[]{EVENT_BUTTON_CLICK, buttonID, isCtrlPressed}));
+        MessageContainerSync message = new MessageContainerSync(clientContainer.windowId, EVENT_BUTTON_CLICK);
+        message.intArg = buttonID;
+        message.booleanArg = isCtrlPressed;
+        Essential.instance.networkChannel.sendToServer(message);
     }
 
     @SideOnly(Side.CLIENT)
     public static void sendDirectionSelectorClickEventToSever(Container clientContainer, EnumFacing direction, int mouseButton) {
-        Essential.instance.networkChannel.sendToServer(new MessageContainerSync(clientContainer.windowId,
-                new Object[]{EVENT_DIRECTION_SELECT, direction, mouseButton}));
+        MessageContainerSync message = new MessageContainerSync(clientContainer.windowId, EVENT_DIRECTION_SELECT);
+        message.direction = direction;
+        message.intArg = mouseButton;
+        Essential.instance.networkChannel.sendToServer(message);
     }
 
     @SideOnly(Side.CLIENT)
-    public static void sendToServer(Container clientContainer, Object... data) {
-        Essential.instance.networkChannel.sendToServer(new MessageContainerSync(clientContainer.windowId, data));
+    public static void sendNumericInputToServer(Container clientContainer, int inputID, double value) {
+        MessageContainerSync message = new MessageContainerSync(clientContainer.windowId, EVENT_NUMERIC_INPUT);
+        message.intArg = inputID;
+        message.doubleArg = value;
+        Essential.instance.networkChannel.sendToServer(message);
     }
 
     @Override
     public void toBytes(ByteBuf buf) {
         buf.writeInt(this.windowID);
-        buf.writeByte(this.data.length);
-
-        for (int i = 0; i < this.data.length; i++) {
-            if (this.data[i].getClass() == Byte.class) {
-                buf.writeByte(TYPE_BYTE);
-                buf.writeByte((Byte) this.data[i]);
-            } else if (this.data[i].getClass() == Integer.class) {
-                buf.writeByte(TYPE_INT);
-                buf.writeInt((Integer) this.data[i]);
-            } else if (this.data[i].getClass() == Double.class) {
-                buf.writeByte(TYPE_DOUBLE);
-                buf.writeDouble((Double) this.data[i]);
-            } else if (this.data[i].getClass() == EnumFacing.class) {
-                buf.writeByte(TYPE_ENUMFACING);
-                buf.writeByte(((EnumFacing) this.data[i]).ordinal());
-            } else if (this.data[i].getClass() == Boolean.class) {
-                buf.writeByte(TYPE_BOOLEAN);
-                buf.writeBoolean((Boolean) this.data[i]);
-            }
+        buf.writeByte(this.event);
+
+        switch (this.event) {
+            case EVENT_CONTAINER_SYNC:
+                this.schema.write(this.sent, this.changes, buf);
+                return;
+            case EVENT_BUTTON_CLICK:
+                buf.writeInt(this.intArg);
+                buf.writeBoolean(this.booleanArg);
+                return;
+            case EVENT_DIRECTION_SELECT:
+                buf.writeByte(this.direction.ordinal());
+                buf.writeByte(this.intArg);
+                return;
+            case EVENT_NUMERIC_INPUT:
+                buf.writeInt(this.intArg);
+                buf.writeDouble(this.doubleArg);
+                return;
         }
     }
 
     @Override
     public void fromBytes(ByteBuf buf) {
         this.windowID = buf.readInt();
-        int length = buf.readByte();
-        this.data = new Object[length];
-
-        for (int i = 0; i < this.data.length; i++) {
-            switch (buf.readByte()) {
-                case TYPE_BYTE:
-                    this.data[i] = buf.readByte();
-                    break;
-                case TYPE_INT:
-                    this.data[i] = buf.readInt();
-                    break;
-                case TYPE_DOUBLE:
-                    this.data[i] = buf.readDouble();
-                    break;
-                case TYPE_ENUMFACING:
-                    this.data[i] = EnumFacing.getFront(buf.readByte());
-                    break;
-                case TYPE_BOOLEAN:
-                    this.data[i] = buf.readBoolean();
-            }
+        this.event = buf.readByte();
+
+        switch (this.event) {
+            case EVENT_CONTAINER_SYNC:
+                this.payload = new byte[buf.readableBytes()];
+                buf.readBytes(this.payload);
+                return;
+            case EVENT_BUTTON_CLICK:
+                this.intArg = buf.readInt();
+                this.booleanArg = buf.readBoolean();
+                return;
+            case EVENT_DIRECTION_SELECT:
+                this.direction = EnumFacing.getFront(buf.readByte());
+                this.intArg = buf.readByte();
+                return;
+            case EVENT_NUMERIC_INPUT:
+                this.intArg = buf.readInt();
+                this.doubleArg = buf.readDouble();
+                return;
         }
-
     }
 
     //This class have to be visible to the dedicated server even the server doesn't need it at all
     public static class HandlerClient implements IMessageHandler<MessageContainerSync, IMessage> {
         @Override
         public IMessage onMessage(MessageContainerSync message, MessageContext ctx) {
-            Object[] payload = message.data;
+            int windowID = message.windowID;
+            byte[] payload = message.payload;
 
             //Client
             Essential.proxy.getClientThread().addScheduledTask(new Runnable() {
                 @Override
                 public void run() {
                     Container invContainer = Essential.proxy.getClientPlayer().openContainer;
-                    if (invContainer instanceof ISEContainerUpdate)
-                        ((ISEContainerUpdate) invContainer).onDataArrivedFromServer(payload);
+                    if (invContainer instanceof ISEContainerUpdate && invContainer.windowId == windowID) {
+                        ISEContainerUpdate container = (ISEContainerUpdate) invContainer;
+                        container.getSyncState().getSchema().read(Unpooled.wrappedBuffer(payload), container);
+                        container.onDataArrivedFromServer();
+                    }
                 }
             });
 
@@ -139,37 +163,38 @@ public class MessageContainerSync implements IMessage {
         @Override
         public IMessage onMessage(MessageContainerSync message, MessageContext ctx) {
             //Server
-            MinecraftServer server = ctx.getServerHandler().player.mcServer;
-            int windowID = message.windowID;
-            Object[] data = message.data;
+            EntityPlayerMP player = ctx.getServerHandler().player;
 
             //Make sure the actual modification is done on the server-thread.
-            server.addScheduledTask(new Runnable() {
+            player.mcServer.addScheduledTask(new Runnable() {
                 @Override
                 public void run() {
-                    Iterator<EntityPlayerMP> playerListIterator = server.getPlayerList().getPlayers().iterator();
-                    while (playerListIterator.hasNext()) {
-                        EntityPlayerMP player = playerListIterator.next();
-
-                        if (player.openContainer.windowId == windowID) {
-                            Container container = player.openContainer;
-
-                            switch ((Byte) data[0]) {
-                                case EVENT_CUSTOM:
-                                    if (container instanceof ISECustomContainerEventHandler)
-                                        ((ISECustomContainerEventHandler) container).onDataArrivedFromClient(data);
-                                    break;
-                                case EVENT_BUTTON_CLICK:
-                                    if (container instanceof ISEButtonEventHandler)
-                                        ((ISEButtonEventHandler) container).onButtonPressed((Integer) data[1], (Boolean) data[2]);
-                                    break;
-                                case EVENT_DIRECTION_SELECT:
-                                    if (container instanceof ISEDirectionSelectorEventHandler)
-                                        ((ISEDirectionSelectorEventHandler) container).onDirectionSelected((EnumFacing) data[1], (Integer) data[2]);
-                                    break;
-                            }
-                        }
-                    }//while()
+                    //Only the container the sender has open, and only if the sender can still use it
+                    Container container = player.openContainer;
+                    if (container == player.inventoryContainer || container.windowId != message.windowID ||
+                            !container.canInteractWith(player))
+                        return;
+
+                    switch (message.event) {
+                        case EVENT_BUTTON_CLICK:
+                            if (container instanceof ISEButtonEventHandler)
+                                ((ISEButtonEventHandler) container).onButtonPressed(message.intArg, message.booleanArg);
+                            break;
+                        case EVENT_DIRECTION_SELECT:
+                            if (container instanceof ISEDirectionSelectorEventHandler)
+                                ((ISEDirectionSelectorEventHandler) container).onDirectionSelected(message.direction, message.intArg);
+                            break;
+                        case EVENT_NUMERIC_INPUT:
+                            if (Double.isNaN(message.doubleArg) || Double.isInfinite(message.doubleArg))
+                                return;
+                            if (container instanceof ISENumericInputHandler)
+                                ((ISENumericInputHandler) container).onNumberEntered(message.intArg, message.doubleArg);
+                            break;
+                    }
+
+                    //The settings may have been changed
+                    if (container instanceof ISEContainerUpdate)
+                        ((ISEContainerUpdate) container).getSyncState().wake();
                 }//run()
             });
 
@@ -0,0 +1,82 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import simelectricity.essential.Essential;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server to client, all telemetry readings of a player which changed in this tick, see TelemetryService
+ * <p/>
+ * Format: number of entries (short), then for each entry: the point, a flag (byte, 0 = expired, 1 = reading),
+ * followed by voltage and current (float each) if it is a reading. The current is NaN if it is not applicable to the node
+ */
+public class MessageTelemetry implements IMessage {
+    private List<Entry> entries;
+
+    public MessageTelemetry() {
+    }
+
+    MessageTelemetry(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    static final class Entry {
+        final TelemetryPoint point;
+        final boolean expired;
+        final float voltage, current;
+
+        Entry(TelemetryPoint point, boolean expired, float voltage, float current) {
+            this.point = point;
+            this.expired = expired;
+            this.voltage = voltage;
+            this.current = current;
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeShort(this.entries.size());
+        for (Entry entry : this.entries) {
+            entry.point.toBytes(buf);
+            buf.writeByte(entry.expired ? 0 : 1);
+            if (!entry.expired) {
+                buf.writeFloat(entry.voltage);
+                buf.writeFloat(entry.current);
+            }
+        }
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        int count = buf.readUnsignedShort();
+        this.entries = new ArrayList<Entry>(count);
+        for (int i = 0; i < count; i++) {
+            TelemetryPoint point = TelemetryPoint.fromBytes(buf);
+            if (buf.readByte() == 0)
+                this.entries.add(new Entry(point, true, 0, 0));
+            else
+                this.entries.add(new Entry(point, false, buf.readFloat(), buf.readFloat()));
+        }
+    }
+
+    //This class have to be visible to the dedicated server even the server doesn't need it at all
+    public static class Handler implements IMessageHandler<MessageTelemetry, IMessage> {
+        @Override
+        public IMessage onMessage(MessageTelemetry message, MessageContext ctx) {
+            Essential.proxy.getClientThread().addScheduledTask(new Runnable() {
+                @Override
+                public void run() {
+                    TelemetryClient.onTelemetryArrived(message.entries);
+                }
+            });
+
+            //Reply nothing
+            return null;
+        }
+    }
+}
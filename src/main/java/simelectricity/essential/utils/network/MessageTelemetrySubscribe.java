@@ -0,0 +1,64 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client to server, subscribe to or unsubscribe from some telemetry points, see TelemetryService
+ */
+public class MessageTelemetrySubscribe implements IMessage {
+    private boolean subscribe;
+    private List<TelemetryPoint> points;
+
+    public MessageTelemetrySubscribe() {
+    }
+
+    MessageTelemetrySubscribe(boolean subscribe, List<TelemetryPoint> points) {
+        this.subscribe = subscribe;
+        this.points = points;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeBoolean(this.subscribe);
+        buf.writeShort(this.points.size());
+        for (TelemetryPoint point : this.points)
+            point.toBytes(buf);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.subscribe = buf.readBoolean();
+        int count = Math.min(buf.readUnsignedShort(), TelemetryService.MAX_SUBSCRIPTIONS);
+        this.points = new ArrayList<TelemetryPoint>(count);
+        for (int i = 0; i < count; i++)
+            this.points.add(TelemetryPoint.fromBytes(buf));
+    }
+
+    public static class Handler implements IMessageHandler<MessageTelemetrySubscribe, IMessage> {
+        @Override
+        public IMessage onMessage(MessageTelemetrySubscribe message, MessageContext ctx) {
+            EntityPlayerMP player = ctx.getServerHandler().player;
+
+            //Make sure the actual modification is done on the server-thread.
+            player.mcServer.addScheduledTask(new Runnable() {
+                @Override
+                public void run() {
+                    if (message.subscribe)
+                        TelemetryService.subscribe(player, message.points);
+                    else
+                        TelemetryService.unsubscribe(player, message.points);
+                }
+            });
+
+            //Reply nothing
+            return null;
+        }
+    }
+}
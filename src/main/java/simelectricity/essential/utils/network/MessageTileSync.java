@@ -0,0 +1,99 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import simelectricity.essential.Essential;
+
+import java.util.List;
+
+/**
+ * Dirty fields of the ISEBinarySyncTiles of one chunk, see TileSyncBatcher
+ * <p/>
+ * Format: chunkX (int), chunkZ (int), number of tiles (short), then for each tile:
+ * position within the chunk (short, x << 12 | z << 8 | y), fields (byte), length of the data (short), data
+ */
+public class MessageTileSync implements IMessage {
+    private int chunkX, chunkZ;
+    //Server
+    private List<TileSyncBatcher.Pending> tiles;
+    //Client, decoded on the client thread
+    private byte[] payload;
+
+    public MessageTileSync() {
+    }
+
+    MessageTileSync(int chunkX, int chunkZ, List<TileSyncBatcher.Pending> tiles) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.tiles = tiles;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(this.chunkX);
+        buf.writeInt(this.chunkZ);
+        buf.writeShort(this.tiles.size());
+
+        for (TileSyncBatcher.Pending pending : this.tiles) {
+            BlockPos pos = pending.te.getPos();
+            buf.writeShort(((pos.getX() & 15) << 12) | ((pos.getZ() & 15) << 8) | (pos.getY() & 255));
+            buf.writeByte(pending.fields);
+
+            //Fill in the length afterwards
+            int lengthIndex = buf.writerIndex();
+            buf.writeShort(0);
+            ((ISEBinarySyncTile) pending.te).writeSyncData(buf, pending.fields);
+            buf.setShort(lengthIndex, buf.writerIndex() - lengthIndex - 2);
+        }
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.chunkX = buf.readInt();
+        this.chunkZ = buf.readInt();
+        this.payload = new byte[buf.readableBytes()];
+        buf.readBytes(this.payload);
+    }
+
+    //This class have to be visible to the dedicated server even the server doesn't need it at all
+    public static class Handler implements IMessageHandler<MessageTileSync, IMessage> {
+        @Override
+        public IMessage onMessage(MessageTileSync message, MessageContext ctx) {
+            Essential.proxy.getClientThread().addScheduledTask(new Runnable() {
+                @Override
+                public void run() {
+                    World world = Essential.proxy.getClientWorld();
+                    if (world == null || world.getChunkProvider().getLoadedChunk(message.chunkX, message.chunkZ) == null)
+                        return;
+
+                    ByteBuf buf = Unpooled.wrappedBuffer(message.payload);
+                    int count = buf.readUnsignedShort();
+                    for (int i = 0; i < count; i++) {
+                        int localPos = buf.readUnsignedShort();
+                        int fields = buf.readUnsignedByte();
+                        int length = buf.readUnsignedShort();
+                        int end = buf.readerIndex() + length;
+
+                        BlockPos pos = new BlockPos((message.chunkX << 4) | (localPos >> 12),
+                                localPos & 255, (message.chunkZ << 4) | ((localPos >> 8) & 15));
+                        TileEntity te = world.getTileEntity(pos);
+                        //The tile may not exist on the client yet (or anymore), its state comes with the chunk
+                        if (te instanceof ISEBinarySyncTile)
+                            ((ISEBinarySyncTile) te).readSyncData(buf.slice(buf.readerIndex(), length), fields);
+
+                        buf.readerIndex(end);
+                    }
+                }
+            });
+
+            //Reply nothing
+            return null;
+        }
+    }
+}
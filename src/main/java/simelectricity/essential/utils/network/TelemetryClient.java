@@ -0,0 +1,109 @@
+package simelectricity.essential.utils.network;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
+import simelectricity.essential.Essential;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Client side of the live telemetry, see TelemetryService
+ * <p/>
+ * Meters and HUD overlays subscribe to the points they display and read the latest values with getReading(),
+ * a subscription expired by the server (out of range, node removed) has to be made again.
+ */
+public class TelemetryClient {
+    public static final class Reading {
+        public final double voltage;
+        /**
+         * NaN if the node does not have a current, e.g. a cable
+         */
+        public final double current;
+
+        private Reading(double voltage, double current) {
+            this.voltage = voltage;
+            this.current = current;
+        }
+    }
+
+    //Subscribed points, and their latest readings (null until the first one arrives)
+    private static final HashMap<TelemetryPoint, Reading> readings = new HashMap<TelemetryPoint, Reading>();
+
+    /**
+     * @param side null for the node of the block, otherwise the side of the component
+     */
+    public static void subscribe(BlockPos pos, EnumFacing side) {
+        TelemetryPoint point = new TelemetryPoint(pos, side);
+
+        synchronized (readings) {
+            if (readings.containsKey(point) || readings.size() >= TelemetryService.MAX_SUBSCRIPTIONS)
+                return;
+            readings.put(point, null);
+        }
+
+        Essential.instance.networkChannel.sendToServer(new MessageTelemetrySubscribe(true, Collections.singletonList(point)));
+    }
+
+    public static void unsubscribe(BlockPos pos, EnumFacing side) {
+        TelemetryPoint point = new TelemetryPoint(pos, side);
+
+        synchronized (readings) {
+            if (!readings.containsKey(point))
+                return;
+            readings.remove(point);
+        }
+
+        Essential.instance.networkChannel.sendToServer(new MessageTelemetrySubscribe(false, Collections.singletonList(point)));
+    }
+
+    public static void unsubscribeAll() {
+        List<TelemetryPoint> points;
+        synchronized (readings) {
+            if (readings.isEmpty())
+                return;
+            points = new ArrayList<TelemetryPoint>(readings.keySet());
+            readings.clear();
+        }
+
+        Essential.instance.networkChannel.sendToServer(new MessageTelemetrySubscribe(false, points));
+    }
+
+    public static boolean isSubscribed(BlockPos pos, EnumFacing side) {
+        synchronized (readings) {
+            return readings.containsKey(new TelemetryPoint(pos, side));
+        }
+    }
+
+    /**
+     * @return the latest reading, null if not subscribed or nothing has arrived yet
+     */
+    public static Reading getReading(BlockPos pos, EnumFacing side) {
+        synchronized (readings) {
+            return readings.get(new TelemetryPoint(pos, side));
+        }
+    }
+
+    static void onTelemetryArrived(List<MessageTelemetry.Entry> entries) {
+        synchronized (readings) {
+            for (MessageTelemetry.Entry entry : entries) {
+                if (entry.expired)
+                    readings.remove(entry.point);
+                else if (readings.containsKey(entry.point))
+                    readings.put(entry.point, new Reading(entry.voltage, entry.current));
+            }
+        }
+    }
+
+    //The server forgets the subscriptions of a player who logs out
+    @SubscribeEvent
+    public void onClientDisconnected(FMLNetworkEvent.ClientDisconnectionFromServerEvent event) {
+        synchronized (readings) {
+            readings.clear();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package simelectricity.essential.utils.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * A node which can be watched with the telemetry service, identified by the position of its block
+ * and, for ISETiles, the side of the component
+ */
+public final class TelemetryPoint {
+    public final BlockPos pos;
+    /**
+     * null for the node of a cable, a grid tile or an ISENodeDelegateBlock, otherwise the side of the ISESubComponent
+     */
+    public final EnumFacing side;
+
+    public TelemetryPoint(BlockPos pos, EnumFacing side) {
+        this.pos = pos;
+        this.side = side;
+    }
+
+    void toBytes(ByteBuf buf) {
+        buf.writeLong(this.pos.toLong());
+        buf.writeByte(this.side == null ? -1 : this.side.ordinal());
+    }
+
+    static TelemetryPoint fromBytes(ByteBuf buf) {
+        BlockPos pos = BlockPos.fromLong(buf.readLong());
+        int side = buf.readByte();
+        return new TelemetryPoint(pos, side < 0 || side >= EnumFacing.VALUES.length ? null : EnumFacing.getFront(side));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TelemetryPoint))
+            return false;
+
+        TelemetryPoint point = (TelemetryPoint) obj;
+        return this.pos.equals(point.pos) && this.side == point.side;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.pos.hashCode() * 7 + (this.side == null ? 6 : this.side.ordinal());
+    }
+}
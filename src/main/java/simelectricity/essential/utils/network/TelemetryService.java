@@ -0,0 +1,200 @@
+package simelectricity.essential.utils.network;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import simelectricity.api.SEAPI;
+import simelectricity.api.node.ISESimulatable;
+import simelectricity.api.tile.ISECableTile;
+import simelectricity.api.tile.ISEGridTile;
+import simelectricity.api.tile.ISETile;
+import simelectricity.essential.ConfigProvider;
+import simelectricity.essential.Essential;
+import simelectricity.essential.api.ISENodeDelegateBlock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server side of the live telemetry: pushes the voltage and current of the nodes a player has subscribed to,
+ * for meters, sensors and HUD overlays which can not open a container.
+ * <p/>
+ * A subscription is only read when the EnergyNet has published new results for its node, the values are rounded
+ * like measured values in GUIs and only sent if the rounded value changed.
+ * All readings of a player go out in one MessageTelemetry at the end of the server tick.
+ * Subscriptions expire when the player moves further than {@link ConfigProvider#telemetryRange} away,
+ * changes dimension, or the node disappears; the client is told so it can subscribe again.
+ * Subscriptions are kept by player UUID, so they survive a respawn.
+ */
+public class TelemetryService {
+    public static final int MAX_SUBSCRIPTIONS = 64;
+
+    private static final Map<UUID, PlayerSubscriptions> players = new HashMap<UUID, PlayerSubscriptions>();
+
+    private static final class PlayerSubscriptions {
+        final int dimension;
+        final LinkedHashMap<TelemetryPoint, Subscription> points = new LinkedHashMap<TelemetryPoint, Subscription>();
+
+        private PlayerSubscriptions(int dimension) {
+            this.dimension = dimension;
+        }
+    }
+
+    private static final class Subscription {
+        //-1 forces the first reading to be sent
+        int epoch = -1;
+        float voltage, current;
+    }
+
+    static void subscribe(EntityPlayerMP player, List<TelemetryPoint> points) {
+        PlayerSubscriptions subscriptions = players.get(player.getUniqueID());
+        if (subscriptions == null || subscriptions.dimension != player.dimension) {
+            subscriptions = new PlayerSubscriptions(player.dimension);
+            players.put(player.getUniqueID(), subscriptions);
+        }
+
+        //Points over the limit are expired right away, the client would wait for them forever otherwise
+        List<MessageTelemetry.Entry> rejected = new ArrayList<MessageTelemetry.Entry>();
+        for (TelemetryPoint point : points) {
+            if (subscriptions.points.containsKey(point))
+                continue;
+
+            if (subscriptions.points.size() >= MAX_SUBSCRIPTIONS)
+                rejected.add(new MessageTelemetry.Entry(point, true, 0, 0));
+            else
+                subscriptions.points.put(point, new Subscription());
+        }
+
+        if (!rejected.isEmpty())
+            Essential.instance.networkChannel.sendTo(new MessageTelemetry(rejected), player);
+    }
+
+    static void unsubscribe(EntityPlayerMP player, List<TelemetryPoint> points) {
+        PlayerSubscriptions subscriptions = players.get(player.getUniqueID());
+        if (subscriptions == null)
+            return;
+
+        for (TelemetryPoint point : points)
+            subscriptions.points.remove(point);
+
+        if (subscriptions.points.isEmpty())
+            players.remove(player.getUniqueID());
+    }
+
+    /**
+     * @return the node at the given point, null if there is none
+     */
+    public static ISESimulatable getNode(World world, TelemetryPoint point) {
+        TileEntity te = world.getTileEntity(point.pos);
+
+        if (point.side != null)
+            return te instanceof ISETile ? ((ISETile) te).getComponent(point.side) : null;
+
+        Block block = world.getBlockState(point.pos).getBlock();
+        if (block instanceof ISENodeDelegateBlock) {
+            ISESimulatable node = ((ISENodeDelegateBlock) block).getNode(world, point.pos);
+            if (node != null)
+                return node;
+        }
+
+        if (te instanceof ISECableTile)
+            return ((ISECableTile) te).getNode();
+        else if (te instanceof ISEGridTile)
+            return ((ISEGridTile) te).getGridNode();
+
+        return null;
+    }
+
+    private static boolean isInRange(EntityPlayer player, BlockPos pos) {
+        double range = ConfigProvider.telemetryRange;
+        return player.getDistanceSqToCenter(pos) <= range * range;
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || players.isEmpty())
+            return;
+
+        MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+        Iterator<Map.Entry<UUID, PlayerSubscriptions>> playerIterator = players.entrySet().iterator();
+        while (playerIterator.hasNext()) {
+            Map.Entry<UUID, PlayerSubscriptions> playerEntry = playerIterator.next();
+            EntityPlayerMP player = server.getPlayerList().getPlayerByUUID(playerEntry.getKey());
+            if (player == null) {
+                playerIterator.remove();
+                continue;
+            }
+
+            PlayerSubscriptions subscriptions = playerEntry.getValue();
+            boolean dimensionChanged = player.dimension != subscriptions.dimension;
+            World world = player.world;
+
+            List<MessageTelemetry.Entry> entries = new ArrayList<MessageTelemetry.Entry>();
+            Iterator<Map.Entry<TelemetryPoint, Subscription>> iterator = subscriptions.points.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<TelemetryPoint, Subscription> entry = iterator.next();
+                TelemetryPoint point = entry.getKey();
+                Subscription subscription = entry.getValue();
+
+                ISESimulatable node = null;
+                if (!dimensionChanged && isInRange(player, point.pos) && world.isBlockLoaded(point.pos))
+                    node = getNode(world, point);
+
+                if (node == null) {
+                    iterator.remove();
+                    entries.add(new MessageTelemetry.Entry(point, true, 0, 0));
+                    continue;
+                }
+
+                //Nothing new since the last reading
+                int epoch = SEAPI.energyNetAgent.getResultEpoch(node);
+                if (epoch == subscription.epoch)
+                    continue;
+                boolean first = subscription.epoch < 0;
+                subscription.epoch = epoch;
+
+                int digits = ConfigProvider.guiSignificantDigits;
+                float voltage = (float) ContainerSyncSchema.quantise(SEAPI.energyNetAgent.getVoltage(node), digits);
+                float current = (float) ContainerSyncSchema.quantise(SEAPI.energyNetAgent.getCurrentMagnitude(node), digits);
+                if (!first && Float.floatToIntBits(voltage) == Float.floatToIntBits(subscription.voltage) &&
+                        Float.floatToIntBits(current) == Float.floatToIntBits(subscription.current))
+                    continue;
+
+                subscription.voltage = voltage;
+                subscription.current = current;
+                entries.add(new MessageTelemetry.Entry(point, false, voltage, current));
+            }
+
+            if (subscriptions.points.isEmpty())
+                playerIterator.remove();
+
+            if (!entries.isEmpty())
+                Essential.instance.networkChannel.sendTo(new MessageTelemetry(entries), player);
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        players.remove(event.player.getUniqueID());
+    }
+
+    /**
+     * Called when the server has stopped, an integrated server may start another world in the same JVM
+     */
+    public static void onServerStopped() {
+        players.clear();
+    }
+}
@@ -0,0 +1,110 @@
+package simelectricity.essential.utils.network;
+
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import simelectricity.essential.Essential;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Collects the dirty fields of ISEBinarySyncTiles during a tick, and sends them at the end of the world tick,
+ * one MessageTileSync per chunk to the players watching that chunk.
+ * A tile marked several times in a tick is sent once, with all its dirty fields.
+ */
+public class TileSyncBatcher {
+    private static final Map<World, HashMap<Long, LinkedHashMap<BlockPos, Pending>>> worlds =
+            new WeakHashMap<World, HashMap<Long, LinkedHashMap<BlockPos, Pending>>>();
+
+    static final class Pending {
+        final TileEntity te;
+        int fields;
+
+        private Pending(TileEntity te) {
+            this.te = te;
+        }
+    }
+
+    /**
+     * Schedule some fields of a tile for synchronization, has no effect on the client side
+     *
+     * @param fields bit mask passed to ISEBinarySyncTile.writeSyncData(), bits are accumulated until the end of the tick
+     */
+    public static synchronized void markDirty(TileEntity te, int fields) {
+        World world = te.getWorld();
+        if (world == null || world.isRemote || !(te instanceof ISEBinarySyncTile))
+            return;
+
+        HashMap<Long, LinkedHashMap<BlockPos, Pending>> chunks = worlds.get(world);
+        if (chunks == null) {
+            chunks = new HashMap<Long, LinkedHashMap<BlockPos, Pending>>();
+            worlds.put(world, chunks);
+        }
+
+        BlockPos pos = te.getPos();
+        long chunk = ((long) (pos.getX() >> 4) << 32) | ((pos.getZ() >> 4) & 0xFFFFFFFFL);
+        LinkedHashMap<BlockPos, Pending> tiles = chunks.get(chunk);
+        if (tiles == null) {
+            tiles = new LinkedHashMap<BlockPos, Pending>();
+            chunks.put(chunk, tiles);
+        }
+
+        Pending pending = tiles.get(pos);
+        if (pending == null || pending.te != te) {
+            pending = new Pending(te);
+            tiles.put(pos, pending);
+        }
+        pending.fields |= fields;
+    }
+
+    private static synchronized HashMap<Long, LinkedHashMap<BlockPos, Pending>> take(World world) {
+        HashMap<Long, LinkedHashMap<BlockPos, Pending>> chunks = worlds.get(world);
+        if (chunks == null || chunks.isEmpty())
+            return null;
+
+        worlds.put(world, new HashMap<Long, LinkedHashMap<BlockPos, Pending>>());
+        return chunks;
+    }
+
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.side != Side.SERVER)
+            return;
+
+        HashMap<Long, LinkedHashMap<BlockPos, Pending>> chunks = take(event.world);
+        if (chunks == null)
+            return;
+
+        WorldServer world = (WorldServer) event.world;
+        for (Map.Entry<Long, LinkedHashMap<BlockPos, Pending>> chunk : chunks.entrySet()) {
+            int chunkX = (int) (chunk.getKey() >> 32);
+            int chunkZ = (int) chunk.getKey().longValue();
+
+            //Nobody is watching, the state goes with the chunk data when somebody does
+            PlayerChunkMapEntry entry = world.getPlayerChunkMap().getEntry(chunkX, chunkZ);
+            if (entry == null)
+                continue;
+
+            ArrayList<Pending> tiles = new ArrayList<Pending>(chunk.getValue().size());
+            Iterator<Pending> iterator = chunk.getValue().values().iterator();
+            while (iterator.hasNext()) {
+                Pending pending = iterator.next();
+                if (!pending.te.isInvalid())
+                    tiles.add(pending);
+            }
+
+            if (!tiles.isEmpty())
+                entry.sendPacket(Essential.instance.networkChannel.getPacketFrom(new MessageTileSync(chunkX, chunkZ, tiles)));
+        }
+    }
+}